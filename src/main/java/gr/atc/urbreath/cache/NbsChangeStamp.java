@@ -0,0 +1,89 @@
+package gr.atc.urbreath.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import gr.atc.urbreath.events.NbsChangedEvent;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.repository.NbsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/*
+ * Collection-level change stamp of the NBS registry
+ * Used as HTTP validator (ETag / Last-Modified) of the read endpoints, so conditional requests are answered without loading any NBS
+ * Stamp is derived from the DB (latest lastModified and number of records), so all replicas and direct DB writes agree on it
+ * It is read through a short-lived cache, so a change made by another replica is reflected within the configured TTL
+ */
+@Component
+@Slf4j
+public class NbsChangeStamp {
+
+    private static final String STAMP_KEY = "nbs";
+
+    private final NbsRepository nbsRepository;
+
+    private final LoadingCache<String, Stamp> stamp;
+
+    public NbsChangeStamp(NbsRepository nbsRepository, @Value("${nbs.change-stamp.ttl}") Duration ttl) {
+        this.nbsRepository = nbsRepository;
+        this.stamp = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build(key -> loadStamp());
+    }
+
+    /**
+     * Retrieve the last modification time of the NBS collection
+     * Truncated to seconds as required by the Last-Modified header
+     *
+     * @return Instant
+     */
+    public Instant getLastModified() {
+        return stamp.get(STAMP_KEY).lastModified().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Retrieve the current ETag of the NBS collection
+     * Weak as the response envelope contains a timestamp that differs between identical payloads
+     *
+     * @return ETag value
+     */
+    public String getETag() {
+        Stamp current = stamp.get(STAMP_KEY);
+        return "W/\"" + current.lastModified().toEpochMilli() + "-" + current.count() + "\"";
+    }
+
+    /**
+     * Reload the stamp on the next request whenever an NBS is created or updated by this instance
+     *
+     * @param event : NBS change event
+     */
+    @EventListener
+    public void onNbsChanged(NbsChangedEvent event) {
+        stamp.invalidate(STAMP_KEY);
+        log.debug("NBS collection changed - Change stamp will be reloaded");
+    }
+
+    /**
+     * Load the stamp from the lastModified index and the collection count
+     * Count reflects removed records, which do not advance the latest modification time
+     *
+     * @return Stamp
+     */
+    private Stamp loadStamp() {
+        Instant lastModified = nbsRepository.findTopByOrderByLastModifiedDesc()
+                .map(Nbs::getLastModified)
+                .map(Date::toInstant)
+                .orElse(Instant.EPOCH);
+        return new Stamp(lastModified, nbsRepository.count());
+    }
+
+    private record Stamp(Instant lastModified, long count) {
+    }
+}
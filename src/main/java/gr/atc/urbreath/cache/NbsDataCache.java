@@ -0,0 +1,209 @@
+package gr.atc.urbreath.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.events.NbsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/*
+ * Bounded in-process cache of NBS details
+ * DTOs are stored once per ID, while titles are indexed to the ID of the corresponding entry
+ * Every caller receives its own copy of the cached DTO, so modifications of a response never reach the cached entry
+ * Loads by ID are atomic per key, while loads by title are only cached if no eviction happened in the meantime
+ * Entries are tagged with the collection change stamp they were loaded under - Eviction events are only published by the
+ * replica that made the change, so an entry is reloaded once the stamp advances, and responses never outlive their validators
+ */
+@Component
+@Slf4j
+public class NbsDataCache {
+
+    private final Cache<String, CachedNbs> nbsById;
+
+    private final Cache<String, String> nbsIdByTitle;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final NbsChangeStamp nbsChangeStamp;
+
+    private record CachedNbs(NbsDataDto nbs, String stamp) {
+
+        // Entries are accepted if the current stamp is unknown, e.g. DB is unreachable
+        boolean isCurrent(String currentStamp) {
+            return currentStamp == null || currentStamp.equals(stamp);
+        }
+    }
+
+    public NbsDataCache(@Value("${nbs.cache.maximum-size}") long maximumSize,
+                        @Value("${nbs.cache.ttl-minutes}") long ttlMinutes,
+                        MeterRegistry meterRegistry,
+                        NbsChangeStamp nbsChangeStamp) {
+        this.nbsChangeStamp = nbsChangeStamp;
+        this.nbsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.nbsIdByTitle = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nbsById, "nbs");
+        CaffeineCacheMetrics.monitor(meterRegistry, nbsIdByTitle, "nbs-titles");
+    }
+
+    /**
+     * Retrieve NBS by ID from cache or load it if not present
+     *
+     * @param nbsId : ID of NBS
+     * @param loader : Function to load the NBS in case of cache miss
+     * @return NbsDataDto
+     */
+    public NbsDataDto getById(String nbsId, Function<String, NbsDataDto> loader) {
+        String stamp = currentStamp();
+        Function<String, CachedNbs> load = id -> {
+            NbsDataDto nbs = loader.apply(id);
+            if (nbs == null) {
+                return null;
+            }
+            if (nbs.getTitle() != null) {
+                nbsIdByTitle.put(nbs.getTitle(), id);
+            }
+            return new CachedNbs(nbs, stamp);
+        };
+
+        CachedNbs cachedNbs = nbsById.get(nbsId, load);
+        if (cachedNbs != null && !cachedNbs.isCurrent(stamp)) {
+            cachedNbs = nbsById.asMap().compute(nbsId, (id, existing) -> existing != null && existing.isCurrent(stamp) ? existing : load.apply(id));
+        }
+        return copyOf(cachedNbs != null ? cachedNbs.nbs() : null);
+    }
+
+    /**
+     * Retrieve NBS by Title from cache or load it if not present
+     *
+     * @param title : Title of NBS
+     * @param loader : Function to load the NBS in case of cache miss
+     * @return NbsDataDto
+     */
+    public NbsDataDto getByTitle(String title, Function<String, NbsDataDto> loader) {
+        // Title index may be outdated by a concurrent update, so the title of the indexed entry is verified
+        String stamp = currentStamp();
+        String nbsId = nbsIdByTitle.getIfPresent(title);
+        if (nbsId != null) {
+            CachedNbs cachedNbs = nbsById.getIfPresent(nbsId);
+            if (cachedNbs != null && cachedNbs.isCurrent(stamp) && title.equals(cachedNbs.nbs().getTitle())) {
+                return copyOf(cachedNbs.nbs());
+            }
+        }
+
+        // An eviction during the load may concern the loaded record, so it is returned without being cached
+        long evictionCount = evictions.get();
+        NbsDataDto nbs = loader.apply(title);
+        if (nbs != null && nbs.getId() != null) {
+            nbsById.asMap().compute(nbs.getId(), (id, cachedNbs) -> evictions.get() == evictionCount ? new CachedNbs(nbs, stamp) : cachedNbs);
+            if (evictions.get() == evictionCount) {
+                nbsIdByTitle.put(title, nbs.getId());
+            }
+        }
+        return copyOf(nbs);
+    }
+
+    /**
+     * Evict the cached entries of an NBS along with its title index
+     *
+     * @param nbsId : ID of NBS (Optional)
+     * @param title : Title of NBS (Optional)
+     */
+    public void evict(String nbsId, String title) {
+        // Counted before invalidating, so loads in progress do not cache the evicted record afterward
+        evictions.incrementAndGet();
+        if (title != null) {
+            String indexedId = nbsIdByTitle.getIfPresent(title);
+            nbsIdByTitle.invalidate(title);
+            if (indexedId != null) {
+                nbsById.invalidate(indexedId);
+            }
+        }
+
+        if (nbsId != null) {
+            CachedNbs cachedNbs = nbsById.getIfPresent(nbsId);
+            nbsById.invalidate(nbsId);
+            if (cachedNbs != null && cachedNbs.nbs().getTitle() != null) {
+                nbsIdByTitle.invalidate(cachedNbs.nbs().getTitle());
+            }
+        }
+    }
+
+    /**
+     * Evict cached NBS entries whenever an NBS is created or updated
+     *
+     * @param event : NBS change event
+     */
+    @EventListener
+    public void onNbsChanged(NbsChangedEvent event) {
+        log.debug("Evicting cached NBS entries for ID: {} and Title: {}", event.nbsId(), event.title());
+        evict(event.nbsId(), event.title());
+    }
+
+    /*
+     * Helper method to resolve the current change stamp - Null if it can not be resolved
+     */
+    private String currentStamp() {
+        try {
+            return nbsChangeStamp.getETag();
+        } catch (DataAccessException e) {
+            log.warn("Unable to resolve the NBS change stamp - Cached entries are used without validation - Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+     * Helper method to copy a cached DTO along with its mutable fields (lists, nested DTOs and dates)
+     */
+    private static NbsDataDto copyOf(NbsDataDto nbs) {
+        if (nbs == null) {
+            return null;
+        }
+
+        return nbs.toBuilder()
+                .imageVariants(copyOf(nbs.getImageVariants(), variant -> variant.toBuilder().build()))
+                .geoLocation(nbs.getGeoLocation() != null ? nbs.getGeoLocation().toBuilder().build() : null)
+                .keywords(copyOf(nbs.getKeywords(), UnaryOperator.identity()))
+                .dateCreated(nbs.getDateCreated() != null ? new Date(nbs.getDateCreated().getTime()) : null)
+                .lastModified(nbs.getLastModified() != null ? new Date(nbs.getLastModified().getTime()) : null)
+                .relatedMaterial(copyOf(nbs.getRelatedMaterial(), UnaryOperator.identity()))
+                .problems(copyOf(nbs.getProblems(), UnaryOperator.identity()))
+                .images(copyOf(nbs.getImages(), UnaryOperator.identity()))
+                .videos(copyOf(nbs.getVideos(), UnaryOperator.identity()))
+                .idraDatasets(copyOf(nbs.getIdraDatasets(), UnaryOperator.identity()))
+                .kpis(copyOf(nbs.getKpis(), UnaryOperator.identity()))
+                .build();
+    }
+
+    private static <T> List<T> copyOf(List<T> values, UnaryOperator<T> copier) {
+        if (values == null) {
+            return null;
+        }
+
+        List<T> copy = new ArrayList<>(values.size());
+        values.forEach(value -> copy.add(copier.apply(value)));
+        return copy;
+    }
+}
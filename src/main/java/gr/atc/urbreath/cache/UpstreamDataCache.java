@@ -0,0 +1,100 @@
+package gr.atc.urbreath.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+/*
+ * Shared cache of the data retrieved from external UrBreath components - One entry per upstream
+ * Stale entries are served while they are refreshed in the background, and concurrent misses of an upstream trigger a single request
+ * Loads are non-blocking, so no thread is held while an upstream responds
+ * While an upstream is unavailable (open circuit breaker), its last retrieved data are served even after expiration
+ */
+@Component
+@Slf4j
+public class UpstreamDataCache {
+
+    private static final String REFRESH_METRIC = "nbs.proxy.cache.refresh";
+
+    private final Map<String, Supplier<Mono<List<String>>>> loaders = new ConcurrentHashMap<>();
+
+    // Last data retrieved from each upstream - Served after expiration while the upstream is unavailable
+    private final Map<String, List<String>> lastGoodData = new ConcurrentHashMap<>();
+
+    private final AsyncLoadingCache<String, List<String>> upstreamData;
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamDataCache(@Value("${nbs.proxy.cache.refresh-after}") Duration refreshAfter,
+                             @Value("${nbs.proxy.cache.expire-after}") Duration expireAfter,
+                             MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamData = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .buildAsync(new UpstreamLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, upstreamData, "upstream-data");
+    }
+
+    /**
+     * Retrieve the data of an upstream from cache or load it if not present
+     *
+     * @param upstream : Name of the upstream component
+     * @param loader : Function to retrieve the data from the upstream - Also used for background refreshes
+     * @return Mono emitting the data of the upstream
+     */
+    public Mono<List<String>> get(String upstream, Supplier<Mono<List<String>>> loader) {
+        loaders.putIfAbsent(upstream, loader);
+        // Load is shared among subscribers, so a cancelled request must not cancel it
+        return Mono.fromFuture(() -> upstreamData.get(upstream), true);
+    }
+
+    /*
+     * Loads the data of an upstream and reports the outcome of background refreshes
+     */
+    private class UpstreamLoader implements AsyncCacheLoader<String, List<String>> {
+
+        @Override
+        public CompletableFuture<List<String>> asyncLoad(@NonNull String upstream, @NonNull Executor executor) {
+            return loaders.get(upstream).get()
+                    .doOnNext(data -> lastGoodData.put(upstream, data))
+                    .onErrorResume(UpstreamUnavailableException.class, e -> Mono.justOrEmpty(lastGoodData.get(upstream))
+                            .switchIfEmpty(Mono.error(e)))
+                    .toFuture();
+        }
+
+        @Override
+        public CompletableFuture<List<String>> asyncReload(@NonNull String upstream, @NonNull List<String> oldValue,
+                                                           @NonNull Executor executor) {
+            return loaders.get(upstream).get()
+                    .doOnNext(data -> lastGoodData.put(upstream, data))
+                    .doOnSuccess(data -> meterRegistry.counter(REFRESH_METRIC, "upstream", upstream, "outcome", "success").increment())
+                    .onErrorResume(e -> {
+                        // Stale data are kept until they expire, so a failing upstream does not affect the clients
+                        log.warn("Unable to refresh data of {} - Error: {}", upstream, e.getMessage());
+                        meterRegistry.counter(REFRESH_METRIC, "upstream", upstream, "outcome", "failure").increment();
+                        return Mono.just(oldValue);
+                    })
+                    .toFuture();
+        }
+    }
+}
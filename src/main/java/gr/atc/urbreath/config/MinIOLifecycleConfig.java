@@ -0,0 +1,43 @@
+package gr.atc.urbreath.config;
+
+import gr.atc.urbreath.service.MinIOStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+
+/*
+ * Configures the lifecycle of the media bucket once the application is ready
+ * Streamed uploads that are never referenced by an NBS are removed by the storage after the pending upload expiry
+ */
+@Configuration
+@Slf4j
+public class MinIOLifecycleConfig {
+
+    @Value("${minio.bucket}")
+    private String minioBucket;
+
+    @Value("${nbs.media.pending-upload-expiry-days}")
+    private int pendingUploadExpiryDays;
+
+    private final MinIOStorageService storageService;
+
+    public MinIOLifecycleConfig(MinIOStorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    /**
+     * Configure the expiry of pending uploads in the background after startup
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeBucketLifecycle() {
+        try {
+            storageService.configurePendingUploadExpiry(minioBucket, pendingUploadExpiryDays);
+        } catch (Exception e) {
+            log.error("Unable to configure the lifecycle of MinIO bucket - Error: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package gr.atc.urbreath.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/*
+ * Enables auditing of MongoDB documents - Used to set the last modification date of NBS records
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
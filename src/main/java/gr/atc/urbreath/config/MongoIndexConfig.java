@@ -0,0 +1,137 @@
+package gr.atc.urbreath.config;
+
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.RateLimitBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+ * Creates the indexes declared on the document models once the application is ready
+ * Indexes are not created during startup (auto-index-creation=false), so the application can start even if MongoDB is not yet reachable
+ */
+@Configuration
+@Slf4j
+public class MongoIndexConfig {
+
+    private static final String LOCATION = "location";
+    private static final String GEO_LOCATION = "geoLocation";
+
+    // 2d index on the [longitude, latitude] pair of the GeoJSON location - Serves bounding box ($box) queries
+    // Upper bound is raised as the default bounds of 2d indexes exclude the longitude 180
+    private static final IndexDefinition LOCATION_COORDINATES_INDEX = new GeospatialIndex("location.coordinates")
+            .named("location_coordinates_2d")
+            .typed(GeoSpatialIndexType.GEO_2D)
+            .withMin(-180)
+            .withMax(181);
+
+    @Value("${nbs.mongo.verify-query-plans}")
+    private boolean verifyQueryPlans;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoQueryPlanVerifier queryPlanVerifier;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, MongoQueryPlanVerifier queryPlanVerifier) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryPlanVerifier = queryPlanVerifier;
+    }
+
+    /**
+     * Initialize collection indexes in the background after startup and verify that repository queries use them
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndexes() {
+        try {
+            backfillNbsLocations();
+            ensureIndexes();
+            if (verifyQueryPlans) {
+                queryPlanVerifier.verifyQueryPlans();
+            }
+        } catch (Exception e) {
+            log.error("Unable to initialize MongoDB indexes - Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ensure that all indexes declared on the Nbs and RateLimitBucket models exist
+     * Each index is created independently, so a failing index (e.g. duplicate values of a unique index) does not prevent the creation of the rest
+     *
+     * @return Names of the indexes that could not be created - Empty if all indexes exist
+     */
+    public List<String> ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        List<String> failedIndexes = new ArrayList<>();
+        for (Class<?> documentClass : List.of(Nbs.class, RateLimitBucket.class)) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(documentClass);
+            resolver.resolveIndexFor(documentClass).forEach(index -> ensureIndex(indexOperations, index, failedIndexes));
+        }
+        ensureIndex(mongoTemplate.indexOps(Nbs.class), LOCATION_COORDINATES_INDEX, failedIndexes);
+
+        if (failedIndexes.isEmpty()) {
+            log.info("MongoDB indexes initialized successfully");
+        } else {
+            log.warn("MongoDB indexes initialized with failures - Missing indexes: {}", failedIndexes);
+        }
+        return failedIndexes;
+    }
+
+    // Helper method to create a single index and record its name if creation fails
+    private void ensureIndex(IndexOperations indexOperations, IndexDefinition index, List<String> failedIndexes) {
+        String indexName = Optional.ofNullable(index.getIndexOptions().getString("name")).orElseGet(() -> index.getIndexKeys().toJson());
+        try {
+            indexOperations.ensureIndex(index);
+        } catch (DataAccessException e) {
+            log.error("Unable to create MongoDB index '{}' - Error: {}", indexName, e.getMessage());
+            failedIndexes.add(indexName);
+        }
+    }
+
+    /**
+     * Generate the GeoJSON location of NBS records stored before its introduction
+     *
+     * @return Number of updated records
+     */
+    public int backfillNbsLocations() {
+        Query query = new Query(Criteria.where(LOCATION).exists(false).and(GEO_LOCATION).ne(null));
+        query.fields().include(GEO_LOCATION);
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Nbs.class);
+        int updates = 0;
+        try (Stream<Nbs> nbsStream = mongoTemplate.stream(query, Nbs.class)) {
+            for (Nbs nbs : (Iterable<Nbs>) nbsStream::iterator) {
+                GeoJsonPoint location = new GeoJsonPoint(nbs.getGeoLocation().getLongitude(), nbs.getGeoLocation().getLatitude());
+                bulkOperations.updateOne(Query.query(Criteria.where("_id").is(nbs.getId())), Update.update(LOCATION, location));
+                updates++;
+            }
+        }
+
+        if (updates > 0) {
+            bulkOperations.execute();
+            log.info("Generated GeoJSON location for {} NBS records", updates);
+        }
+        return updates;
+    }
+}
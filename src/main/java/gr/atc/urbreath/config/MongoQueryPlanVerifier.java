@@ -0,0 +1,147 @@
+package gr.atc.urbreath.config;
+
+import com.mongodb.client.FindIterable;
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.NbsStatus;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsFilter;
+import gr.atc.urbreath.repository.NbsQueries;
+import gr.atc.urbreath.util.CursorUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Explains the queries issued by the NBS repository and warns about plans that scan the whole collection or sort in memory
+ * Queries are generated by the same builders as the repository (NbsQueries) and mapped as MongoTemplate would execute them
+ */
+@Component
+@Slf4j
+public class MongoQueryPlanVerifier {
+
+    private static final Set<String> INEFFICIENT_STAGES = Set.of("COLLSCAN", "SORT");
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+    private static final Sort DATE_CREATED_SORT = Sort.by(Sort.Direction.DESC, "dateCreated");
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoQueryPlanVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Explain every repository query and log a warning for inefficient query plans
+     *
+     * @return Map of query name to the inefficient stages of its winning plan - Empty if all queries use indexes
+     */
+    public Map<String, List<String>> verifyQueryPlans() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Nbs.class);
+
+        Map<String, List<String>> inefficientQueries = new LinkedHashMap<>();
+        repositoryQueries().forEach((name, checkedQuery) -> {
+            Query query = checkedQuery.query();
+            FindIterable<Document> iterable = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Nbs.class))
+                    .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                    .projection(queryMapper.getMappedFields(query.getFieldsObject(), entity))
+                    .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                    .skip((int) query.getSkip());
+            if (query.isLimited()) {
+                iterable = iterable.limit(query.getLimit());
+            }
+
+            Document explain = iterable.explain();
+            List<String> stages = findInefficientStages(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class));
+            stages.removeAll(checkedQuery.acceptedStages());
+            if (!stages.isEmpty()) {
+                log.warn("Query '{}' is executed with inefficient stages {} - Verify that the corresponding index exists", name, stages);
+                inefficientQueries.put(name, stages);
+            }
+        });
+        return inefficientQueries;
+    }
+
+    /**
+     * Representative instance of every repository query, generated with placeholder values
+     * Facet counts are computed within $facet, which can not use indexes, so the page query carrying the same $match is checked instead
+     *
+     * @return Map of query name to CheckedQuery
+     */
+    Map<String, CheckedQuery> repositoryQueries() {
+        KeysetScrollPosition position = CursorUtils.toScrollPosition(new Date(), new ObjectId().toHexString());
+
+        Map<String, CheckedQuery> queries = new LinkedHashMap<>();
+        queries.put("findByTitle", CheckedQuery.of(new Query(Criteria.where("title").is(""))));
+        queries.put("findTopByOrderByLastModifiedDesc", CheckedQuery.of(new Query().with(Sort.by(Sort.Direction.DESC, "lastModified")).limit(1)));
+        queries.put("findNbsBriefData", CheckedQuery.of(new Query().with(DATE_CREATED_SORT).with(PAGE)));
+        queries.put("findNbsBriefDataByClimateZone", CheckedQuery.of(new Query(Criteria.where("climateZone").is(ClimateZone.MEDITERRANEAN)).with(DATE_CREATED_SORT).with(PAGE)));
+        queries.put("scrollNbsBriefData", CheckedQuery.of(NbsQueries.scrollBriefData(null, position, Sort.Direction.DESC, PAGE.getPageSize())));
+        queries.put("scrollNbsBriefDataByClimateZone", CheckedQuery.of(NbsQueries.scrollBriefData(ClimateZone.MEDITERRANEAN, position, Sort.Direction.DESC, PAGE.getPageSize())));
+        queries.put("findNbsBriefDataNear", CheckedQuery.of(NbsQueries.nearBriefData(0, 0, 1000, PAGE)));
+        queries.put("countNbsNear", CheckedQuery.of(NbsQueries.nearCount(0, 0, 1000)));
+        // 2d index can not serve the creation date sort, so boxes are sorted in memory after the index selected the located NBS
+        queries.put("findNbsBriefDataWithinBox", CheckedQuery.of(NbsQueries.withinBoxBriefData(0, 0, 1, 1, PAGE), "SORT"));
+        // Results of text search are always ranked by score in memory
+        queries.put("searchNbsBriefData", CheckedQuery.of(NbsQueries.searchBriefData(TextCriteria.forDefaultLanguage().matching("nbs"), PAGE), "SORT"));
+        queries.put("filterNbsByClimateZone", CheckedQuery.of(NbsQueries.filterBriefData(NbsFilter.builder().climateZone(ClimateZone.MEDITERRANEAN).build(), PAGE)));
+        queries.put("filterNbsByStatus", CheckedQuery.of(NbsQueries.filterBriefData(NbsFilter.builder().status(NbsStatus.IMPLEMENTED).build(), PAGE)));
+        queries.put("filterNbsByPilot", CheckedQuery.of(NbsQueries.filterBriefData(NbsFilter.builder().pilot("").build(), PAGE)));
+        queries.put("filterNbsByKeywords", CheckedQuery.of(NbsQueries.filterBriefData(NbsFilter.builder().keywords(List.of("")).build(), PAGE)));
+        queries.put("filterNbsByProblems", CheckedQuery.of(NbsQueries.filterBriefData(NbsFilter.builder().problems(List.of("")).build(), PAGE)));
+        return queries;
+    }
+
+    /**
+     * Recursively collect the COLLSCAN and SORT stages of a query plan
+     *
+     * @param plan : Query plan as returned by explain
+     * @return List of inefficient stages
+     */
+    static List<String> findInefficientStages(Document plan) {
+        List<String> stages = new ArrayList<>();
+        if (plan == null) {
+            return stages;
+        }
+
+        plan.forEach((key, value) -> {
+            if ("stage".equals(key) && INEFFICIENT_STAGES.contains(value)) {
+                stages.add((String) value);
+            } else if (value instanceof Document document) {
+                stages.addAll(findInefficientStages(document));
+            } else if (value instanceof List<?> list) {
+                list.stream()
+                        .filter(Document.class::isInstance)
+                        .forEach(item -> stages.addAll(findInefficientStages((Document) item)));
+            }
+        });
+        return stages;
+    }
+
+    /*
+     * Query checked by the verifier along with the inefficient stages inherent to it
+     */
+    record CheckedQuery(Query query, Set<String> acceptedStages) {
+        static CheckedQuery of(Query query, String... acceptedStages) {
+            return new CheckedQuery(query, Set.of(acceptedStages));
+        }
+    }
+}
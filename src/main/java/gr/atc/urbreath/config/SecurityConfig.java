@@ -4,6 +4,7 @@ import gr.atc.urbreath.security.UnauthorizedEntryPoint;
 import gr.atc.urbreath.filter.RateLimitingFilter;
 import gr.atc.urbreath.security.JwtAuthConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,8 +13,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -32,21 +35,33 @@ public class SecurityConfig {
         @Value("${spring.security.cors.domains}")
         private String corsDomainsRaw;
 
+        /**
+         * Rate Limiting Filter is applied only through the security filter chains
+         *
+         * @param rateLimitingFilter : RateLimitingFilter
+         * @return Disabled servlet registration of the filter
+         */
+        @Bean
+        public FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration(RateLimitingFilter rateLimitingFilter) {
+                FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(rateLimitingFilter);
+                registration.setEnabled(false);
+                return registration;
+        }
+
         /**
          * Public Filter Chain - No Config for Resource Server
+         * Matches only GET requests of NBS, so all other methods are handled by the secured chain
          * @param http : HttpSecurity
+         * @param rateLimitingFilter : Rate limiting per client IP
          * @return SecurityFilterChain
          */
         @Bean
-        public SecurityFilterChain publicSecurityFilterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain publicSecurityFilterChain(HttpSecurity http, RateLimitingFilter rateLimitingFilter) throws Exception {
                 logger.debug("Configuring public security filter chain...");
                 http
-                        .securityMatcher("/api/nbs/**")
-                        .authorizeHttpRequests(authz -> authz
-                                .requestMatchers(HttpMethod.GET).permitAll() // Allow GET without auth
-                                .anyRequest().denyAll() // Block non-GET methods
-                        )
-                        .addFilterBefore(new RateLimitingFilter(), SecurityContextHolderFilter.class)
+                        .securityMatcher(AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/api/nbs/**"))
+                        .authorizeHttpRequests(authz -> authz.anyRequest().permitAll()) // Allow GET without auth
+                        .addFilterBefore(rateLimitingFilter, SecurityContextHolderFilter.class)
                         .cors(corsCustomizer -> corsCustomizer.configurationSource(corsConfigurationSource()))
                         .csrf(AbstractHttpConfigurer::disable)
                         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -60,11 +75,12 @@ public class SecurityConfig {
          * @param http       : HttpSecurity
          * @param entryPoint : UnauthorizedEntryPoint -> To add proper API Response to the
          *                   authorized request
+         * @param rateLimitingFilter : Rate limiting per JWT subject
          * @return SecurityFilterChain
          */
         @Bean
-        public SecurityFilterChain securedSecurityFilterChain(HttpSecurity http, UnauthorizedEntryPoint entryPoint)
-                        throws Exception {
+        public SecurityFilterChain securedSecurityFilterChain(HttpSecurity http, UnauthorizedEntryPoint entryPoint,
+                        RateLimitingFilter rateLimitingFilter) throws Exception {
                 logger.debug("Configuring secured security filter chain...");
                 // Convert Keycloak Roles with class to Spring Security Roles
                 JwtAuthConverter jwtAuthConverter = new JwtAuthConverter();
@@ -75,7 +91,8 @@ public class SecurityConfig {
                         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                         .cors(corsCustomizer -> corsCustomizer.configurationSource(corsConfigurationSource()))
                         .csrf(AbstractHttpConfigurer::disable)
-                        .addFilterBefore(new RateLimitingFilter(), SecurityContextHolderFilter.class)
+                        // Applied after the JWT is validated, so that limits are kept per subject
+                        .addFilterAfter(rateLimitingFilter, BearerTokenAuthenticationFilter.class)
                         .exceptionHandling(exc -> exc.authenticationEntryPoint(entryPoint))
                         .authorizeHttpRequests(authz -> authz.anyRequest().authenticated())
                         .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwtCustomizer ->
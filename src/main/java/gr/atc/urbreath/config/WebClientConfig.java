@@ -1,11 +1,15 @@
 package gr.atc.urbreath.config;
 
+import java.net.InetSocketAddress;
+import java.net.URI;
 import java.time.Duration;
+import java.util.Map;
 
 import javax.net.ssl.SSLException;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
@@ -17,46 +21,121 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.netty.channel.ChannelOption;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
 
 @Configuration
 public class WebClientConfig {
 
+    // Name of the connection pool - Used as "name" tag of the reactor.netty.connection.provider.* metrics
+    private static final String POOL_NAME = "upstream";
+    private static final String POOL_PROPERTIES = "nbs.webclient.pool.";
+
+    // Upstream name to URL property - Pool settings of an upstream are configured under nbs.webclient.pool.<upstream>.*
+    private static final Map<String, String> UPSTREAM_URLS = Map.of(
+            "idra", "urbreath.idra.url",
+            "kpi-manager", "urbreath.kpi.manager.url");
+
+    /**
+     * Connection pool of the upstream UrBreath components
+     * Every upstream host has its own bounded pool, so a slow upstream can not exhaust the connections of the others
+     *
+     * @param environment : Environment containing the pool settings
+     * @return ConnectionProvider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(Environment environment) {
+        ConnectionProvider.Builder builder = configurePool(ConnectionProvider.builder(POOL_NAME), environment, "")
+                .evictInBackground(environment.getRequiredProperty(POOL_PROPERTIES + "eviction-interval", Duration.class));
+
+        UPSTREAM_URLS.forEach((upstream, urlProperty) -> {
+            URI uri = URI.create(environment.getRequiredProperty(urlProperty));
+            int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+            builder.forRemoteHost(InetSocketAddress.createUnresolved(uri.getHost(), port),
+                    spec -> configurePool(spec, environment, upstream + "."));
+        });
+        return builder.build();
+    }
+
+    /**
+     * WebClient used to retrieve data from the upstream UrBreath components
+     * HTTP/2 is negotiated through ALPN (TLS) or upgrade (cleartext) and responses are compressed if the upstream supports them
+     *
+     * @param builder : WebClient Builder
+     * @param upstreamConnectionProvider : Connection pool of the upstreams
+     * @param environment : Environment containing the client settings
+     * @return WebClient
+     */
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        try {
-            // Skip Certificates validation
-            SslContext sslContext = SslContextBuilder.forClient()
-                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
-                    .build();
-
-            HttpClient httpClient = HttpClient.create()
-                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60000)
-                    .responseTimeout(Duration.ofSeconds(60))
-                    .doOnConnected(conn ->
-                            conn.addHandlerLast(new ReadTimeoutHandler(60))
-                                    .addHandlerLast(new WriteTimeoutHandler(60)))
+    public WebClient webClient(WebClient.Builder builder, ConnectionProvider upstreamConnectionProvider, Environment environment) {
+        boolean http2Enabled = environment.getRequiredProperty("nbs.webclient.http2-enabled", Boolean.class);
+        Duration connectTimeout = environment.getRequiredProperty("nbs.webclient.connect-timeout", Duration.class);
+
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(environment.getRequiredProperty("nbs.webclient.response-timeout", Duration.class))
+                .compress(environment.getRequiredProperty("nbs.webclient.compression-enabled", Boolean.class));
+
+        // Skip Certificates validation
+        if (http2Enabled) {
+            SslContext sslContext = buildInsecureSslContext(Http2SslContextSpec.forClient());
+            httpClient = httpClient
+                    .protocol(HttpProtocol.HTTP11, HttpProtocol.H2, HttpProtocol.H2C)
+                    .secure(spec -> spec.sslContext(sslContext));
+        } else {
+            SslContext sslContext = buildInsecureSslContext(Http11SslContextSpec.forClient());
+            httpClient = httpClient
                     .secure(spec -> spec.sslContext(sslContext));
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-            ObjectMapper objectMapper = new ObjectMapper()
-                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                }).build();
 
-            ExchangeStrategies strategies = ExchangeStrategies.builder()
-                    .codecs(configurer -> {
-                        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
-                        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
-                    }).build();
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .build();
+    }
 
-            return builder
-                    .clientConnector(new ReactorClientHttpConnector(httpClient))
-                    .exchangeStrategies(strategies)
-                    .build();
+    /*
+     * Builds the client SslContext of a protocol - The spec configures ALPN for the protocol, while certificates are not validated
+     */
+    private static SslContext buildInsecureSslContext(SslProvider.ProtocolSslContextSpec protocolSpec) {
+        try {
+            return protocolSpec
+                    .configure(sslContextBuilder -> sslContextBuilder.trustManager(InsecureTrustManagerFactory.INSTANCE))
+                    .sslContext();
         } catch (SSLException e) {
-            throw new RuntimeException("Failed to create insecure WebClient", e);
+            throw new IllegalStateException("Unable to build the SSL context of the WebClient", e);
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * Applies the settings of a pool - Settings of an upstream fall back to the default pool settings
+     */
+    private static <T extends ConnectionProvider.ConnectionPoolSpec<T>> T configurePool(T spec, Environment environment, String upstreamPrefix) {
+        return spec
+                .maxConnections(poolProperty(environment, upstreamPrefix, "max-connections", Integer.class))
+                .pendingAcquireMaxCount(poolProperty(environment, upstreamPrefix, "pending-acquire-max-count", Integer.class))
+                .pendingAcquireTimeout(poolProperty(environment, upstreamPrefix, "pending-acquire-timeout", Duration.class))
+                .maxIdleTime(poolProperty(environment, upstreamPrefix, "max-idle-time", Duration.class))
+                .maxLifeTime(poolProperty(environment, upstreamPrefix, "max-life-time", Duration.class))
+                .metrics(true);
+    }
+
+    private static <T> T poolProperty(Environment environment, String upstreamPrefix, String name, Class<T> type) {
+        T defaultValue = environment.getRequiredProperty(POOL_PROPERTIES + name, type);
+        return environment.getProperty(POOL_PROPERTIES + upstreamPrefix + name, type, defaultValue);
+    }
+}
@@ -0,0 +1,37 @@
+package gr.atc.urbreath.config;
+
+import gr.atc.urbreath.interceptor.ConditionalRequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ConditionalRequestInterceptor conditionalRequestInterceptor;
+
+    private final String swaggerUiPath;
+
+    public WebMvcConfig(ConditionalRequestInterceptor conditionalRequestInterceptor,
+                        @Value("${springdoc.swagger-ui.path}") String swaggerUiPath) {
+        this.conditionalRequestInterceptor = conditionalRequestInterceptor;
+        this.swaggerUiPath = swaggerUiPath;
+    }
+
+    /**
+     * Register conditional GET handling on the NBS read endpoints
+     *
+     * @param registry : InterceptorRegistry
+     */
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Only endpoints whose responses are derived from the stored NBS are covered by the collection change stamp
+        // Export is streamed in full on every request and the API docs are not NBS data, so neither receives the NBS validators
+        // Presigned URLs expire and streamed media files are validated against their own storage ETag (/media paths are not matched)
+        registry.addInterceptor(conditionalRequestInterceptor)
+                .addPathPatterns("/api/nbs/", "/api/nbs/*", "/api/nbs/title/*", "/api/nbs/zone/*")
+                .excludePathPatterns("/api/nbs/export", swaggerUiPath);
+    }
+}
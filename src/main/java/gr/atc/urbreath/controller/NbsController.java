@@ -1,14 +1,28 @@
 package gr.atc.urbreath.controller;
 
 import gr.atc.urbreath.controller.responses.BaseAppResponse;
+import gr.atc.urbreath.controller.responses.FacetedPaginationResponse;
 import gr.atc.urbreath.controller.responses.PaginationAttributesResponse;
 import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsClusterDto;
 import gr.atc.urbreath.dto.NbsCreationDataDto;
 import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsDetailsDto;
+import gr.atc.urbreath.dto.NbsFilterResultDto;
+import gr.atc.urbreath.dto.NbsMediaDto;
+import gr.atc.urbreath.dto.PresignedUrlDto;
 import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.ExportFormat;
+import gr.atc.urbreath.enums.NbsExpansion;
+import gr.atc.urbreath.enums.NbsStatus;
 import gr.atc.urbreath.exception.CustomExceptions.DataMappingException;
+import gr.atc.urbreath.exception.CustomExceptions.InvalidRequestParameterException;
 import gr.atc.urbreath.exception.CustomExceptions.ResourceNotFoundException;
+import gr.atc.urbreath.models.MediaFile;
+import gr.atc.urbreath.models.NbsFilter;
+import gr.atc.urbreath.service.interfaces.INbsEnrichmentService;
 import gr.atc.urbreath.service.interfaces.INbsService;
+import gr.atc.urbreath.util.CursorUtils;
 import gr.atc.urbreath.validation.ValidClimateZone;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,33 +31,69 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/nbs")
 @Tag(name = "NBS Management Controller", description = "Manage Nature-Based Solutions")
 public class NbsController {
 
+    private static final String WORLD_BOUNDING_BOX = "-180,-90,180,90";
+    private static final int MAX_ZOOM_LEVEL = 22;
+    // Stored file names are unique, so their content never changes
+    private static final CacheControl MEDIA_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private final INbsService nbsService;
 
-    public NbsController(INbsService nbsService){
+    private final INbsEnrichmentService nbsEnrichmentService;
+
+    // Exports of large registries outlast the default async request timeout, which is kept for the rest of the endpoints
+    private final Duration exportTimeout;
+
+    public NbsController(INbsService nbsService, INbsEnrichmentService nbsEnrichmentService,
+                         @Value("${nbs.export.request-timeout}") Duration exportTimeout){
         this.nbsService = nbsService;
+        this.nbsEnrichmentService = nbsEnrichmentService;
+        this.exportTimeout = exportTimeout;
     }
 
     /*
@@ -74,6 +124,32 @@ public class NbsController {
         return new ResponseEntity<>(BaseAppResponse.success(nbsService.retrieveNbsById(id), "NBS retrieved successfully"), HttpStatus.OK);
     }
 
+    /**
+     * Retrieve a NBS by ID expanded with the referenced Idra datasets and KPIs
+     * Upstreams are queried concurrently and the response is completed asynchronously
+     *
+     * @param id : NBS ID
+     * @param expand : Comma-separated references to expand (datasets, kpis)
+     * @return NbsDetailsDto if exists
+     */
+    @Operation(summary = "Retrieve a NBS by ID expanded with Idra datasets and KPIs", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBS retrieved successfully - Unavailable expansions are listed in the response"),
+            @ApiResponse(responseCode = "400", description = "Invalid expansion provided",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "404", description = "NBS not found",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping(value = "/{id}", params = "expand")
+    public Mono<ResponseEntity<BaseAppResponse<NbsDetailsDto>>> retrieveExpandedNbsInformationById(@PathVariable @NotEmpty(message = "ID is required") String id, @RequestParam String expand) throws ResourceNotFoundException, InvalidRequestParameterException {
+        Set<NbsExpansion> expansions = parseExpansions(expand);
+        NbsDataDto nbs = nbsService.retrieveNbsById(id);
+        return nbsEnrichmentService.expandNbs(nbs, expansions)
+                .map(nbsDetails -> new ResponseEntity<>(BaseAppResponse.success(nbsDetails, "NBS retrieved successfully"), HttpStatus.OK));
+    }
+
     /**
      * Retrieve a NBS by Title
      *
@@ -99,11 +175,14 @@ public class NbsController {
 
     /**
      * Retrieve all NBS Brief Information Paginated
+     * If a cursor is provided (empty for the first page) keyset pagination on creation date is applied instead of offset pagination
      *
      * @param page : Requested page
      * @param size : Size of returned elements
      * @param sort : Sorting Field
      * @param direction : Direction of Sorting
+     * @param cursor : Cursor returned from the previous page (Optional)
+     * @param includeTotal : Whether to count total elements in cursor pagination
      * @return Page of NbsDataDto if exists
      */
     @Operation(summary = "Retrieve all NBS Brief Information", security = @SecurityRequirement(name = ""))
@@ -111,6 +190,9 @@ public class NbsController {
             @ApiResponse(responseCode = "200", description = "NBSs retrieved successfully",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = NbsDataDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid pagination cursor or sorting field",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
             @ApiResponse(responseCode = "500", description = "Invalid Data Mapping", 
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = BaseAppResponse.class)))
@@ -119,7 +201,13 @@ public class NbsController {
     public ResponseEntity<BaseAppResponse<PaginationAttributesResponse<NbsDataDto>>> retrieveAllNbsBriefData(@RequestParam(defaultValue = "0") int page, 
         @RequestParam(defaultValue = "9") int size, 
         @RequestParam(defaultValue = "dateCreated") String sort, 
-        @RequestParam(defaultValue = "desc") String direction) throws DataMappingException {
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "false") boolean includeTotal) throws DataMappingException {
+        if (cursor != null) {
+            return new ResponseEntity<>(BaseAppResponse.success(retrieveCursorPaginatedResponse(null, cursor, size, sort, direction, includeTotal), "NBSs retrieved successfully"), HttpStatus.OK);
+        }
+
         Page<NbsDataDto> nbsPage = nbsService.retrieveAllNbsBriefData(generatePageableObject(page, size, sort, direction));
         
         return new ResponseEntity<>(BaseAppResponse.success(formulatePaginatedResponse(nbsPage), "NBSs retrieved successfully"), HttpStatus.OK);
@@ -127,12 +215,15 @@ public class NbsController {
 
     /**
      * Retrieve all NBS Brief Information Paginated
+     * If a cursor is provided (empty for the first page) keyset pagination on creation date is applied instead of offset pagination
      *
      * @param climateZone : Climate Zone
      * @param page : Requested page
      * @param size : Size of returned elements
      * @param sort : Sorting Field
      * @param direction : Direction of Sorting
+     * @param cursor : Cursor returned from the previous page (Optional)
+     * @param includeTotal : Whether to count total elements in cursor pagination
      * @return Page of NbsDataDto if exists for specific climate Zone
      */
     @Operation(summary = "Retrieve all NBS Brief Information filtered by Climate Zone", security = @SecurityRequirement(name = ""))
@@ -140,6 +231,9 @@ public class NbsController {
             @ApiResponse(responseCode = "200", description = "NBSs for {climateZone} zone retrieved successfully",
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = NbsDataDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid climate zone, pagination cursor or sorting field",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
             @ApiResponse(responseCode = "500", description = "Invalid Data Mapping", 
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = BaseAppResponse.class)))
@@ -149,12 +243,116 @@ public class NbsController {
         @PathVariable @ValidClimateZone String climateZone, 
         @RequestParam(defaultValue = "0") int page, 
         @RequestParam(defaultValue = "9") int size, @RequestParam(defaultValue = "dateCreated") String sort, 
-        @RequestParam(defaultValue = "desc") String direction) throws DataMappingException{
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "false") boolean includeTotal) throws DataMappingException{
+        if (cursor != null) {
+            return new ResponseEntity<>(BaseAppResponse.success(retrieveCursorPaginatedResponse(ClimateZone.fromString(climateZone), cursor, size, sort, direction, includeTotal), "NBSs for " + climateZone + " zone retrieved successfully"), HttpStatus.OK);
+        }
+
         Page<NbsDataDto> nbsPage = nbsService.retrieveAllNbsBriefDataByClimateZone(ClimateZone.fromString(climateZone), generatePageableObject(page, size, sort, direction));
 
         return new ResponseEntity<>(BaseAppResponse.success(formulatePaginatedResponse(nbsPage), "NBSs for " + climateZone + " zone retrieved successfully"), HttpStatus.OK);
     }
 
+    /**
+     * Search NBS Brief Information using full-text search
+     *
+     * @param q : Search terms
+     * @param page : Requested page
+     * @param size : Size of returned elements
+     * @return Page of NbsDataDto ranked by relevance
+     */
+    @Operation(summary = "Search NBS Brief Information by text ranked by relevance", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBSs search results retrieved successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = NbsDataDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid search terms or page size",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Invalid Data Mapping",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<BaseAppResponse<PaginationAttributesResponse<NbsDataDto>>> searchNbsBriefData(@RequestParam String q,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "9") int size) throws InvalidRequestParameterException, DataMappingException {
+        if (StringUtils.isBlank(q)) {
+            throw new InvalidRequestParameterException("Search terms are required");
+        }
+        if (page < 0 || size < 1) {
+            throw new InvalidRequestParameterException("Page must not be negative and page size must be greater than zero");
+        }
+
+        Page<NbsDataDto> nbsPage = nbsService.searchNbsBriefData(q, PageRequest.of(page, size));
+        return new ResponseEntity<>(BaseAppResponse.success(formulatePaginatedResponse(nbsPage), "NBSs search results retrieved successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Filter NBS Brief Information by combined criteria along with facet counts
+     *
+     * @param climateZone : Climate Zone (Optional)
+     * @param status : NBS Status (Optional)
+     * @param pilot : Pilot (Optional)
+     * @param isUrBreathNbs : Whether NBS is implemented in UrBreath (Optional)
+     * @param keywords : Keywords - NBS matching any of them (Optional)
+     * @param problems : Problems - NBS matching any of them (Optional)
+     * @param page : Requested page
+     * @param size : Size of returned elements
+     * @return Page of NbsDataDto with the number of NBS per facet value
+     */
+    @Operation(summary = "Filter NBS Brief Information and count NBS per facet value", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Filtered NBSs retrieved successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = FacetedPaginationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid climate zone, status or page size",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Invalid Data Mapping",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/filter")
+    public ResponseEntity<BaseAppResponse<FacetedPaginationResponse<NbsDataDto>>> filterNbsBriefData(
+        @RequestParam(required = false) String climateZone,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String pilot,
+        @RequestParam(required = false) Boolean isUrBreathNbs,
+        @RequestParam(required = false) List<String> keywords,
+        @RequestParam(required = false) List<String> problems,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "9") int size) throws InvalidRequestParameterException, DataMappingException {
+        ClimateZone zone = ClimateZone.fromString(climateZone);
+        if (climateZone != null && zone == null) {
+            throw new InvalidRequestParameterException("Invalid climate zone provided");
+        }
+        NbsStatus nbsStatus = NbsStatus.fromString(status);
+        if (status != null && nbsStatus == null) {
+            throw new InvalidRequestParameterException("Invalid NBS status provided");
+        }
+        if (page < 0 || size < 1) {
+            throw new InvalidRequestParameterException("Page must not be negative and page size must be greater than zero");
+        }
+
+        NbsFilter filter = NbsFilter.builder()
+                .climateZone(zone)
+                .status(nbsStatus)
+                .pilot(pilot)
+                .isUrBreathNbs(isUrBreathNbs)
+                .keywords(keywords)
+                .problems(problems)
+                .build();
+        NbsFilterResultDto filterResult = nbsService.filterNbsBriefData(filter, PageRequest.of(page, size));
+
+        int totalElements = (int) filterResult.getTotalElements();
+        int totalPages = (totalElements + size - 1) / size;
+        FacetedPaginationResponse<NbsDataDto> response = new FacetedPaginationResponse<>(filterResult.getResults(), totalPages, totalElements, page >= totalPages - 1, filterResult.getFacets());
+        return new ResponseEntity<>(BaseAppResponse.success(response, "Filtered NBSs retrieved successfully"), HttpStatus.OK);
+    }
+
     /**
      * Retrieve all NBS Geolocations
      *
@@ -174,24 +372,384 @@ public class NbsController {
         return new ResponseEntity<>(BaseAppResponse.success(nbsService.retrieveAllNbsGeolocations(), "NBSs geolocations retrieved successfully"), HttpStatus.OK);
     }
 
+    /**
+     * Retrieve NBS located within a radius from a point
+     *
+     * @param lat : Latitude of the center
+     * @param lon : Longitude of the center
+     * @param radiusKm : Radius in kilometers
+     * @param page : Requested page
+     * @param size : Size of returned elements
+     * @return Page of NbsDataDto sorted by distance
+     */
+    @Operation(summary = "Retrieve NBS Brief Information within a radius from a point", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBSs near the given location retrieved successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = NbsDataDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates or radius",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Invalid Data Mapping",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/near")
+    public ResponseEntity<BaseAppResponse<PaginationAttributesResponse<NbsDataDto>>> retrieveNbsNear(@RequestParam double lat, @RequestParam double lon, @RequestParam double radiusKm,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "9") int size) throws InvalidRequestParameterException, DataMappingException {
+        validateCoordinates(lon, lat);
+        if (radiusKm <= 0) {
+            throw new InvalidRequestParameterException("Radius must be greater than zero");
+        }
+        if (page < 0 || size < 1) {
+            throw new InvalidRequestParameterException("Page must not be negative and page size must be greater than zero");
+        }
+
+        Page<NbsDataDto> nbsPage = nbsService.retrieveNbsBriefDataNear(lat, lon, radiusKm, PageRequest.of(page, size));
+        return new ResponseEntity<>(BaseAppResponse.success(formulatePaginatedResponse(nbsPage), "NBSs near the given location retrieved successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieve NBS located within a bounding box
+     *
+     * @param bbox : Bounding box in the form of minLon,minLat,maxLon,maxLat
+     * @param page : Requested page
+     * @param size : Size of returned elements
+     * @return Page of NbsDataDto
+     */
+    @Operation(summary = "Retrieve NBS Brief Information within a bounding box (minLon,minLat,maxLon,maxLat)", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBSs within the given area retrieved successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = NbsDataDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid bounding box",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Invalid Data Mapping",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/within")
+    public ResponseEntity<BaseAppResponse<PaginationAttributesResponse<NbsDataDto>>> retrieveNbsWithinBoundingBox(@RequestParam String bbox,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "9") int size) throws InvalidRequestParameterException, DataMappingException {
+        double[] box = parseBoundingBox(bbox);
+        if (page < 0 || size < 1) {
+            throw new InvalidRequestParameterException("Page must not be negative and page size must be greater than zero");
+        }
+
+        Page<NbsDataDto> nbsPage = nbsService.retrieveNbsBriefDataWithinBox(box[0], box[1], box[2], box[3], PageRequest.of(page, size));
+        return new ResponseEntity<>(BaseAppResponse.success(formulatePaginatedResponse(nbsPage), "NBSs within the given area retrieved successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieve NBS locations clustered for a map zoom level
+     *
+     * @param zoom : Zoom level of the map
+     * @param bbox : Viewport in the form of minLon,minLat,maxLon,maxLat (Optional - Whole world by default)
+     * @return List of NbsClusterDto
+     */
+    @Operation(summary = "Retrieve NBS locations clustered for a map zoom level and viewport", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBSs clusters retrieved successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = NbsClusterDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid zoom level or bounding box",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/clusters")
+    public ResponseEntity<BaseAppResponse<List<NbsClusterDto>>> retrieveNbsClusters(@RequestParam int zoom, @RequestParam(defaultValue = WORLD_BOUNDING_BOX) String bbox) throws InvalidRequestParameterException {
+        if (zoom < 0 || zoom > MAX_ZOOM_LEVEL) {
+            throw new InvalidRequestParameterException("Zoom level must be between 0 and " + MAX_ZOOM_LEVEL);
+        }
+
+        double[] box = parseBoundingBox(bbox);
+        return new ResponseEntity<>(BaseAppResponse.success(nbsService.retrieveNbsClusters(zoom, box[0], box[1], box[2], box[3]), "NBSs clusters retrieved successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Export all NBS records as a stream
+     *
+     * @param format : Export format (ndjson or json)
+     * @param response : HttpServletResponse where records are streamed
+     * @return Async task streaming the NBS records with the export timeout
+     */
+    @Operation(summary = "Export all NBS records as NDJSON or JSON array", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NBSs exported successfully",
+                content = {@Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = NbsDataDto.class)),
+                        @Content(mediaType = "application/json", schema = @Schema(implementation = NbsDataDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid export format provided",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportAllNbs(@RequestParam(required = false, defaultValue = "ndjson") String format, HttpServletResponse response) throws InvalidRequestParameterException {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        if (exportFormat == null) {
+            throw new InvalidRequestParameterException("Invalid export format provided. Supported formats: ndjson, json");
+        }
+
+        response.setContentType(exportFormat.mediaType);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            nbsService.exportAllNbs(response.getOutputStream(), exportFormat);
+            return null;
+        });
+    }
+
     /*
      * Manage Nature-Based Solutions - Manage Operations
      */
     @Operation(summary = "Create a new NBS", security = @SecurityRequirement(name = "bearerToken"))
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "NBS created successfully")
-            // TODO: Document Error Responses
+            @ApiResponse(responseCode = "201", description = "NBS created successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "417", description = "NBS with the same title already exists",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "File upload to MinIO failed",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
     })
     @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
-    @PostMapping("/create")
-    public ResponseEntity<BaseAppResponse<String>> retrieveNbsInformationById(@AuthenticationPrincipal Jwt jwt, @RequestBody @Valid NbsCreationDataDto nbsData){
+    @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BaseAppResponse<String>> retrieveNbsInformationById(@AuthenticationPrincipal Jwt jwt, @ModelAttribute @Valid NbsCreationDataDto nbsData){
         return new ResponseEntity<>(BaseAppResponse.success(nbsService.createNbs(nbsData), "NBS created successfully"), HttpStatus.CREATED);
     }
 
+    /**
+     * Stream a media file of an NBS to the storage without buffering it
+     * The raw file is sent as request body, so large videos are piped to MinIO part by part
+     *
+     * @param title : NBS Title
+     * @param fileName : Name of the file
+     * @param request : HTTP request containing the file content
+     * @return Name of the stored file - Provided as uploaded video on NBS creation
+     */
+    @Operation(summary = "Stream a media file of an NBS", security = @SecurityRequirement(name = "bearerToken"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Media file uploaded successfully"),
+            @ApiResponse(responseCode = "413", description = "File exceeds the maximum upload size",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "File upload to MinIO failed",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
+    @PostMapping(value = "/media", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "video/*", "image/*"})
+    public ResponseEntity<BaseAppResponse<String>> uploadNbsMedia(@RequestParam String title, @RequestParam String fileName, HttpServletRequest request) throws IOException {
+        String storedFileName = nbsService.uploadNbsMedia(title, fileName, request.getContentType(), request.getContentLengthLong(), request.getInputStream());
+        return new ResponseEntity<>(BaseAppResponse.success(storedFileName, "Media file uploaded successfully"), HttpStatus.CREATED);
+    }
+
+    /**
+     * Generate a presigned POST policy to upload a media file of an NBS directly to the storage
+     * Form fields of the response are submitted along with the file, so the storage enforces the content type and the maximum upload size
+     *
+     * @param title : NBS Title
+     * @param fileName : Name of the file
+     * @param contentType : Media type of the file (image or video)
+     * @return PresignedUrlDto - The file name is provided when attaching the file to the NBS
+     */
+    @Operation(summary = "Generate a presigned POST policy to upload a media file of an NBS", security = @SecurityRequirement(name = "bearerToken"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Presigned upload URL generated successfully"),
+            @ApiResponse(responseCode = "400", description = "Content type is not an image or video type",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Unable to generate presigned URL",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
+    @PostMapping("/media/upload-url")
+    public ResponseEntity<BaseAppResponse<PresignedUrlDto>> generateNbsMediaUploadUrl(@RequestParam String title, @RequestParam String fileName, @RequestParam String contentType) throws InvalidRequestParameterException {
+        return new ResponseEntity<>(BaseAppResponse.success(nbsService.generateNbsMediaUploadUrl(title, fileName, contentType), "Presigned upload URL generated successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Generate a presigned URL to download a media file of an NBS directly from the storage
+     * Only files referenced by the NBS can be downloaded
+     *
+     * @param id : NBS ID
+     * @param fileName : Name of the file
+     * @return PresignedUrlDto
+     */
+    @Operation(summary = "Generate a presigned URL to download a media file of an NBS", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Presigned download URL generated successfully"),
+            @ApiResponse(responseCode = "404", description = "NBS or file not found",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Unable to generate presigned URL",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @GetMapping("/{id}/media/{fileName}/download-url")
+    public ResponseEntity<BaseAppResponse<PresignedUrlDto>> generateNbsMediaDownloadUrl(@PathVariable String id, @PathVariable String fileName) throws ResourceNotFoundException {
+        return new ResponseEntity<>(BaseAppResponse.success(nbsService.generateNbsMediaDownloadUrl(id, fileName), "Presigned download URL generated successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Attach media files uploaded through presigned URLs to an NBS
+     *
+     * @param id : NBS ID
+     * @param media : Names of the uploaded files
+     * @return Updated NbsDataDto
+     */
+    @Operation(summary = "Attach uploaded media files to an NBS", security = @SecurityRequirement(name = "bearerToken"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Media files attached successfully"),
+            @ApiResponse(responseCode = "400", description = "File has not been uploaded",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "404", description = "NBS not found",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class)))
+    })
+    @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
+    @PostMapping("/{id}/media")
+    public ResponseEntity<BaseAppResponse<NbsDataDto>> attachNbsMedia(@PathVariable String id, @RequestBody NbsMediaDto media) throws InvalidRequestParameterException, ResourceNotFoundException {
+        return new ResponseEntity<>(BaseAppResponse.success(nbsService.attachNbsMedia(id, media), "Media files attached successfully"), HttpStatus.OK);
+    }
+
+    /**
+     * Stream a media file of an NBS from the storage
+     * Single byte ranges are supported, so clients can seek within videos without downloading the whole file
+     *
+     * @param id : NBS ID
+     * @param fileName : Name of the file
+     * @param webRequest : Current request - Used for conditional and range headers
+     * @return Streamed content of the file or of the requested range
+     */
+    @Operation(summary = "Stream a media file of an NBS with HTTP Range support", security = @SecurityRequirement(name = ""))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Media file streamed successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested range of the media file streamed successfully"),
+            @ApiResponse(responseCode = "304", description = "Media file not modified"),
+            @ApiResponse(responseCode = "404", description = "NBS or file not found",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BaseAppResponse.class))),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
+    @GetMapping("/{id}/media/{fileName}")
+    public ResponseEntity<StreamingResponseBody> streamNbsMedia(@PathVariable String id, @PathVariable String fileName, ServletWebRequest webRequest) throws ResourceNotFoundException {
+        MediaFile mediaFile = nbsService.retrieveNbsMediaFile(id, fileName);
+        String eTag = mediaFile.getETag() == null ? null : "\"" + StringUtils.strip(mediaFile.getETag(), "\"") + "\"";
+        long lastModified = mediaFile.getLastModified() == null ? -1 : mediaFile.getLastModified().toEpochMilli();
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        long size = mediaFile.getSize();
+        long offset = 0;
+        long length = size;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        List<HttpRange> ranges = isRangeApplicable(webRequest.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)
+                ? parseRanges(webRequest.getHeader(HttpHeaders.RANGE)) : List.of();
+        if (ranges == null) {
+            return rangeNotSatisfiable(size);
+        }
+        // Multiple ranges are answered with the whole file instead of a multipart response
+        if (ranges.size() == 1) {
+            offset = ranges.getFirst().getRangeStart(size);
+            length = ranges.getFirst().getRangeEnd(size) - offset + 1;
+            if (offset >= size || length <= 0) {
+                return rangeNotSatisfiable(size);
+            }
+            response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + offset + "-" + (offset + length - 1) + "/" + size);
+        }
+
+        MediaType contentType = mediaFile.getContentType() != null
+                ? MediaType.parseMediaType(mediaFile.getContentType())
+                : MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(contentType)
+                .contentLength(length)
+                .cacheControl(MEDIA_CACHE_CONTROL)
+                .lastModified(lastModified);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        if (HttpMethod.HEAD.matches(webRequest.getRequest().getMethod())) {
+            return response.build();
+        }
+
+        long rangeOffset = offset;
+        long rangeLength = length;
+        // Content is piped from the storage connection to the response without being buffered as a whole
+        StreamingResponseBody responseBody = outputStream -> {
+            try (InputStream content = nbsService.downloadNbsMedia(fileName, rangeOffset, rangeLength)) {
+                content.transferTo(outputStream);
+            }
+        };
+        return response.body(responseBody);
+    }
+
     /*
      * Supporting Methods
      */
 
+    /**
+     * Parse the Range header of a media request
+     *
+     * @param rangeHeader : Value of the Range header
+     * @return List of HttpRange - Empty if no range is requested, null if the header is invalid
+     */
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        if (StringUtils.isBlank(rangeHeader)) {
+            return List.of();
+        }
+
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Generate the response of an unsatisfiable range request
+     *
+     * @param size : Size of the file
+     * @return ResponseEntity with the size of the file as Content-Range
+     */
+    private ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
+
+    /**
+     * Check whether the Range header applies based on the If-Range precondition
+     *
+     * @param ifRange : Value of the If-Range header
+     * @param eTag : Current ETag of the file
+     * @param lastModified : Last modification time of the file in millis
+     * @return True if the range must be served, False if the whole file must be served
+     */
+    private boolean isRangeApplicable(String ifRange, String eTag, long lastModified) {
+        if (StringUtils.isBlank(ifRange)) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return lastModified >= 0 && ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() == lastModified / 1000 * 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     /**
      * Generate Pageable Object
      * @param page : Requested page
@@ -218,4 +776,102 @@ public class NbsController {
                 nbsPage.isLast()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieve NBS using keyset pagination and formulate Pagination Attributes Response
+     *
+     * @param climateZone : Climate Zone - If null all NBS are retrieved
+     * @param cursor : Cursor of requested page
+     * @param size : Size of returned elements
+     * @param sort : Sorting Field
+     * @param direction : Direction of Sorting
+     * @param includeTotal : Whether to count total elements
+     * @return PaginationAttributesResponse<NbsDataDto>
+     */
+    private PaginationAttributesResponse<NbsDataDto> retrieveCursorPaginatedResponse(ClimateZone climateZone, String cursor, int size, String sort, String direction, boolean includeTotal){
+        if (!CursorUtils.DATE_CREATED_KEY.equals(sort)) {
+            throw new InvalidRequestParameterException("Cursor pagination is only supported when sorting by dateCreated");
+        }
+        if (size < 1) {
+            throw new InvalidRequestParameterException("Page size must be greater than zero");
+        }
+
+        KeysetScrollPosition position = CursorUtils.decodeCursor(cursor);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        Window<NbsDataDto> nbsWindow = climateZone == null
+                ? nbsService.retrieveAllNbsBriefData(position, sortDirection, size)
+                : nbsService.retrieveAllNbsBriefDataByClimateZone(climateZone, position, sortDirection, size);
+
+        Integer totalPages = null;
+        Integer totalElements = null;
+        if (includeTotal) {
+            totalElements = (int) nbsService.countNbs(climateZone);
+            totalPages = (totalElements + size - 1) / size;
+        }
+
+        String nextCursor = nbsWindow.hasNext()
+                ? CursorUtils.encodeCursor((KeysetScrollPosition) nbsWindow.positionAt(nbsWindow.size() - 1))
+                : null;
+
+        return new PaginationAttributesResponse<>(nbsWindow.getContent(), totalPages, totalElements, nbsWindow.isLast(), nextCursor);
+    }
+
+    /**
+     * Parse the comma-separated references to expand on an NBS
+     *
+     * @param expand : Value of the expand parameter
+     * @return Set of NbsExpansion
+     */
+    private Set<NbsExpansion> parseExpansions(String expand){
+        Set<NbsExpansion> expansions = EnumSet.noneOf(NbsExpansion.class);
+        for (String value : expand.split(",")) {
+            NbsExpansion expansion = NbsExpansion.fromString(value.trim());
+            if (expansion == null) {
+                throw new InvalidRequestParameterException("Invalid expansion provided. Supported expansions: datasets, kpis");
+            }
+            expansions.add(expansion);
+        }
+        return expansions;
+    }
+
+    /**
+     * Parse a bounding box in the form of minLon,minLat,maxLon,maxLat
+     *
+     * @param bbox : Bounding box
+     * @return Array of [minLon, minLat, maxLon, maxLat]
+     */
+    private double[] parseBoundingBox(String bbox){
+        String[] values = bbox.split(",");
+        if (values.length != 4) {
+            throw new InvalidRequestParameterException("Bounding box must be in the form of minLon,minLat,maxLon,maxLat");
+        }
+
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                box[i] = Double.parseDouble(values[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestParameterException("Bounding box must be in the form of minLon,minLat,maxLon,maxLat");
+        }
+
+        validateCoordinates(box[0], box[1]);
+        validateCoordinates(box[2], box[3]);
+        if (box[0] >= box[2] || box[1] >= box[3]) {
+            throw new InvalidRequestParameterException("Bounding box minimum coordinates must be lower than maximum coordinates");
+        }
+        return box;
+    }
+
+    /**
+     * Validate that coordinates are within the WGS84 ranges
+     *
+     * @param longitude : Longitude
+     * @param latitude : Latitude
+     */
+    private void validateCoordinates(double longitude, double latitude){
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidRequestParameterException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+    }
+}
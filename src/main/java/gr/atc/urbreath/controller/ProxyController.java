@@ -18,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/proxy")
@@ -32,6 +33,7 @@ public class ProxyController {
 
     /**
      * Retrieve a Datasets From Idra
+     * Response is completed asynchronously, so no request thread is held while Idra responds
      *
      * @return List of Datasets
      */
@@ -42,12 +44,14 @@ public class ProxyController {
     })
     @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
     @GetMapping("/datasets")
-    public ResponseEntity<BaseAppResponse<List<String>>> retrieveDatasetsFromIdra(@AuthenticationPrincipal Jwt jwt){
-        return new ResponseEntity<>(BaseAppResponse.success(dataCollectorService.retrieveDatasetsFromIdra(), "Idra Datasets retrieved successfully"), HttpStatus.OK);
+    public Mono<ResponseEntity<BaseAppResponse<List<String>>>> retrieveDatasetsFromIdra(@AuthenticationPrincipal Jwt jwt){
+        return dataCollectorService.retrieveDatasetsFromIdra()
+                .map(datasets -> new ResponseEntity<>(BaseAppResponse.success(datasets, "Idra Datasets retrieved successfully"), HttpStatus.OK));
     }
 
     /**
      * Retrieve a KPIs From KPI Manager
+     * Response is completed asynchronously, so no request thread is held while KPI Manager responds
      *
      * @return List of KPIs
      */
@@ -58,8 +62,9 @@ public class ProxyController {
     })
     @PreAuthorize(value = "hasAnyRole('SUPER_ADMIN', 'ADMIN')")
     @GetMapping("/kpis")
-    public ResponseEntity<BaseAppResponse<List<String>>> retrieveKpisFromKpiManager(@AuthenticationPrincipal Jwt jwt){
-        return new ResponseEntity<>(BaseAppResponse.success(dataCollectorService.retrieveKpisFromKpiManager(), "KPIs retrieved successfully"), HttpStatus.OK);
+    public Mono<ResponseEntity<BaseAppResponse<List<String>>>> retrieveKpisFromKpiManager(@AuthenticationPrincipal Jwt jwt){
+        return dataCollectorService.retrieveKpisFromKpiManager()
+                .map(kpis -> new ResponseEntity<>(BaseAppResponse.success(kpis, "KPIs retrieved successfully"), HttpStatus.OK));
     }
 
 }
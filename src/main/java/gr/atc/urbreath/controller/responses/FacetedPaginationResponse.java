@@ -0,0 +1,26 @@
+package gr.atc.urbreath.controller.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "FacetedPaginationResponse", description = "Pagination Parameters Response along with Facet Counts")
+public class FacetedPaginationResponse<T> extends PaginationAttributesResponse<T> {
+
+    // Facet name -> (Facet value -> Number of elements)
+    private Map<String, Map<String, Long>> facets;
+
+    public FacetedPaginationResponse(List<T> results, Integer totalPages, Integer totalElements, boolean lastPage, Map<String, Map<String, Long>> facets) {
+        super(results, totalPages, totalElements, lastPage);
+        this.facets = facets;
+    }
+}
@@ -1,5 +1,6 @@
 package gr.atc.urbreath.controller.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(name = "PaginationAttributesResponse", description = "Pagination Parameters Response")
 public class PaginationAttributesResponse<T> {
 
@@ -21,4 +23,11 @@ public class PaginationAttributesResponse<T> {
     private Integer totalElements;
 
     private boolean lastPage;
+
+    // Opaque cursor of the next page - Only for cursor-based pagination
+    private String nextCursor;
+
+    public PaginationAttributesResponse(List<T> results, Integer totalPages, Integer totalElements, boolean lastPage) {
+        this(results, totalPages, totalElements, lastPage, null);
+    }
 }
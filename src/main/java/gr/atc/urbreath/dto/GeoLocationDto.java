@@ -9,7 +9,7 @@ import lombok.*;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(name = "GeoLocationDto", description = "Geographical Location Information")
 public class GeoLocationDto {
@@ -22,4 +22,10 @@ public class GeoLocationDto {
 
     private String address;
 
+    // ID of the NBS located in these coordinates - Only for geolocation listings
+    private String nbsId;
+
+    public GeoLocationDto(double latitude, double longitude, String address) {
+        this(latitude, longitude, address, null);
+    }
 }
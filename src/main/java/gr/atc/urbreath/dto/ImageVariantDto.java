@@ -0,0 +1,22 @@
+package gr.atc.urbreath.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "ImageVariantDto", description = "Resized variant of an NBS image")
+public class ImageVariantDto {
+
+    // File name of the original image (main image or one of the images)
+    private String source;
+
+    private int width;
+
+    private String fileName;
+}
@@ -0,0 +1,25 @@
+package gr.atc.urbreath.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "NbsClusterDto", description = "Clustered NBS Locations of a map grid cell")
+public class NbsClusterDto {
+
+    // Centroid of the NBS locations in the cell
+    private double latitude;
+
+    private double longitude;
+
+    private long count;
+
+    // ID of the NBS - Only for cells containing a single NBS
+    private String nbsId;
+}
@@ -81,6 +81,9 @@ public class NbsCreationDataDto {
 
     private List<MultipartFile> videos;
 
+    // Names of videos already streamed through the media upload endpoint
+    private List<String> uploadedVideos;
+
     // External data
     @NotEmpty(message = "Idra datasets are required")
     private List<String> idraDatasets;
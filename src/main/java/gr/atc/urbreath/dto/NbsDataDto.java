@@ -12,7 +12,7 @@ import java.util.Date;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -32,6 +32,8 @@ public class NbsDataDto {
 
     private String mainImage;
 
+    private List<ImageVariantDto> imageVariants;
+
     private GeoLocationDto geoLocation;
 
     private boolean isUrBreathNbs;
@@ -46,6 +48,8 @@ public class NbsDataDto {
 
     private Date dateCreated;
 
+    private Date lastModified;
+
     private NbsStatus status;
 
     private List<String> relatedMaterial;
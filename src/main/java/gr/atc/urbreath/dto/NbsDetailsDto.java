@@ -0,0 +1,31 @@
+package gr.atc.urbreath.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import gr.atc.urbreath.enums.NbsExpansion;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "NbsDetailsDto", description = "NBS Information expanded with the data of external UrBreath components")
+public class NbsDetailsDto {
+
+    @JsonUnwrapped
+    private NbsDataDto nbs;
+
+    // Referenced Idra datasets confirmed by Idra - Only if datasets are expanded
+    private List<String> resolvedIdraDatasets;
+
+    // Referenced KPIs confirmed by KPI Manager - Only if KPIs are expanded
+    private List<String> resolvedKpis;
+
+    // Expansions that could not be resolved in time - Remaining expansions are still returned
+    private List<NbsExpansion> unavailableExpansions;
+}
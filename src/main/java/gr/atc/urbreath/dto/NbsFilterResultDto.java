@@ -0,0 +1,25 @@
+package gr.atc.urbreath.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "NbsFilterResultDto", description = "Filtered NBS along with per-facet counts")
+public class NbsFilterResultDto {
+
+    private List<NbsDataDto> results;
+
+    private long totalElements;
+
+    // Facet name -> (Facet value -> Number of NBS)
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,25 @@
+package gr.atc.urbreath.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "NbsMediaDto", description = "Files uploaded through presigned URLs to be attached to an NBS")
+public class NbsMediaDto {
+
+    // Replaces the current main image if provided
+    private String mainImage;
+
+    // Appended to the current images and videos
+    private List<String> images;
+
+    private List<String> videos;
+}
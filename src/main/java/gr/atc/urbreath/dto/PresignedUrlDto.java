@@ -0,0 +1,31 @@
+package gr.atc.urbreath.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "PresignedUrlDto", description = "Presigned URL to transfer an NBS file directly from/to the storage")
+public class PresignedUrlDto {
+
+    // Name of the file in the storage - Used to attach uploaded files to an NBS
+    private String fileName;
+
+    private String url;
+
+    // HTTP method allowed by the URL
+    private String method;
+
+    // Form fields of POST uploads - Submitted as multipart form along with the file
+    private Map<String, String> formData;
+
+    private Instant expiresAt;
+}
@@ -0,0 +1,13 @@
+package gr.atc.urbreath.enums;
+
+/*
+ * Enum for the states of an upstream circuit breaker
+ */
+public enum CircuitBreakerState {
+    // Calls are permitted and failures are counted
+    CLOSED,
+    // Calls are rejected until the open duration elapses
+    OPEN,
+    // A single probe call is permitted to decide whether the upstream recovered
+    HALF_OPEN
+}
@@ -0,0 +1,24 @@
+package gr.atc.urbreath.enums;
+
+/*
+ * Enum for the supported formats of NBS registry export
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    JSON("application/json");
+
+    public final String mediaType;
+
+    ExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ExportFormat fromString(String value) {
+        for (ExportFormat exportFormat : ExportFormat.values()) {
+            if (exportFormat.name().equalsIgnoreCase(value)) {
+                return exportFormat;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package gr.atc.urbreath.enums;
+
+/*
+ * Enum for the external references of an NBS that can be expanded on the detail view
+ */
+public enum NbsExpansion {
+    DATASETS,
+    KPIS;
+
+    public static NbsExpansion fromString(String value) {
+        for (NbsExpansion expansion : NbsExpansion.values()) {
+            if (expansion.name().equalsIgnoreCase(value)) {
+                return expansion;
+            }
+        }
+        return null;
+    }
+}
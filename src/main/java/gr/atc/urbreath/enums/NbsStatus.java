@@ -11,7 +11,7 @@ public enum NbsStatus {
         this.status = status;
     }
 
-    public NbsStatus fromString(String value) {
+    public static NbsStatus fromString(String value) {
         for (NbsStatus nbsStatus : NbsStatus.values()) {
             if (nbsStatus.name().equalsIgnoreCase(value)) {
                 return nbsStatus;
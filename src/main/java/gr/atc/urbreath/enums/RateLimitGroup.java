@@ -0,0 +1,35 @@
+package gr.atc.urbreath.enums;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/*
+ * Enum for the endpoint groups that are rate limited independently
+ * Groups are matched in declaration order, so DEFAULT must remain last
+ */
+public enum RateLimitGroup {
+    EXPORT("/api/nbs/export"),
+    MEDIA("/api/nbs/media/**", "/api/nbs/*/media/**"),
+    DEFAULT("/**");
+
+    private final List<PathPattern> pathPatterns;
+
+    RateLimitGroup(String... pathPatterns) {
+        this.pathPatterns = List.of(pathPatterns).stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    public static RateLimitGroup fromPath(String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            if (group.pathPatterns.stream().anyMatch(pattern -> pattern.matches(pathContainer))) {
+                return group;
+            }
+        }
+        return DEFAULT;
+    }
+}
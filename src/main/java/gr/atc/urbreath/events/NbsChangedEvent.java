@@ -0,0 +1,10 @@
+package gr.atc.urbreath.events;
+
+/*
+ * Event published when an NBS is created or updated
+ *
+ * @param nbsId : ID of the NBS (Optional for new records)
+ * @param title : Title of the NBS
+ */
+public record NbsChangedEvent(String nbsId, String title) {
+}
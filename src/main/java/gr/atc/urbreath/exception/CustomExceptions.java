@@ -27,4 +27,22 @@ public class CustomExceptions {
             super(message);
         }
     }
+
+    public static class UpstreamUnavailableException extends RuntimeException {
+        public UpstreamUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    public static class InvalidRequestParameterException extends RuntimeException {
+        public InvalidRequestParameterException(String message) {
+            super(message);
+        }
+    }
+
+    public static class FileUploadException extends RuntimeException {
+        public FileUploadException(String message) {
+            super(message);
+        }
+    }
 }
@@ -18,6 +18,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 
@@ -113,6 +114,13 @@ public class GlobalExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<BaseAppResponse<String>> handlesMaxUploadSizeExceededException(
+            @NotNull MaxUploadSizeExceededException ex) {
+        return new ResponseEntity<>(BaseAppResponse.error("File exceeds the maximum upload size", ex.getMessage()),
+                HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(ConversionFailedException.class)
     public ResponseEntity<BaseAppResponse<String>> handlesConversionFailedException(
             @NotNull ConversionFailedException ex) {
@@ -142,6 +150,13 @@ public class GlobalExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<BaseAppResponse<String>> handlesInvalidRequestParameterException(
+            @NotNull InvalidRequestParameterException ex) {
+        return new ResponseEntity<>(BaseAppResponse.error(VALIDATION_ERROR, ex.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(WebClientRequestException.class)
     public ResponseEntity<BaseAppResponse<String>> handlesWebClientRequestException(
             @NotNull WebClientRequestException ex) {
@@ -149,4 +164,18 @@ public class GlobalExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<BaseAppResponse<String>> handlesUpstreamUnavailableException(
+            @NotNull UpstreamUnavailableException ex) {
+        return new ResponseEntity<>(BaseAppResponse.error("Upstream unavailable", ex.getMessage()),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(FileUploadException.class)
+    public ResponseEntity<BaseAppResponse<String>> handlesFileUploadException(
+            @NotNull FileUploadException ex) {
+        return new ResponseEntity<>(BaseAppResponse.error("File storage error", ex.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package gr.atc.urbreath.filter;
+
+import gr.atc.urbreath.models.RateLimitBucket;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Keeps the state of rate limiting buckets in MongoDB, so that limits are enforced across all application replicas
+ * State is updated with compare-and-swap, while tokens are consumed locally and synchronized in batches
+ * Asynchronous operations run the blocking MongoDB calls on the application task executor
+ */
+@Component
+@ConditionalOnProperty(name = "nbs.rate-limit.store", havingValue = "mongo")
+public class MongoBucketProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private static final String ID = "_id";
+    private static final String STATE = "state";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Executor asyncExecutor;
+
+    private final DelayParameters delayParameters;
+
+    public MongoBucketProxyManager(MongoTemplate mongoTemplate,
+                                   @Qualifier("applicationTaskExecutor") Executor asyncExecutor,
+                                   @Value("${nbs.rate-limit.sync.max-unsynchronized-tokens}") long maxUnsynchronizedTokens,
+                                   @Value("${nbs.rate-limit.sync.max-unsynchronized-time}") Duration maxUnsynchronizedTime) {
+        super(ClientSideConfig.getDefault());
+        this.mongoTemplate = mongoTemplate;
+        this.asyncExecutor = asyncExecutor;
+        this.delayParameters = new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTime);
+    }
+
+    /**
+     * Create a bucket whose state is shared through MongoDB
+     * Consumed tokens are synchronized when the configured number of tokens or time is reached, instead of on every request
+     *
+     * @param key : Key of the bucket
+     * @param limit : Limit of the bucket
+     * @return BucketProxy
+     */
+    public BucketProxy createBucket(String key, Bandwidth limit) {
+        return builder()
+                .withOptimization(Optimizations.delaying(delayParameters))
+                .build(key, () -> BucketConfiguration.builder().addLimit(limit).build());
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                return Optional.ofNullable(mongoTemplate.findById(key, RateLimitBucket.class))
+                        .map(RateLimitBucket::getState);
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState, Optional<Long> timeoutNanos) {
+                Date expiresAt = calculateExpiration(newState);
+                if (originalData == null) {
+                    try {
+                        mongoTemplate.insert(new RateLimitBucket(key, newData, expiresAt));
+                        return true;
+                    } catch (DuplicateKeyException e) {
+                        // Bucket created concurrently by another replica
+                        return false;
+                    }
+                }
+
+                Query query = Query.query(Criteria.where(ID).is(key).and(STATE).is(originalData));
+                Update update = Update.update(STATE, newData).set(EXPIRES_AT, expiresAt);
+                return mongoTemplate.updateFirst(query, update, RateLimitBucket.class).getMatchedCount() == 1;
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData(Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(() -> operation.getStateData(timeoutNanos), asyncExecutor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState, Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(() -> operation.compareAndSwap(originalData, newData, newState, timeoutNanos), asyncExecutor);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        mongoTemplate.remove(Query.query(Criteria.where(ID).is(key)), RateLimitBucket.class);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    /**
+     * Calculate when the bucket will be refilled completely, so it can be removed without affecting the limit
+     *
+     * @param state : State of the bucket
+     * @return Expiration Date
+     */
+    private Date calculateExpiration(RemoteBucketState state) {
+        long nowMillis = System.currentTimeMillis();
+        long refillNanos = state.calculateFullRefillingTime(TimeUnit.MILLISECONDS.toNanos(nowMillis));
+        return new Date(nowMillis + TimeUnit.NANOSECONDS.toMillis(refillNanos));
+    }
+}
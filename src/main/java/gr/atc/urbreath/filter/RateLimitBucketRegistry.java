@@ -0,0 +1,148 @@
+package gr.atc.urbreath.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.atc.urbreath.enums.RateLimitGroup;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Bounded registry of rate limiting buckets - One bucket per client and endpoint group
+ * Idle buckets are evicted once they would have been refilled completely, so eviction never resets a client's limit
+ * Buckets are kept in memory, unless a shared store is configured so that limits apply across replicas
+ * If the shared store is unavailable, requests fail open to in-memory buckets instead of being rejected
+ * After a failure the store is skipped for the retry interval, so requests do not wait for the DB timeouts while it is down
+ */
+@Component
+@Slf4j
+public class RateLimitBucketRegistry {
+
+    private static final String STORE_FAILURE_METRIC = "nbs.rate-limit.store.failures";
+
+    private final Map<RateLimitGroup, Bandwidth> limits = new EnumMap<>(RateLimitGroup.class);
+
+    private final Cache<String, Bucket> buckets;
+
+    private final Cache<String, Bucket> localBuckets;
+
+    private final MongoBucketProxyManager sharedStore;
+
+    private final Counter storeFailures;
+
+    private final long storeRetryIntervalNanos;
+
+    // System.nanoTime() after which the shared store is used again - 0 while the store is available
+    private final AtomicLong storeRetryAt = new AtomicLong();
+
+    public RateLimitBucketRegistry(@Value("${nbs.rate-limit.maximum-clients}") long maximumClients,
+                                   @Value("${nbs.rate-limit.default.capacity}") long defaultCapacity,
+                                   @Value("${nbs.rate-limit.default.refill-per-minute}") long defaultRefill,
+                                   @Value("${nbs.rate-limit.media.capacity}") long mediaCapacity,
+                                   @Value("${nbs.rate-limit.media.refill-per-minute}") long mediaRefill,
+                                   @Value("${nbs.rate-limit.export.capacity}") long exportCapacity,
+                                   @Value("${nbs.rate-limit.export.refill-per-minute}") long exportRefill,
+                                   @Value("${nbs.rate-limit.store.retry-interval}") Duration storeRetryInterval,
+                                   Optional<MongoBucketProxyManager> sharedStore,
+                                   MeterRegistry meterRegistry) {
+        limits.put(RateLimitGroup.DEFAULT, generateLimit(defaultCapacity, defaultRefill));
+        limits.put(RateLimitGroup.MEDIA, generateLimit(mediaCapacity, mediaRefill));
+        limits.put(RateLimitGroup.EXPORT, generateLimit(exportCapacity, exportRefill));
+
+        long refillMinutes = Math.max(Math.ceilDiv(defaultCapacity, defaultRefill),
+                Math.max(Math.ceilDiv(mediaCapacity, mediaRefill), Math.ceilDiv(exportCapacity, exportRefill)));
+        this.sharedStore = sharedStore.orElse(null);
+        this.storeRetryIntervalNanos = storeRetryInterval.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofMinutes(refillMinutes))
+                .build();
+        this.localBuckets = this.sharedStore != null
+                ? Caffeine.newBuilder().maximumSize(maximumClients).expireAfterAccess(Duration.ofMinutes(refillMinutes)).build()
+                : buckets;
+        this.storeFailures = Counter.builder(STORE_FAILURE_METRIC)
+                .description("Rate limit checks served by in-memory buckets as the shared store was unavailable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume a token from the bucket of a client for the given endpoint group
+     * Falls back to the in-memory bucket of the client if the shared store can not be reached or failed within the retry interval
+     *
+     * @param clientKey : Identifier of the client
+     * @param group : Endpoint group of the request
+     * @return ConsumptionProbe - Contains the remaining tokens and the time until the next refill
+     */
+    public ConsumptionProbe tryConsume(String clientKey, RateLimitGroup group) {
+        String key = group.name() + ":" + clientKey;
+        if (sharedStore == null) {
+            return consumeLocally(key, group);
+        }
+        if (!isStoreAvailable()) {
+            storeFailures.increment();
+            return consumeLocally(key, group);
+        }
+
+        try {
+            ConsumptionProbe probe = buckets.get(key, bucketKey -> sharedStore.createBucket(bucketKey, limits.get(group)))
+                    .tryConsumeAndReturnRemaining(1);
+            if (storeRetryAt.get() != 0) {
+                storeRetryAt.set(0);
+                log.info("Rate limit store available again - Using shared buckets");
+            }
+            return probe;
+        } catch (DataAccessException e) {
+            storeRetryAt.set(System.nanoTime() + storeRetryIntervalNanos);
+            storeFailures.increment();
+            log.warn("Rate limit store unavailable - Using in-memory buckets for {} - Error: {}", Duration.ofNanos(storeRetryIntervalNanos), e.getMessage());
+            return consumeLocally(key, group);
+        }
+    }
+
+    /**
+     * Retrieve the capacity of the buckets of an endpoint group
+     *
+     * @param group : Endpoint group
+     * @return Maximum number of tokens
+     */
+    public long getCapacity(RateLimitGroup group) {
+        return limits.get(group).getCapacity();
+    }
+
+    /*
+     * Helper Methods
+     */
+    // A single request retries the store once the retry interval has passed, while the rest keep using in-memory buckets
+    private boolean isStoreAvailable() {
+        long retryAt = storeRetryAt.get();
+        if (retryAt == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        return now - retryAt >= 0 && storeRetryAt.compareAndSet(retryAt, now + storeRetryIntervalNanos);
+    }
+
+    private ConsumptionProbe consumeLocally(String key, RateLimitGroup group) {
+        return localBuckets.get(key, bucketKey -> Bucket.builder().addLimit(limits.get(group)).build())
+                .tryConsumeAndReturnRemaining(1);
+    }
+
+    private Bandwidth generateLimit(long capacity, long refillPerMinute) {
+        return Bandwidth.builder()
+                .capacity(capacity)
+                .refillGreedy(refillPerMinute, Duration.ofMinutes(1))
+                .build();
+    }
+}
@@ -1,45 +1,119 @@
 package gr.atc.urbreath.filter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import gr.atc.urbreath.controller.responses.BaseAppResponse;
-import io.github.bucket4j.Bucket;
+import gr.atc.urbreath.enums.RateLimitGroup;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+/*
+ * Rate limiting of requests per client and endpoint group
+ * Authenticated clients are identified by their JWT subject, all other clients by their IP address
+ * Behind a reverse proxy the IP address is resolved from the forwarded headers of trusted proxies (server.forward-headers-strategy)
+ */
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
-    private final Bucket bucket;
 
-    public RateLimitingFilter() {
-        this.bucket = Bucket.builder()
-                .addLimit(limit -> limit.capacity(50).refillGreedy(10, Duration.ofMinutes(1)))
-                .build();
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final RateLimitBucketRegistry bucketRegistry;
+
+    private final AtomicReference<RejectionBody> rejectionBody = new AtomicReference<>();
+
+    private record RejectionBody(long epochSecond, byte[] content) {}
+
+    public RateLimitingFilter(RateLimitBucketRegistry bucketRegistry) {
+        this.bucketRegistry = bucketRegistry;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
-        if (bucket.tryConsume(1)) {
+        RateLimitGroup group = RateLimitGroup.fromPath(request.getRequestURI());
+        ConsumptionProbe probe = bucketRegistry.tryConsume(resolveClientKey(request), group);
+
+        // Reset is the time until the bucket is full again, so clients can pace themselves before being throttled
+        response.setHeader(LIMIT_HEADER, String.valueOf(bucketRegistry.getCapacity(group)));
+        response.setHeader(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+        response.setIntHeader(RESET_HEADER, toSeconds(probe.getNanosToWaitForReset()));
+        if (probe.isConsumed()) {
             filterChain.doFilter(request, response);
         } else {
             // Directly set the response status and body instead of throwing an exception
+            byte[] body = retrieveRejectionBody();
+            response.setIntHeader(HttpHeaders.RETRY_AFTER, toSeconds(probe.getNanosToWaitForRefill()));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType("application/json");
-            BaseAppResponse<String> responseMessage = BaseAppResponse.error("Too many requests. Please try again later.", "Rate Limit Exceeded");
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-            mapper.writeValue(response.getWriter(), responseMessage);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
         }
+    }
 
+    private static int toSeconds(long nanos) {
+        return (int) Math.min(Math.ceilDiv(nanos, NANOS_PER_SECOND), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieve the serialized body of rejected requests
+     * The body only changes along with its timestamp, so it is serialized at most once per second instead of once per request
+     *
+     * @return Serialized BaseAppResponse
+     */
+    private byte[] retrieveRejectionBody() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        RejectionBody cachedBody = rejectionBody.get();
+        if (cachedBody != null && cachedBody.epochSecond() == epochSecond) {
+            return cachedBody.content();
+        }
+
+        BaseAppResponse<String> responseMessage = BaseAppResponse.error("Too many requests. Please try again later.", "Rate Limit Exceeded");
+        responseMessage.setTimestamp(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()));
+        try {
+            byte[] content = OBJECT_MAPPER.writeValueAsBytes(responseMessage);
+            rejectionBody.set(new RejectionBody(epochSecond, content));
+            return content;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize rate limit response", e);
+        }
+    }
+
+    /**
+     * Resolve the key of the client that performs the request
+     *
+     * @param request : HTTP request
+     * @return JWT subject for authenticated requests, IP address otherwise
+     */
+    private String resolveClientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
     }
 }
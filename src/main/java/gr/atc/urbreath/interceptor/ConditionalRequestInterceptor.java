@@ -0,0 +1,55 @@
+package gr.atc.urbreath.interceptor;
+
+import gr.atc.urbreath.cache.NbsChangeStamp;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * Answers conditional GET requests (If-None-Match / If-Modified-Since) on the NBS read endpoints
+ * Validators are resolved from the collection change stamp before the handler runs, so unchanged responses cost neither NBS loading nor DTO mapping
+ */
+@Component
+@Slf4j
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private static final String EXPAND_PARAM = "expand";
+
+    private final NbsChangeStamp nbsChangeStamp;
+
+    public ConditionalRequestInterceptor(NbsChangeStamp nbsChangeStamp) {
+        this.nbsChangeStamp = nbsChangeStamp;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+
+        // Expanded responses also contain upstream data, which are not covered by the collection change stamp
+        if (request.getParameter(EXPAND_PARAM) != null) {
+            return true;
+        }
+
+        // Clients may store responses but must revalidate them before every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePublic().getHeaderValue());
+
+        // Sets the 304 status and the validator headers - Handler is skipped if not modified
+        try {
+            return !new ServletWebRequest(request, response).checkNotModified(nbsChangeStamp.getETag(), nbsChangeStamp.getLastModified().toEpochMilli());
+        } catch (DataAccessException e) {
+            // Without a stamp the response can not be validated, so it is served in full
+            log.warn("Unable to resolve the NBS change stamp - Error: {}", e.getMessage());
+            return true;
+        }
+    }
+}
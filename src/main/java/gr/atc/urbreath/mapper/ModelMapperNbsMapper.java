@@ -0,0 +1,68 @@
+package gr.atc.urbreath.mapper;
+
+import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.mapper.interfaces.INbsMapper;
+import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.Nbs;
+import org.modelmapper.MappingException;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+/*
+ * Reflection-based mapper between NBS Models and DTOs using ModelMapper
+ */
+@Component
+@ConditionalOnProperty(value = "nbs.mapping.strategy", havingValue = "model-mapper")
+public class ModelMapperNbsMapper implements INbsMapper {
+
+    private static final String MAPPING_ERROR = "Unable to map Nbs object to DTO - Error: ";
+
+    private final ModelMapper modelMapper;
+
+    public ModelMapperNbsMapper(ModelMapper modelMapper) {
+        this.modelMapper = modelMapper;
+    }
+
+    @Override
+    public NbsDataDto toNbsDataDto(Nbs nbs) {
+        try {
+            return nbs == null ? null : modelMapper.map(nbs, NbsDataDto.class);
+        } catch (MappingException e) {
+            throw new DataMappingException(MAPPING_ERROR + e.getMessage());
+        }
+    }
+
+    @Override
+    public GeoLocationDto toGeoLocationDto(GeoLocation geoLocation) {
+        try {
+            return geoLocation == null ? null : modelMapper.map(geoLocation, GeoLocationDto.class);
+        } catch (MappingException e) {
+            throw new DataMappingException("Unable to map GeoLocation object to DTO - Error: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Nbs toNbs(NbsCreationDataDto nbsData) {
+        if (nbsData == null) {
+            return null;
+        }
+
+        try {
+            Nbs nbs = modelMapper.map(nbsData, Nbs.class);
+            // ID and media files are generated during NBS creation
+            nbs.setId(null);
+            nbs.setMainImage(null);
+            nbs.setImages(null);
+            nbs.setVideos(null);
+            nbs.setImageVariants(null);
+            return nbs;
+        } catch (MappingException e) {
+            throw new DataMappingException("Unable to map DTO to Nbs object - Error: " + e.getMessage());
+        }
+    }
+}
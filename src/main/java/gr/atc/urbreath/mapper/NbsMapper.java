@@ -0,0 +1,111 @@
+package gr.atc.urbreath.mapper;
+
+import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.ImageVariantDto;
+import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.mapper.interfaces.INbsMapper;
+import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.Nbs;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+ * Hand-built mapper between NBS Models and DTOs - No reflection is used during mapping
+ * Entities are not reused after mapping, so collections are shared instead of copied
+ */
+@Component
+@ConditionalOnProperty(value = "nbs.mapping.strategy", havingValue = "direct", matchIfMissing = true)
+public class NbsMapper implements INbsMapper {
+
+    /**
+     * Map Nbs to NbsDataDto
+     *
+     * @param nbs : Nbs Model
+     * @return NbsDataDto or null if nbs is null
+     */
+    @Override
+    public NbsDataDto toNbsDataDto(Nbs nbs) {
+        if (nbs == null) {
+            return null;
+        }
+
+        return NbsDataDto.builder()
+                .id(nbs.getId())
+                .climateZone(nbs.getClimateZone() == null ? null : nbs.getClimateZone().toString())
+                .title(nbs.getTitle())
+                .pilot(nbs.getPilot())
+                .mainImage(nbs.getMainImage())
+                .imageVariants(nbs.getImageVariants() == null ? null : nbs.getImageVariants().stream()
+                        .map(variant -> new ImageVariantDto(variant.getSource(), variant.getWidth(), variant.getFileName()))
+                        .toList())
+                .geoLocation(toGeoLocationDto(nbs.getGeoLocation()))
+                .isUrBreathNbs(nbs.isUrBreathNbs())
+                .keywords(nbs.getKeywords())
+                .areaCharacterization(nbs.getAreaCharacterization())
+                .dateCreated(nbs.getDateCreated())
+                .lastModified(nbs.getLastModified())
+                .status(nbs.getStatus())
+                .relatedMaterial(nbs.getRelatedMaterial())
+                .objective(nbs.getObjective())
+                .challenges(nbs.getChallenges())
+                .potentialImpactsAndBenefits(nbs.getPotentialImpactsAndBenefits())
+                .lessonsLearnt(nbs.getLessonsLearnt())
+                .problems(nbs.getProblems())
+                .images(nbs.getImages())
+                .videos(nbs.getVideos())
+                .idraDatasets(nbs.getIdraDatasets())
+                .kpis(nbs.getKpis())
+                .build();
+    }
+
+    /**
+     * Map GeoLocation to GeoLocationDto
+     *
+     * @param geoLocation : GeoLocation Model
+     * @return GeoLocationDto or null if geoLocation is null
+     */
+    @Override
+    public GeoLocationDto toGeoLocationDto(GeoLocation geoLocation) {
+        if (geoLocation == null) {
+            return null;
+        }
+
+        return new GeoLocationDto(geoLocation.getLatitude(), geoLocation.getLongitude(), geoLocation.getAddress());
+    }
+
+    /**
+     * Map NbsCreationDataDto to Nbs
+     * ID and media files are not mapped as they are generated during creation
+     *
+     * @param nbsData : NBS creation data
+     * @return Nbs or null if nbsData is null
+     */
+    @Override
+    public Nbs toNbs(NbsCreationDataDto nbsData) {
+        if (nbsData == null) {
+            return null;
+        }
+
+        return Nbs.builder()
+                .title(nbsData.getTitle())
+                .climateZone(nbsData.getClimateZone())
+                .geoLocation(nbsData.getGeoLocation() == null ? null : new GeoLocation(nbsData.getGeoLocation().getLatitude(),
+                        nbsData.getGeoLocation().getLongitude(), nbsData.getGeoLocation().getAddress()))
+                .status(nbsData.getStatus())
+                .pilot(nbsData.getPilot())
+                .isUrBreathNbs(nbsData.isUrBreathNbs())
+                .relatedMaterial(nbsData.getRelatedMaterial())
+                .dateCreated(nbsData.getDateCreated())
+                .areaCharacterization(nbsData.getAreaCharacterization())
+                .objective(nbsData.getObjective())
+                .challenges(nbsData.getChallenges())
+                .potentialImpactsAndBenefits(nbsData.getPotentialImpactsAndBenefits())
+                .lessonsLearnt(nbsData.getLessonsLearnt())
+                .keywords(nbsData.getKeywords())
+                .problems(nbsData.getProblems())
+                .idraDatasets(nbsData.getIdraDatasets())
+                .kpis(nbsData.getKpis())
+                .build();
+    }
+}
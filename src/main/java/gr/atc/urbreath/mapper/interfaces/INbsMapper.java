@@ -0,0 +1,16 @@
+package gr.atc.urbreath.mapper.interfaces;
+
+import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.Nbs;
+
+public interface INbsMapper {
+
+    NbsDataDto toNbsDataDto(Nbs nbs);
+
+    GeoLocationDto toGeoLocationDto(GeoLocation geoLocation);
+
+    Nbs toNbs(NbsCreationDataDto nbsData);
+}
@@ -0,0 +1,18 @@
+package gr.atc.urbreath.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageVariant {
+
+    // File name of the original image
+    private String source;
+
+    private int width;
+
+    private String fileName;
+}
@@ -0,0 +1,25 @@
+package gr.atc.urbreath.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaFile {
+
+    private String fileName;
+
+    private String contentType;
+
+    // Size of the file in bytes
+    private long size;
+
+    // ETag of the object as reported by the storage
+    private String eTag;
+
+    private Instant lastModified;
+}
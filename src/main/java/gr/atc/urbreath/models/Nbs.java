@@ -6,6 +6,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
@@ -19,11 +27,21 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Document(collection = "nbs")
+@CompoundIndexes({
+        @CompoundIndex(name = "date_created_id", def = "{'dateCreated': -1, '_id': -1}"),
+        @CompoundIndex(name = "climate_zone_date_created_id", def = "{'climateZone': 1, 'dateCreated': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_date_created_id", def = "{'status': 1, 'dateCreated': -1, '_id': -1}"),
+        @CompoundIndex(name = "pilot_date_created_id", def = "{'pilot': 1, 'dateCreated': -1, '_id': -1}"),
+        @CompoundIndex(name = "keywords_date_created_id", def = "{'keywords': 1, 'dateCreated': -1, '_id': -1}"),
+        @CompoundIndex(name = "problems_date_created_id", def = "{'problems': 1, 'dateCreated': -1, '_id': -1}")
+})
 public class Nbs {
 
     @MongoId(FieldType.OBJECT_ID)
     private String id;
 
+    @Indexed(name = "title_unique", unique = true, sparse = true)
+    @TextIndexed(weight = 10)
     @Field(value = "title")
     private String title;
 
@@ -33,6 +51,11 @@ public class Nbs {
     @Field(value = "geoLocation")
     private GeoLocation geoLocation;
 
+    // GeoJSON point derived from geoLocation on every save - Used for geospatial queries
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    @Field(value = "location")
+    private GeoJsonPoint location;
+
     @Field(value = "status")
     private NbsStatus status;
 
@@ -48,27 +71,40 @@ public class Nbs {
     @Field(value = "dateCreated")
     private Date dateCreated;
 
+    // Set on every save - Acts as the version of the record
+    @LastModifiedDate
+    @Indexed(name = "last_modified")
+    @Field(value = "lastModified")
+    private Date lastModified;
+
     /*
-     * Description Texts
+     * Description Texts - Weighted in the full-text search index
      */
+    @TextIndexed(weight = 1)
     @Field(value = "areaCharacterization")
     private String areaCharacterization;
 
+    @TextIndexed(weight = 3)
     @Field(value = "objective")
     private String objective;
 
+    @TextIndexed(weight = 1)
     @Field(value = "challenges")
     private String challenges;
 
+    @TextIndexed(weight = 1)
     @Field(value = "potentialImpactsAndBenefits")
     private String potentialImpactsAndBenefits;
 
+    @TextIndexed(weight = 1)
     @Field(value = "lessonsLearnt")
     private String lessonsLearnt;
 
+    @TextIndexed(weight = 5)
     @Field(value = "keywords")
     private List<String> keywords;
 
+    @TextIndexed(weight = 3)
     @Field(value = "problems")
     private List<String> problems;
 
@@ -84,6 +120,10 @@ public class Nbs {
     @Field(value = "videos")
     private List<String> videos;
 
+    // Resized variants of the main image and the images
+    @Field(value = "imageVariants")
+    private List<ImageVariant> imageVariants;
+
     /*
      * External Data from Components
      */
@@ -0,0 +1,22 @@
+package gr.atc.urbreath.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Aggregated NBS locations of a single grid cell
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NbsCluster {
+
+    private double latitude;
+
+    private double longitude;
+
+    private long count;
+
+    private String nbsId;
+}
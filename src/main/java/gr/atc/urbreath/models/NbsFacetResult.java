@@ -0,0 +1,42 @@
+package gr.atc.urbreath.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ * Result of the NBS facet aggregation - Total count and per-facet value counts along with the results page
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NbsFacetResult {
+
+    private List<Nbs> results;
+
+    private List<FacetCount> total;
+
+    private List<FacetCount> climateZone;
+
+    private List<FacetCount> status;
+
+    private List<FacetCount> pilot;
+
+    private List<FacetCount> isUrBreathNbs;
+
+    private List<FacetCount> keywords;
+
+    private List<FacetCount> problems;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FacetCount {
+
+        private Object value;
+
+        private long count;
+    }
+}
@@ -0,0 +1,34 @@
+package gr.atc.urbreath.models;
+
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.NbsStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ * Combined filters of NBS records - Null or empty values are ignored
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NbsFilter {
+
+    private ClimateZone climateZone;
+
+    private NbsStatus status;
+
+    private String pilot;
+
+    private Boolean isUrBreathNbs;
+
+    // Records matching any of the given keywords
+    private List<String> keywords;
+
+    // Records matching any of the given problems
+    private List<String> problems;
+}
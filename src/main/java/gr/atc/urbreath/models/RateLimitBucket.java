@@ -0,0 +1,34 @@
+package gr.atc.urbreath.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+/*
+ * Rate limiting bucket shared among all application replicas
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "rate_limit_buckets")
+public class RateLimitBucket {
+
+    // Client and endpoint group of the bucket
+    @Id
+    private String id;
+
+    // Serialized Bucket4j state - Replaced only if unchanged since it was read
+    @Field("state")
+    private byte[] state;
+
+    // Buckets are removed once they would have been refilled completely
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s")
+    @Field("expiresAt")
+    private Date expiresAt;
+}
@@ -0,0 +1,265 @@
+package gr.atc.urbreath.repository;
+
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.models.NbsFilter;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Box;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static gr.atc.urbreath.util.CursorUtils.DATE_CREATED_KEY;
+import static gr.atc.urbreath.util.CursorUtils.ID_KEY;
+
+/*
+ * Builds the queries issued by the NBS repository
+ * Shared with the query plan verifier, so the explained queries are the ones actually executed
+ */
+public class NbsQueries {
+    static final String CLIMATE_ZONE = "climateZone";
+    static final String LOCATION = "location";
+    static final String LOCATION_COORDINATES = "location.coordinates";
+    static final String STATUS = "status";
+    static final String PILOT = "pilot";
+    static final String IS_URBREATH_NBS = "isUrBreathNbs";
+    static final String KEYWORDS = "keywords";
+    static final String PROBLEMS = "problems";
+    static final String MAIN_IMAGE = "mainImage";
+    static final String IMAGE_VARIANTS = "imageVariants";
+
+    private static final List<String> BRIEF_DATA_FIELDS = List.of("title", CLIMATE_ZONE, PILOT, MAIN_IMAGE, IMAGE_VARIANTS, "geoLocation", IS_URBREATH_NBS, KEYWORDS, "objective", DATE_CREATED_KEY);
+
+    private NbsQueries() {}
+
+    /**
+     * Query of a keyset page of NBS brief data on (dateCreated, _id)
+     * One extra record is requested to identify whether a next page exists
+     *
+     * @param climateZone : Climate Zone filter (Optional)
+     * @param position : Keyset position of the last record of the previous page
+     * @param direction : Direction of Sorting
+     * @param limit : Size of returned elements
+     * @return Query
+     */
+    public static Query scrollBriefData(ClimateZone climateZone, KeysetScrollPosition position, Sort.Direction direction, int limit) {
+        Query query = new Query();
+        if (climateZone != null) {
+            query.addCriteria(Criteria.where(CLIMATE_ZONE).is(climateZone));
+        }
+        if (!position.isInitial()) {
+            query.addCriteria(generateKeysetCriteria(position, direction));
+        }
+        query.with(Sort.by(direction, DATE_CREATED_KEY, ID_KEY)).limit(limit + 1);
+        return includeBriefDataFields(query);
+    }
+
+    /**
+     * Query of a page of NBS brief data located within a radius from a point, sorted by distance ($nearSphere)
+     *
+     * @param latitude : Latitude of the center
+     * @param longitude : Longitude of the center
+     * @param radiusInMeters : Maximum distance from the center in meters
+     * @param pageable : Pagination parameters
+     * @return Query
+     */
+    public static Query nearBriefData(double latitude, double longitude, double radiusInMeters, Pageable pageable) {
+        Query query = new Query(Criteria.where(LOCATION).nearSphere(new GeoJsonPoint(longitude, latitude)).maxDistance(radiusInMeters))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        return includeBriefDataFields(query);
+    }
+
+    /**
+     * Query counting the NBS located within a radius from a point ($geoWithin), as $nearSphere can not be used in count queries
+     *
+     * @param latitude : Latitude of the center
+     * @param longitude : Longitude of the center
+     * @param radiusInMeters : Maximum distance from the center in meters
+     * @return Query
+     */
+    public static Query nearCount(double latitude, double longitude, double radiusInMeters) {
+        Circle circle = new Circle(new Point(longitude, latitude), new Distance(radiusInMeters / 1000, Metrics.KILOMETERS));
+        return new Query(Criteria.where(LOCATION).withinSphere(circle));
+    }
+
+    /**
+     * Query of a page of NBS brief data located within a bounding box, sorted by creation date
+     *
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @param pageable : Pagination parameters
+     * @return Query
+     */
+    public static Query withinBoxBriefData(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude, Pageable pageable) {
+        Query query = new Query(boundingBox(minLongitude, minLatitude, maxLongitude, maxLatitude))
+                .with(Sort.by(Sort.Direction.DESC, DATE_CREATED_KEY, ID_KEY))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        return includeBriefDataFields(query);
+    }
+
+    /**
+     * Query of a page of NBS brief data matching the full-text index, ranked by relevance score
+     *
+     * @param textCriteria : Search terms
+     * @param pageable : Pagination parameters
+     * @return Query
+     */
+    public static Query searchBriefData(TextCriteria textCriteria, Pageable pageable) {
+        Query query = TextQuery.queryText(textCriteria).sortByScore()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        return includeBriefDataFields(query);
+    }
+
+    /**
+     * Query of a page of NBS brief data matching the combined filters, sorted by creation date
+     *
+     * @param filter : Combined filters
+     * @param pageable : Pagination parameters
+     * @return Query
+     */
+    public static Query filterBriefData(NbsFilter filter, Pageable pageable) {
+        Query query = new Query(filter(filter, null))
+                .with(Sort.by(Sort.Direction.DESC, DATE_CREATED_KEY, ID_KEY))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        return includeBriefDataFields(query);
+    }
+
+    /**
+     * Generate the criteria of the combined NBS filters
+     *
+     * @param filter : Combined filters
+     * @param excludedField : Field whose filter is skipped - Used by the facet of the field (Optional)
+     * @return Criteria
+     */
+    public static Criteria filter(NbsFilter filter, String excludedField) {
+        Criteria criteria = new Criteria();
+        if (filter.getClimateZone() != null && !CLIMATE_ZONE.equals(excludedField)) {
+            criteria.and(CLIMATE_ZONE).is(filter.getClimateZone());
+        }
+        if (filter.getStatus() != null && !STATUS.equals(excludedField)) {
+            criteria.and(STATUS).is(filter.getStatus());
+        }
+        if (filter.getPilot() != null && !PILOT.equals(excludedField)) {
+            criteria.and(PILOT).is(filter.getPilot());
+        }
+        if (filter.getIsUrBreathNbs() != null && !IS_URBREATH_NBS.equals(excludedField)) {
+            criteria.and(IS_URBREATH_NBS).is(filter.getIsUrBreathNbs());
+        }
+        if (filter.getKeywords() != null && !filter.getKeywords().isEmpty() && !KEYWORDS.equals(excludedField)) {
+            criteria.and(KEYWORDS).in(filter.getKeywords());
+        }
+        if (filter.getProblems() != null && !filter.getProblems().isEmpty() && !PROBLEMS.equals(excludedField)) {
+            criteria.and(PROBLEMS).in(filter.getProblems());
+        }
+        return criteria;
+    }
+
+    /**
+     * Generate the criteria that select the records counted by any facet of the combined filters
+     * Facets are counted without their own filter, so a record is counted if it matches all active filters except at most one
+     * Used as leading $match of the facet aggregation, so that only these records are passed to the facets and indexes can be used
+     *
+     * @param filter : Combined filters
+     * @return Criteria or null if all records are counted (less than two active filters)
+     */
+    public static Criteria facetScope(NbsFilter filter) {
+        List<String> activeFields = activeFilterFields(filter);
+        if (activeFields.size() < 2) {
+            return null;
+        }
+        return new Criteria().orOperator(activeFields.stream().map(field -> filter(filter, field)).toList());
+    }
+
+    /**
+     * Generate the criteria that select the NBS located within a bounding box
+     * Box is matched with $box on the [longitude, latitude] pair of the GeoJSON location (2d index), so its edges follow the lines of latitude
+     * A GeoJSON polygon would use geodesic edges instead, which deviate from the lines of latitude on wide boxes
+     *
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @return Criteria
+     */
+    public static Criteria boundingBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        // Box covering the whole world selects every located NBS
+        if (minLongitude <= -180 && minLatitude <= -90 && maxLongitude >= 180 && maxLatitude >= 90) {
+            return Criteria.where(LOCATION).ne(null);
+        }
+        return Criteria.where(LOCATION_COORDINATES).within(new Box(new Point(minLongitude, minLatitude), new Point(maxLongitude, maxLatitude)));
+    }
+
+    private static List<String> activeFilterFields(NbsFilter filter) {
+        List<String> activeFields = new ArrayList<>();
+        if (filter.getClimateZone() != null) {
+            activeFields.add(CLIMATE_ZONE);
+        }
+        if (filter.getStatus() != null) {
+            activeFields.add(STATUS);
+        }
+        if (filter.getPilot() != null) {
+            activeFields.add(PILOT);
+        }
+        if (filter.getIsUrBreathNbs() != null) {
+            activeFields.add(IS_URBREATH_NBS);
+        }
+        if (filter.getKeywords() != null && !filter.getKeywords().isEmpty()) {
+            activeFields.add(KEYWORDS);
+        }
+        if (filter.getProblems() != null && !filter.getProblems().isEmpty()) {
+            activeFields.add(PROBLEMS);
+        }
+        return activeFields;
+    }
+
+    private static Query includeBriefDataFields(Query query) {
+        BRIEF_DATA_FIELDS.forEach(query.fields()::include);
+        return query;
+    }
+
+    /**
+     * Generate the criteria that select all records after the given position
+     * Records without creation date are sorted as lowest values by MongoDB, so they are handled explicitly
+     *
+     * @param position : Keyset position
+     * @param direction : Direction of Sorting
+     * @return Criteria
+     */
+    private static Criteria generateKeysetCriteria(KeysetScrollPosition position, Sort.Direction direction) {
+        Date dateCreated = (Date) position.getKeys().get(DATE_CREATED_KEY);
+        ObjectId id = new ObjectId((String) position.getKeys().get(ID_KEY));
+        boolean descending = direction.isDescending();
+
+        Criteria sameDateAfterId = descending
+                ? Criteria.where(DATE_CREATED_KEY).is(dateCreated).and(ID_KEY).lt(id)
+                : Criteria.where(DATE_CREATED_KEY).is(dateCreated).and(ID_KEY).gt(id);
+
+        if (dateCreated == null) {
+            return descending
+                    ? sameDateAfterId
+                    : new Criteria().orOperator(sameDateAfterId, Criteria.where(DATE_CREATED_KEY).ne(null));
+        }
+
+        return descending
+                ? new Criteria().orOperator(Criteria.where(DATE_CREATED_KEY).lt(dateCreated), sameDateAfterId, Criteria.where(DATE_CREATED_KEY).is(null))
+                : new Criteria().orOperator(Criteria.where(DATE_CREATED_KEY).gt(dateCreated), sameDateAfterId);
+    }
+}
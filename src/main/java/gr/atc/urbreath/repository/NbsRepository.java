@@ -8,13 +8,24 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface NbsRepository extends MongoRepository<Nbs, String> {
+public interface NbsRepository extends MongoRepository<Nbs, String>, NbsRepositoryCustom {
     Optional<Nbs> findByTitle(String title);
 
+    boolean existsByTitle(String title);
+
     @Query(value = "{}", fields = "{id: 1, title: 1, climateZone: 1, pilot: 1, mainImage: 1, geoLocation: 1, isUrBreathNbs: 1, keywords: 1, objective: 1}")
     Page<Nbs> findNbsBriefData(Pageable pageable);
 
     @Query(value = "{'climateZone': ?0}", fields = "{id: 1, title: 1, climateZone: 1, pilot: 1, mainImage: 1, geoLocation: 1, isUrBreathNbs: 1, keywords: 1, objective: 1}")
     Page<Nbs> findNbsBriefDataByClimateZone(ClimateZone climateZone, Pageable pageable);
+
+    long countByClimateZone(ClimateZone climateZone);
+
+    @Query(fields = "{lastModified: 1}")
+    Optional<Nbs> findTopByOrderByLastModifiedDesc();
+
+    @Query(value = "{'geoLocation': {$ne: null}}", fields = "{geoLocation: 1}")
+    Stream<Nbs> streamNbsGeolocations();
 }
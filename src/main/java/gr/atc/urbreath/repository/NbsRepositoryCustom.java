@@ -0,0 +1,35 @@
+package gr.atc.urbreath.repository;
+
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.models.ImageVariant;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsCluster;
+import gr.atc.urbreath.models.NbsFacetResult;
+import gr.atc.urbreath.models.NbsFilter;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface NbsRepositoryCustom {
+
+    Window<Nbs> scrollNbsBriefData(ClimateZone climateZone, KeysetScrollPosition position, Sort.Direction direction, int limit);
+
+    Stream<Nbs> streamAllNbs();
+
+    Page<Nbs> findNbsBriefDataNear(double latitude, double longitude, double radiusInMeters, Pageable pageable);
+
+    Page<Nbs> findNbsBriefDataWithinBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude, Pageable pageable);
+
+    Page<Nbs> searchNbsBriefData(String text, Pageable pageable);
+
+    NbsFacetResult filterNbsBriefDataWithFacets(NbsFilter filter, Pageable pageable);
+
+    List<NbsCluster> clusterNbsLocations(int gridSize, double minLongitude, double minLatitude, double maxLongitude, double maxLatitude);
+
+    Nbs attachNbsMedia(String nbsId, String mainImage, List<String> images, List<String> videos, List<ImageVariant> imageVariants);
+}
@@ -0,0 +1,280 @@
+package gr.atc.urbreath.repository;
+
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.models.ImageVariant;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsCluster;
+import gr.atc.urbreath.models.NbsFacetResult;
+import gr.atc.urbreath.models.NbsFilter;
+import gr.atc.urbreath.util.CursorUtils;
+import org.bson.Document;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static gr.atc.urbreath.repository.NbsQueries.*;
+import static gr.atc.urbreath.util.CursorUtils.ID_KEY;
+
+public class NbsRepositoryCustomImpl implements NbsRepositoryCustom {
+
+    private static final String LATITUDE = "geoLocation.latitude";
+    private static final String LONGITUDE = "geoLocation.longitude";
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    private static final String IMAGES = "images";
+    private static final String VIDEOS = "videos";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final List<String> FACET_FIELDS = List.of(CLIMATE_ZONE, STATUS, PILOT, IS_URBREATH_NBS);
+    private static final List<String> ARRAY_FACET_FIELDS = List.of(KEYWORDS, PROBLEMS);
+
+
+    private final MongoTemplate mongoTemplate;
+
+    public NbsRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Retrieve NBS brief data using keyset pagination on (dateCreated, _id)
+     * No count query is executed and no documents are skipped - the next page starts right after the given position
+     *
+     * @param climateZone : Climate Zone filter (Optional)
+     * @param position : Keyset position of the last record of the previous page
+     * @param direction : Direction of Sorting
+     * @param limit : Size of returned elements
+     * @return Window of Nbs records
+     */
+    @Override
+    public Window<Nbs> scrollNbsBriefData(ClimateZone climateZone, KeysetScrollPosition position, Sort.Direction direction, int limit) {
+        // One extra record is requested to identify whether a next page exists
+        List<Nbs> results = mongoTemplate.find(NbsQueries.scrollBriefData(climateZone, position, direction, limit), Nbs.class);
+        boolean hasNext = results.size() > limit;
+        List<Nbs> content = hasNext ? results.subList(0, limit) : results;
+
+        return Window.from(content, index -> CursorUtils.toScrollPosition(content.get(index).getDateCreated(), content.get(index).getId()), hasNext);
+    }
+
+    /**
+     * Stream all NBS records through a DB cursor
+     * Documents are fetched in batches while the stream is consumed, so it must be closed after use
+     *
+     * @return Stream of Nbs records
+     */
+    @Override
+    public Stream<Nbs> streamAllNbs() {
+        return mongoTemplate.stream(new Query(), Nbs.class);
+    }
+
+    /**
+     * Retrieve NBS brief data located within a radius from a point, sorted by distance ($nearSphere)
+     * Total elements are counted with $geoWithin as $nearSphere can not be used in count queries
+     *
+     * @param latitude : Latitude of the center
+     * @param longitude : Longitude of the center
+     * @param radiusInMeters : Maximum distance from the center in meters
+     * @param pageable : Pagination parameters - Sorting is ignored as results are sorted by distance
+     * @return Page of Nbs records
+     */
+    @Override
+    public Page<Nbs> findNbsBriefDataNear(double latitude, double longitude, double radiusInMeters, Pageable pageable) {
+        List<Nbs> results = mongoTemplate.find(NbsQueries.nearBriefData(latitude, longitude, radiusInMeters, pageable), Nbs.class);
+        return PageableExecutionUtils.getPage(results, pageable, () -> mongoTemplate.count(NbsQueries.nearCount(latitude, longitude, radiusInMeters), Nbs.class));
+    }
+
+    /**
+     * Retrieve NBS brief data located within a bounding box, sorted by creation date
+     *
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @param pageable : Pagination parameters - Sorting is ignored as results are sorted by creation date
+     * @return Page of Nbs records
+     */
+    @Override
+    public Page<Nbs> findNbsBriefDataWithinBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude, Pageable pageable) {
+        List<Nbs> results = mongoTemplate.find(NbsQueries.withinBoxBriefData(minLongitude, minLatitude, maxLongitude, maxLatitude, pageable), Nbs.class);
+        return PageableExecutionUtils.getPage(results, pageable,
+                () -> mongoTemplate.count(new Query(NbsQueries.boundingBox(minLongitude, minLatitude, maxLongitude, maxLatitude)), Nbs.class));
+    }
+
+    /**
+     * Search NBS brief data using the full-text index, ranked by relevance score
+     *
+     * @param text : Search terms
+     * @param pageable : Pagination parameters - Sorting is ignored as results are sorted by score
+     * @return Page of Nbs records
+     */
+    @Override
+    public Page<Nbs> searchNbsBriefData(String text, Pageable pageable) {
+        TextCriteria textCriteria = TextCriteria.forDefaultLanguage().matching(text);
+        List<Nbs> results = mongoTemplate.find(NbsQueries.searchBriefData(textCriteria, pageable), Nbs.class);
+        return PageableExecutionUtils.getPage(results, pageable, () -> mongoTemplate.count(new Query(textCriteria), Nbs.class));
+    }
+
+    /**
+     * Filter NBS brief data and count the values of every facet in a single $facet aggregation
+     * Facet counts are disjunctive: every facet is counted on the records matching all filters except its own, so the other values of a selected facet keep their counts
+     * A leading $match restricts the facets to the records matching all filters except at most one, which can use the indexes
+     * The requested page is retrieved with a separate query, as a $sort within $facet can not use the indexes
+     *
+     * @param filter : Combined filters
+     * @param pageable : Pagination parameters - Results are sorted by creation date
+     * @return NbsFacetResult
+     */
+    @Override
+    public NbsFacetResult filterNbsBriefDataWithFacets(NbsFilter filter, Pageable pageable) {
+        List<Nbs> results = mongoTemplate.find(NbsQueries.filterBriefData(filter, pageable), Nbs.class);
+
+        FacetOperation facets = Aggregation.facet(Aggregation.match(NbsQueries.filter(filter, null)), Aggregation.count().as("count")).as("total");
+        for (String field : FACET_FIELDS) {
+            facets = facets.and(Aggregation.match(NbsQueries.filter(filter, field)), Aggregation.sortByCount(field), projectFacetCount()).as(field);
+        }
+        for (String field : ARRAY_FACET_FIELDS) {
+            facets = facets.and(Aggregation.match(NbsQueries.filter(filter, field)), Aggregation.unwind(field), Aggregation.sortByCount(field), projectFacetCount()).as(field);
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        Criteria facetScope = NbsQueries.facetScope(filter);
+        if (facetScope != null) {
+            stages.add(Aggregation.match(facetScope));
+        }
+        stages.add(facets);
+
+        NbsFacetResult facetResult = mongoTemplate.aggregate(Aggregation.newAggregation(stages), Nbs.class, NbsFacetResult.class).getUniqueMappedResult();
+        facetResult.setResults(results);
+        return facetResult;
+    }
+
+    /**
+     * Cluster NBS locations of a bounding box in a grid aligned with the Web Mercator map tiles
+     * Latitudes are projected to Mercator before binning, so cells have the same size on the map at every latitude
+     * Each cell returns the number of NBS it contains along with their centroid
+     *
+     * @param gridSize : Number of grid cells along each axis of the world map
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @return List of NbsCluster
+     */
+    @Override
+    public List<NbsCluster> clusterNbsLocations(int gridSize, double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        // World map spans 360 degrees of longitude and 2 * PI of Mercator y (latitudes clamped to the Web Mercator limit)
+        double cellWidth = 360.0 / gridSize;
+        double cellHeight = 2 * Math.PI / gridSize;
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(NbsQueries.boundingBox(minLongitude, minLatitude, maxLongitude, maxLatitude)),
+                Aggregation.project()
+                        .and(LATITUDE).as("latitude")
+                        .and(LONGITUDE).as("longitude")
+                        .and(ArithmeticOperators.Floor.floorValueOf(ArithmeticOperators.valueOf(mercatorY(LATITUDE)).divideBy(cellHeight))).as("cellY")
+                        .and(ArithmeticOperators.Floor.floorValueOf(ArithmeticOperators.valueOf(LONGITUDE).divideBy(cellWidth))).as("cellX"),
+                Aggregation.group("cellX", "cellY")
+                        .count().as("count")
+                        .avg("latitude").as("latitude")
+                        .avg("longitude").as("longitude")
+                        .first(ID_KEY).as("nbsId")
+        );
+
+        return mongoTemplate.aggregate(aggregation, Nbs.class, NbsCluster.class).getMappedResults();
+    }
+
+    /**
+     * Attach media files to an NBS in a single atomic update
+     * The main image is replaced if provided, while images and videos are appended to the existing ones
+     * Variants of a replaced main image are removed in the same update, unless it is also one of the images of the NBS
+     * A pipeline update is used, as $pull and $push can not be combined on the same field and the previous main image is only known to the DB
+     *
+     * @param nbsId : ID of NBS
+     * @param mainImage : Name of the main image file (Optional)
+     * @param images : Names of image files
+     * @param videos : Names of video files
+     * @param imageVariants : Resized variants of the main image and the images
+     * @return Updated Nbs or null if not found
+     */
+    @Override
+    public Nbs attachNbsMedia(String nbsId, String mainImage, List<String> images, List<String> videos, List<ImageVariant> imageVariants) {
+        List<Object> variantDocuments = imageVariants.stream()
+                .map(variant -> mongoTemplate.getConverter().convertToMongoType(variant, TypeInformation.of(ImageVariant.class)))
+                .toList();
+
+        // Every expression of a $set stage is evaluated against the document before the stage, so '$mainImage' is the previous main image
+        Document fields = new Document(LAST_MODIFIED, "$$NOW")
+                .append(IMAGES, appendTo(IMAGES, images))
+                .append(VIDEOS, appendTo(VIDEOS, videos));
+        if (mainImage != null) {
+            Document replacedMainImage = new Document("$and", List.of(
+                    new Document("$eq", List.of("$$variant.source", "$" + MAIN_IMAGE)),
+                    new Document("$not", List.of(new Document("$in", List.of("$" + MAIN_IMAGE, fields.get(IMAGES)))))));
+            Document keptVariants = new Document("$filter", new Document("input", new Document("$ifNull", List.of("$" + IMAGE_VARIANTS, List.of())))
+                    .append("as", "variant")
+                    .append("cond", new Document("$not", List.of(replacedMainImage))));
+            fields.append(IMAGE_VARIANTS, new Document("$concatArrays", List.of(keptVariants, new Document("$literal", variantDocuments))))
+                    .append(MAIN_IMAGE, new Document("$literal", mainImage));
+        } else {
+            fields.append(IMAGE_VARIANTS, appendTo(IMAGE_VARIANTS, variantDocuments));
+        }
+
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set", fields)));
+        return mongoTemplate.findAndModify(Query.query(Criteria.where(ID_KEY).is(nbsId)), update,
+                FindAndModifyOptions.options().returnNew(true), Nbs.class);
+    }
+
+    /**
+     * Generate the expression appending values to an array field, which may not exist yet
+     * Values are passed as literals, so file names starting with '$' are not interpreted as field paths
+     *
+     * @param field : Array field
+     * @param values : Values to append
+     * @return Expression Document
+     */
+    private Document appendTo(String field, List<?> values) {
+        return new Document("$concatArrays", List.of(new Document("$ifNull", List.of("$" + field, List.of())), new Document("$literal", values)));
+    }
+
+    /**
+     * Generate the expression projecting a latitude to the Web Mercator y: ln(tan(PI / 4 + latitude / 2))
+     * Latitudes are clamped to the limits of the Web Mercator map, where the projection is finite
+     *
+     * @param latitudeField : Field of the latitude in degrees
+     * @return AggregationExpression
+     */
+    private AggregationExpression mercatorY(String latitudeField) {
+        return context -> {
+            Document clampedLatitude = new Document("$max", List.of(new Document("$min", List.of("$" + latitudeField, MAX_MERCATOR_LATITUDE)), -MAX_MERCATOR_LATITUDE));
+            Document halfLatitude = new Document("$divide", List.of(new Document("$degreesToRadians", clampedLatitude), 2));
+            return new Document("$ln", new Document("$tan", new Document("$add", List.of(Math.PI / 4, halfLatitude))));
+        };
+    }
+
+    /**
+     * Rename the grouped value of a $sortByCount stage to 'value'
+     *
+     * @return ProjectionOperation
+     */
+    private ProjectionOperation projectFacetCount() {
+        return Aggregation.project("count").and(ID_KEY).as("value").andExclude(ID_KEY);
+    }
+}
@@ -0,0 +1,23 @@
+package gr.atc.urbreath.repository.callbacks;
+
+import gr.atc.urbreath.models.Nbs;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/*
+ * Keeps the GeoJSON location of an NBS in sync with its geoLocation before every save
+ */
+@Component
+public class NbsLocationCallback implements BeforeConvertCallback<Nbs> {
+
+    @Override
+    @NonNull
+    public Nbs onBeforeConvert(@NonNull Nbs nbs, @NonNull String collection) {
+        nbs.setLocation(nbs.getGeoLocation() == null
+                ? null
+                : new GeoJsonPoint(nbs.getGeoLocation().getLongitude(), nbs.getGeoLocation().getLatitude()));
+        return nbs;
+    }
+}
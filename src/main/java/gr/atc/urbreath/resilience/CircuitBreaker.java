@@ -0,0 +1,136 @@
+package gr.atc.urbreath.resilience;
+
+import gr.atc.urbreath.enums.CircuitBreakerState;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+/*
+ * Circuit breaker and bulkhead of a single upstream
+ * Opens after consecutive failures and rejects calls until the open duration elapses, then permits one probe call (half-open) to close again
+ * Concurrent calls are bounded, so a slow upstream can not hold more than a fixed number of requests
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long openDurationNanos;
+
+    private final Predicate<Throwable> isFailure;
+
+    private final Semaphore bulkhead;
+
+    private final AtomicReference<CircuitBreakerState> state = new AtomicReference<>(CircuitBreakerState.CLOSED);
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicBoolean probeInProgress = new AtomicBoolean();
+
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int maxConcurrentCalls, Predicate<Throwable> isFailure) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.isFailure = isFailure;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Protect a call to the upstream with the circuit breaker and the bulkhead
+     * Call is subscribed only if permitted, otherwise an UpstreamUnavailableException is emitted immediately
+     *
+     * @param call : Call to the upstream
+     * @return Mono emitting the result of the call
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Mono.error(new UpstreamUnavailableException("Circuit breaker of " + name + " is open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                probeInProgress.set(false);
+                return Mono.error(new UpstreamUnavailableException("Maximum concurrent calls to " + name + " reached"));
+            }
+
+            return call
+                    .doOnSuccess(result -> onSuccess())
+                    .doOnError(this::onError)
+                    .doFinally(signal -> {
+                        bulkhead.release();
+                        // Cancelled probe has no outcome, so the next call probes again
+                        if (signal == SignalType.CANCEL) {
+                            probeInProgress.set(false);
+                        }
+                    });
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreakerState getState() {
+        return state.get();
+    }
+
+    // Helper method to decide whether a call is permitted - Open circuit moves to half-open once the open duration elapses
+    private boolean tryAcquirePermission() {
+        CircuitBreakerState current = state.get();
+        if (current == CircuitBreakerState.CLOSED) {
+            return true;
+        }
+
+        if (current == CircuitBreakerState.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            if (state.compareAndSet(CircuitBreakerState.OPEN, CircuitBreakerState.HALF_OPEN)) {
+                log.info("Circuit breaker of {} is half-open", name);
+            }
+        }
+
+        return probeInProgress.compareAndSet(false, true);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(CircuitBreakerState.HALF_OPEN, CircuitBreakerState.CLOSED)) {
+            log.info("Circuit breaker of {} is closed", name);
+        }
+        probeInProgress.set(false);
+    }
+
+    private void onError(Throwable error) {
+        // Errors caused by the request (e.g. client errors) do not indicate that the upstream is unavailable
+        if (!isFailure.test(error)) {
+            onSuccess();
+            return;
+        }
+
+        if (state.get() == CircuitBreakerState.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+        probeInProgress.set(false);
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        if (state.getAndSet(CircuitBreakerState.OPEN) != CircuitBreakerState.OPEN) {
+            log.warn("Circuit breaker of {} is open for {} ms", name, Duration.ofNanos(openDurationNanos).toMillis());
+        }
+        consecutiveFailures.set(0);
+    }
+}
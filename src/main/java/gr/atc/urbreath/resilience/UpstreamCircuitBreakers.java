@@ -0,0 +1,84 @@
+package gr.atc.urbreath.resilience;
+
+import gr.atc.urbreath.enums.CircuitBreakerState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+/*
+ * Registry of the circuit breakers of the upstream UrBreath components - One circuit breaker and bulkhead per upstream
+ * Breaker states are published as the nbs.proxy.circuit-breaker.state gauge and on the actuator health endpoint
+ */
+@Component
+public class UpstreamCircuitBreakers {
+
+    private static final String STATE_METRIC = "nbs.proxy.circuit-breaker.state";
+    private static final String REJECTED_METRIC = "nbs.proxy.circuit-breaker.rejected";
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+
+    private final Duration openDuration;
+
+    private final int maxConcurrentCalls;
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamCircuitBreakers(@Value("${nbs.proxy.circuit-breaker.failure-threshold}") int failureThreshold,
+                                   @Value("${nbs.proxy.circuit-breaker.open-duration}") Duration openDuration,
+                                   @Value("${nbs.proxy.bulkhead.max-concurrent-calls}") int maxConcurrentCalls,
+                                   MeterRegistry meterRegistry) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Protect a call to an upstream with its circuit breaker and bulkhead
+     * Only connection failures, timeouts and server errors (WebClientException) count as failures
+     *
+     * @param upstream : Name of the upstream component
+     * @param call : Call to the upstream
+     * @return Mono emitting the result of the call or an UpstreamUnavailableException if the call is rejected
+     */
+    public <T> Mono<T> protect(String upstream, Mono<T> call) {
+        return circuitBreakers.computeIfAbsent(upstream, this::createCircuitBreaker)
+                .protect(call)
+                .doOnError(UpstreamUnavailableException.class,
+                        e -> meterRegistry.counter(REJECTED_METRIC, "upstream", upstream).increment());
+    }
+
+    /**
+     * Retrieve the circuit breakers of all upstreams called so far
+     *
+     * @return Collection of CircuitBreaker
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers.values();
+    }
+
+    // Helper method to create the circuit breaker of an upstream and register one state gauge per state
+    private CircuitBreaker createCircuitBreaker(String upstream) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(upstream, failureThreshold, openDuration, maxConcurrentCalls,
+                WebClientException.class::isInstance);
+        for (CircuitBreakerState state : CircuitBreakerState.values()) {
+            Gauge.builder(STATE_METRIC, circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .description("Whether the circuit breaker of the upstream is in the given state")
+                    .tags("upstream", upstream, "state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,27 @@
+package gr.atc.urbreath.resilience;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/*
+ * Reports the circuit breaker state of every upstream on the actuator health endpoint
+ * Status remains UP while a circuit is open, since cached upstream data are still served
+ */
+@Component
+public class UpstreamHealthIndicator implements HealthIndicator {
+
+    private final UpstreamCircuitBreakers upstreamCircuitBreakers;
+
+    public UpstreamHealthIndicator(UpstreamCircuitBreakers upstreamCircuitBreakers) {
+        this.upstreamCircuitBreakers = upstreamCircuitBreakers;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up();
+        upstreamCircuitBreakers.getCircuitBreakers()
+                .forEach(circuitBreaker -> health.withDetail(circuitBreaker.getName(), circuitBreaker.getState()));
+        return health.build();
+    }
+}
@@ -1,111 +1,148 @@
 package gr.atc.urbreath.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import static gr.atc.urbreath.exception.CustomExceptions.*;
 
+import gr.atc.urbreath.cache.UpstreamDataCache;
+import gr.atc.urbreath.resilience.UpstreamCircuitBreakers;
 import gr.atc.urbreath.service.interfaces.IDataCollectorService;
+import gr.atc.urbreath.util.JsonIdExtractor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @Slf4j
 public class DataCollectorService implements IDataCollectorService {
 
+    private static final String IDRA = "idra";
+    private static final String KPI_MANAGER = "kpi-manager";
+    private static final int MAX_RETRIES = 2;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+    private static final double RETRY_JITTER = 0.5;
+
     @Value("${urbreath.kpi.manager.url}")
     private String kpiManagerUrl;
 
     @Value("${urbreath.idra.url}")
     private String idraUrl;
 
+    @Value("${nbs.proxy.idra.entries-field}")
+    private String idraEntriesField;
+
+    @Value("${nbs.proxy.kpi-manager.entries-field}")
+    private String kpiManagerEntriesField;
+
+    @Value("${nbs.proxy.max-extracted-ids}")
+    private int maxExtractedIds;
+
     private final WebClient webClient;
 
-    public DataCollectorService(WebClient webClient) {
+    private final UpstreamDataCache upstreamDataCache;
+
+    private final UpstreamCircuitBreakers upstreamCircuitBreakers;
+
+    public DataCollectorService(WebClient webClient, UpstreamDataCache upstreamDataCache, UpstreamCircuitBreakers upstreamCircuitBreakers) {
         this.webClient = webClient;
+        this.upstreamDataCache = upstreamDataCache;
+        this.upstreamCircuitBreakers = upstreamCircuitBreakers;
     }
 
     /**
      * Retrieve Datasets From Idra Component
+     * Results are served from the upstream cache and refreshed in the background
      *
-     * @return List of Datasets
+     * @return Mono emitting the List of Datasets
      */
-    @Retryable(retryFor = {
-            HttpServerErrorException.ServiceUnavailable.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 200)
-    )
     @Override
-    public List<String> retrieveDatasetsFromIdra() {
-        try {
-            JsonNode response = webClient.get()
-                    .uri(idraUrl)
-                    .retrieve()
-                    .onStatus(httpStatus -> !httpStatus.is2xxSuccessful(), resp -> {
-                        log.error("Unable to retrieve datasets from Idra. Status Code: {}", resp.statusCode());
-                        return Mono.error(new WebClientRequestException("Unable to retrieve datasets from Idra"));
-                    })
-                    .bodyToMono(JsonNode.class)
-                    .cache(Duration.ofMinutes(5))
-                    .block();
-
-            return extractDatasetIds(response);
-        } catch (WebClientException e) {
-            log.error("Error retrieving datasets from Idra", e);
-            throw new WebClientRequestException("Failed to retrieve datasets: " + e.getMessage());
-        }
+    public Mono<List<String>> retrieveDatasetsFromIdra() {
+        return upstreamDataCache.get(IDRA, this::fetchDatasetsFromIdra);
     }
 
     /**
      * Retrieve KPIs from KPI Manager Component
+     * Results are served from the upstream cache and refreshed in the background
      *
-     * @return List of KPIs
+     * @return Mono emitting the List of KPIs
      */
-    @Retryable(retryFor = {
-            HttpServerErrorException.ServiceUnavailable.class, WebClientRequestException.class, WebClientException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 200)
-    )
     @Override
-    public List<String> retrieveKpisFromKpiManager() {
-        try {
-            JsonNode response = webClient.get()
-                    .uri(kpiManagerUrl)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .onStatus(httpStatus -> !httpStatus.is2xxSuccessful(), resp -> {
-                        log.error("Unable to retrieve KPIs from KPI Manager. Status Code: {}", resp.statusCode());
-                        return Mono.error(new WebClientRequestException("Unable to retrieve KPIs from KPI Manager"));
-                    })
-                    .bodyToMono(JsonNode.class)
-                    .cache(Duration.ofMinutes(5))
-                    .block();
-
-            return extractKpiIds(response);
-        } catch (WebClientException e) {
-            log.error("Error retrieving KPIs from KPI Manager", e);
-            throw new WebClientRequestException("Failed to retrieve KPIs: " + e.getMessage());
-        }
+    public Mono<List<String>> retrieveKpisFromKpiManager() {
+        return upstreamDataCache.get(KPI_MANAGER, this::fetchKpisFromKpiManager);
     }
 
-    // Helper method to extract dataset IDs
-    private List<String> extractDatasetIds(JsonNode response) {
-        return new ArrayList<>();
+    /**
+     * Fetch Datasets from Idra Component - Server and connection errors are retried
+     * Calls are rejected while the circuit breaker of Idra is open
+     *
+     * @return Mono emitting the List of Datasets
+     */
+    private Mono<List<String>> fetchDatasetsFromIdra() {
+        Mono<List<String>> request = webClient.get()
+                .uri(idraUrl)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, resp -> {
+                    log.error("Unable to retrieve datasets from Idra. Status Code: {}", resp.statusCode());
+                    return Mono.error(new WebClientRequestException("Unable to retrieve datasets from Idra"));
+                })
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> JsonIdExtractor.extractIds(body, idraEntriesField, maxExtractedIds))
+                .retryWhen(retryOnWebClientErrors());
+
+        return upstreamCircuitBreakers.protect(IDRA, request)
+                .onErrorMap(JsonIdExtractor::isExtractionError, e -> {
+                    log.error("Invalid datasets response from Idra", e);
+                    return new WebClientRequestException("Unable to read datasets from Idra: " + e.getMessage());
+                })
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Error retrieving datasets from Idra", e);
+                    return new WebClientRequestException("Failed to retrieve datasets: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Fetch KPIs from KPI Manager Component - Server and connection errors are retried
+     * Calls are rejected while the circuit breaker of KPI Manager is open
+     *
+     * @return Mono emitting the List of KPIs
+     */
+    private Mono<List<String>> fetchKpisFromKpiManager() {
+        Mono<List<String>> request = webClient.get()
+                .uri(kpiManagerUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, resp -> {
+                    log.error("Unable to retrieve KPIs from KPI Manager. Status Code: {}", resp.statusCode());
+                    return Mono.error(new WebClientRequestException("Unable to retrieve KPIs from KPI Manager"));
+                })
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> JsonIdExtractor.extractIds(body, kpiManagerEntriesField, maxExtractedIds))
+                .retryWhen(retryOnWebClientErrors());
+
+        return upstreamCircuitBreakers.protect(KPI_MANAGER, request)
+                .onErrorMap(JsonIdExtractor::isExtractionError, e -> {
+                    log.error("Invalid KPIs response from KPI Manager", e);
+                    return new WebClientRequestException("Unable to read KPIs from KPI Manager: " + e.getMessage());
+                })
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Error retrieving KPIs from KPI Manager", e);
+                    return new WebClientRequestException("Failed to retrieve KPIs: " + e.getMessage());
+                });
     }
 
-    // Helper method to extract KPI IDs
-    private List<String> extractKpiIds(JsonNode response) {
-        return new ArrayList<>();
+    // Helper method to retry server errors and connection failures with jittered exponential backoff, while client errors fail immediately
+    private Retry retryOnWebClientErrors() {
+        return Retry.backoff(MAX_RETRIES, RETRY_BACKOFF)
+                .jitter(RETRY_JITTER)
+                .filter(WebClientException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
     }
 }
@@ -0,0 +1,228 @@
+package gr.atc.urbreath.service;
+
+import gr.atc.urbreath.models.ImageVariant;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Generates resized and recompressed JPEG variants of NBS images using the JDK imaging libraries
+ */
+@Service
+@Slf4j
+public class ImageProcessingService {
+
+    private static final String VARIANT_FORMAT = "jpeg";
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    private final MinIOStorageService storageService;
+
+    private final List<Integer> variantWidths;
+
+    private final float variantQuality;
+
+    public ImageProcessingService(MinIOStorageService storageService,
+                                  @Value("${nbs.media.image-variant-widths}") List<Integer> variantWidths,
+                                  @Value("${nbs.media.image-variant-quality}") float variantQuality) {
+        this.storageService = storageService;
+        this.variantWidths = variantWidths.stream().sorted().toList();
+        this.variantQuality = variantQuality;
+    }
+
+    /**
+     * Generate and store the variants of multiple images concurrently - One virtual thread per image
+     * Failures are logged and only skip the variants of the corresponding image, as the original image remains usable
+     *
+     * @param images : Map of stored file name to the content of the image
+     * @param bucketName : Bucket Name
+     * @return List of generated ImageVariants
+     */
+    public List<ImageVariant> generateVariants(Map<String, InputStreamSource> images, String bucketName) {
+        List<Callable<List<ImageVariant>>> tasks = images.entrySet().stream()
+                .<Callable<List<ImageVariant>>>map(image -> () -> generateVariants(image.getKey(), image.getValue(), bucketName))
+                .toList();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.invokeAll(tasks).stream()
+                    .filter(result -> result.state() == Future.State.SUCCESS)
+                    .flatMap(result -> result.resultNow().stream())
+                    .toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    /**
+     * Generate and store the variants of an image
+     * Only variants narrower than the original image are generated
+     *
+     * @param sourceFileName : Stored file name of the original image
+     * @param image : Content of the image
+     * @param bucketName : Bucket Name
+     * @return List of generated ImageVariants - Empty if the file is not a supported image
+     */
+    public List<ImageVariant> generateVariants(String sourceFileName, InputStreamSource image, String bucketName) {
+        List<ImageVariant> variants = new ArrayList<>();
+        try (InputStream content = image.getInputStream()) {
+            DecodedImage decodedImage = decode(content);
+            if (decodedImage == null) {
+                log.warn("Unable to generate variants of {} - Unsupported image format", sourceFileName);
+                return variants;
+            }
+
+            for (int width : variantWidths) {
+                if (width >= decodedImage.originalWidth()) {
+                    break;
+                }
+
+                String fileName = generateVariantFileName(sourceFileName, width);
+                storageService.storeFile(encode(resize(decodedImage.image(), width)), fileName, VARIANT_CONTENT_TYPE, bucketName);
+                variants.add(new ImageVariant(sourceFileName, width, fileName));
+            }
+            return variants;
+        } catch (Exception e) {
+            log.error("Unable to generate variants of {} - Error: {}", sourceFileName, e.getMessage());
+            storageService.deleteFiles(variants.stream().map(ImageVariant::getFileName).toList(), bucketName);
+            return List.of();
+        }
+    }
+
+    /*
+     * Helper Methods
+     */
+
+    /**
+     * Generate the file name of an image variant
+     *
+     * @param sourceFileName : File name of the original image
+     * @param width : Width of the variant
+     * @return File Name
+     */
+    private String generateVariantFileName(String sourceFileName, int width) {
+        String baseName = StringUtils.contains(sourceFileName, '.') ? StringUtils.substringBeforeLast(sourceFileName, ".") : sourceFileName;
+        return baseName + "_w" + width + ".jpg";
+    }
+
+    /**
+     * Decode an image, subsampling it while reading when it is much larger than the widest variant
+     * Avoids allocating the full resolution raster of large photos
+     *
+     * @param content : Content of the image
+     * @return DecodedImage or null if the format is not supported
+     * @throws IOException if the image can not be read
+     */
+    private DecodedImage decode(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int originalWidth = reader.getWidth(0);
+
+                // Decoded image remains at least twice as wide as the widest variant to preserve quality when resizing
+                int subsampling = Math.max(1, originalWidth / (2 * variantWidths.getLast()));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new DecodedImage(reader.read(0, param), originalWidth);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Resize an image to the given width keeping its aspect ratio
+     * Large reductions are applied in successive halving steps, which keeps bilinear scaling free of aliasing
+     *
+     * @param image : Image to resize
+     * @param width : Target width
+     * @return Resized RGB image
+     */
+    private BufferedImage resize(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage current = image;
+        do {
+            int stepWidth = Math.max(width, current.getWidth() / 2);
+            int stepHeight = stepWidth == width ? height : Math.max(height, current.getHeight() / 2);
+            current = draw(current, stepWidth, stepHeight);
+        } while (current.getWidth() != width);
+        return current;
+    }
+
+    /**
+     * Draw an image on an opaque RGB canvas of the given dimensions - Transparent areas become white
+     *
+     * @param image : Image to draw
+     * @param width : Width of the canvas
+     * @param height : Height of the canvas
+     * @return Drawn image
+     */
+    private BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = canvas.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return canvas;
+    }
+
+    /**
+     * Encode an image as JPEG with the configured quality
+     *
+     * @param image : Image to encode
+     * @return Encoded bytes
+     * @throws IOException if encoding fails
+     */
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(VARIANT_FORMAT).next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(variantQuality);
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private record DecodedImage(BufferedImage image, int originalWidth) {
+    }
+}
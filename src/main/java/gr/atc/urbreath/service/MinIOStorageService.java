@@ -1,20 +1,121 @@
 package gr.atc.urbreath.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import gr.atc.urbreath.dto.PresignedUrlDto;
+import gr.atc.urbreath.models.MediaFile;
+import io.minio.DeleteObjectTagsArgs;
+import io.minio.GetBucketLifecycleArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectTagsArgs;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.ObjectWriteArgs;
 import io.minio.PutObjectArgs;
-import lombok.AllArgsConstructor;
+import io.minio.RemoveObjectArgs;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.SetObjectTagsArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Expiration;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import io.minio.messages.Tag;
+import io.minio.messages.Tags;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
 
 @Service
-@AllArgsConstructor
+@Slf4j
 public class MinIOStorageService {
 
+    private static final String UPLOAD_METRIC = "nbs.media.upload";
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+    private static final String NO_SUCH_LIFECYCLE_CONFIGURATION = "NoSuchLifecycleConfiguration";
+
+    // Streamed uploads are tagged as pending until an NBS references them, while pending objects expire through the bucket lifecycle
+    private static final String UPLOAD_STATUS_TAG = "upload-status";
+    private static final String PENDING_UPLOAD_STATUS = "pending";
+    private static final String PENDING_UPLOAD_EXPIRY_RULE = "expire-pending-uploads";
+
+    // Form fields of presigned POST uploads
+    private static final String POLICY_KEY = "key";
+    private static final String POLICY_CONTENT_TYPE = "Content-Type";
+    private static final String POLICY_TAGGING = "tagging";
+
     private final MinioClient minioClient;
 
+    private final String minioUrl;
+
+    private final long partSize;
+
+    private final long maxUploadSize;
+
+    private final int presignedUrlExpiryMinutes;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter uploadedBytes;
+
+    private final AtomicInteger activeUploads = new AtomicInteger();
+
+    public MinIOStorageService(MinioClient minioClient,
+                               @Value("${minio.url}") String minioUrl,
+                               @Value("${nbs.media.part-size}") DataSize partSize,
+                               @Value("${nbs.media.max-upload-size}") DataSize maxUploadSize,
+                               @Value("${nbs.media.presigned-url-expiry-minutes}") int presignedUrlExpiryMinutes,
+                               MeterRegistry meterRegistry) {
+        if (partSize.toBytes() < ObjectWriteArgs.MIN_MULTIPART_SIZE || partSize.toBytes() > ObjectWriteArgs.MAX_PART_SIZE) {
+            throw new IllegalArgumentException("MinIO part size must be between 5MB and 5GB");
+        }
+
+        this.minioClient = minioClient;
+        this.minioUrl = minioUrl;
+        this.partSize = partSize.toBytes();
+        this.maxUploadSize = maxUploadSize.toBytes();
+        this.presignedUrlExpiryMinutes = presignedUrlExpiryMinutes;
+        this.meterRegistry = meterRegistry;
+        this.uploadedBytes = Counter.builder(UPLOAD_METRIC + ".bytes")
+                .description("Bytes streamed to MinIO")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        meterRegistry.gauge(UPLOAD_METRIC + ".active", activeUploads);
+    }
+
     /**
      * Upload a file to MinIO
      *
@@ -29,23 +130,501 @@ public class MinIOStorageService {
         }
 
         try {
-            String fileName = nbsTitle + "_" + UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
+            return uploadStream(file.getInputStream(), file.getSize(), nbsTitle, file.getOriginalFilename(), file.getContentType(), bucketName);
+        } catch (IOException e) {
+            throw new RuntimeException("File upload to MinIO failed", e);
+        }
+    }
+
+    /**
+     * Stream a file to MinIO as a multipart upload without buffering it
+     * Only a single part is kept in memory at any time, while the uploaded bytes are reported through metrics
+     *
+     * @param inputStream : Content of the file
+     * @param size : Size of the file in bytes (-1 if unknown)
+     * @param nbsTitle : Title of NBS
+     * @param originalFileName : Name of the file
+     * @param contentType : Media type of the file
+     * @param bucketName : Bucket Name
+     * @return File Name
+     * @throws MaxUploadSizeExceededException if the file exceeds the maximum upload size
+     */
+    public String uploadStream(InputStream inputStream, long size, String nbsTitle, String originalFileName, String contentType, String bucketName) {
+        return uploadStream(inputStream, size, nbsTitle, originalFileName, contentType, bucketName, Map.of());
+    }
 
+    /**
+     * Stream a file to MinIO that is referenced by an NBS afterward
+     * File is tagged as pending and expires unless an NBS references it before the pending upload expiry
+     *
+     * @param inputStream : Content of the file
+     * @param size : Size of the file in bytes (-1 if unknown)
+     * @param nbsTitle : Title of NBS
+     * @param originalFileName : Name of the file
+     * @param contentType : Media type of the file
+     * @param bucketName : Bucket Name
+     * @return File Name
+     * @throws MaxUploadSizeExceededException if the file exceeds the maximum upload size
+     */
+    public String uploadPendingStream(InputStream inputStream, long size, String nbsTitle, String originalFileName, String contentType, String bucketName) {
+        return uploadStream(inputStream, size, nbsTitle, originalFileName, contentType, bucketName, Map.of(UPLOAD_STATUS_TAG, PENDING_UPLOAD_STATUS));
+    }
+
+    private String uploadStream(InputStream inputStream, long size, String nbsTitle, String originalFileName, String contentType, String bucketName, Map<String, String> tags) {
+        if (inputStream == null || StringUtils.isEmpty(bucketName)) {
+            throw new IllegalArgumentException("File or bucket name cannot be null");
+        }
+
+        if (size > maxUploadSize) {
+            throw new MaxUploadSizeExceededException(maxUploadSize);
+        }
+
+        String fileName = generateFileName(nbsTitle, originalFileName);
+        UploadInputStream uploadStream = new UploadInputStream(inputStream);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        activeUploads.incrementAndGet();
+        try {
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(fileName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
+                            .stream(uploadStream, size, partSize)
+                            .contentType(StringUtils.defaultIfEmpty(contentType, "application/octet-stream"))
+                            .tags(tags)
                             .build()
             );
 
+            outcome = "success";
+            log.debug("Uploaded file {} to MinIO - Size: {} bytes", fileName, uploadStream.bytesRead);
             return fileName;
         } catch (Exception e) {
+            if (uploadStream.limitExceeded) {
+                throw new MaxUploadSizeExceededException(maxUploadSize);
+            }
             throw new RuntimeException("File upload to MinIO failed", e);
+        } finally {
+            activeUploads.decrementAndGet();
+            sample.stop(meterRegistry.timer(UPLOAD_METRIC, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Store generated content to MinIO under the given file name
+     *
+     * @param content : Content of the file
+     * @param fileName : Name of the file
+     * @param contentType : Media type of the file
+     * @param bucketName : Bucket Name
+     */
+    public void storeFile(byte[] content, String fileName, String contentType, String bucketName) {
+        try {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .stream(new ByteArrayInputStream(content), content.length, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new FileUploadException("File upload to MinIO failed - Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Download a file from MinIO
+     *
+     * @param fileName : Name of the file
+     * @param bucketName : Bucket Name
+     * @return Content of the file - Must be closed by the caller
+     * @throws IOException if the file can not be retrieved
+     */
+    public InputStream downloadFile(String fileName, String bucketName) throws IOException {
+        return downloadFile(fileName, 0, -1, bucketName);
+    }
+
+    /**
+     * Download a byte range of a file from MinIO
+     * Only the requested range is transferred from the storage
+     *
+     * @param fileName : Name of the file
+     * @param offset : Position of the first byte
+     * @param length : Number of bytes - Negative to read until the end of the file
+     * @param bucketName : Bucket Name
+     * @return Content of the range - Must be closed by the caller
+     * @throws IOException if the file can not be retrieved
+     */
+    public InputStream downloadFile(String fileName, long offset, long length, String bucketName) throws IOException {
+        try {
+            GetObjectArgs.Builder args = GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName);
+            if (offset > 0) {
+                args.offset(offset);
+            }
+            if (length >= 0) {
+                args.length(length);
+            }
+            return minioClient.getObject(args.build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("File download from MinIO failed - Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieve the metadata of a file stored in MinIO
+     *
+     * @param fileName : Name of the file
+     * @param bucketName : Bucket Name
+     * @return MediaFile
+     * @throws ResourceNotFoundException if file does not exist
+     */
+    public MediaFile retrieveFileMetadata(String fileName, String bucketName) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .build()
+            );
+            return new MediaFile(fileName, stat.contentType(), stat.size(), stat.etag(),
+                    stat.lastModified() == null ? null : stat.lastModified().toInstant());
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                throw new ResourceNotFoundException("File: " + fileName + " not found in storage");
+            }
+            throw new FileUploadException("Unable to retrieve file from MinIO - Error: " + e.getMessage());
+        } catch (Exception e) {
+            throw new FileUploadException("Unable to retrieve file from MinIO - Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Upload multiple files to MinIO concurrently - One virtual thread per file
+     * Either all files are uploaded or none, as already uploaded files are removed if any upload fails
+     *
+     * @param files : MultiPart Files
+     * @param nbsTitle : Title of NBS
+     * @param bucketName : Bucket Name
+     * @return File Names in the order of the given files
+     * @throws FileUploadException if any of the uploads fails
+     */
+    public List<String> uploadFiles(List<MultipartFile> files, String nbsTitle, String bucketName) {
+        List<Callable<String>> uploads = files.stream()
+                .<Callable<String>>map(file -> () -> uploadFile(file, nbsTitle, bucketName))
+                .toList();
+
+        // Waits for all uploads to complete, so latency is bounded by the slowest file
+        List<Future<String>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = executor.invokeAll(uploads);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileUploadException("File upload to MinIO was interrupted");
+        }
+
+        List<String> fileNames = results.stream()
+                .filter(result -> result.state() == Future.State.SUCCESS)
+                .map(Future::resultNow)
+                .toList();
+
+        Optional<Throwable> failure = results.stream()
+                .filter(result -> result.state() != Future.State.SUCCESS)
+                .map(result -> result.state() == Future.State.FAILED ? result.exceptionNow() : new IllegalStateException("File upload was cancelled"))
+                .findFirst();
+
+        if (failure.isPresent()) {
+            deleteFiles(fileNames, bucketName);
+            if (failure.get() instanceof MaxUploadSizeExceededException maxUploadSizeExceeded) {
+                throw maxUploadSizeExceeded;
+            }
+            Throwable cause = failure.get().getCause() != null ? failure.get().getCause() : failure.get();
+            throw new FileUploadException("File upload to MinIO failed - Error: " + cause.getMessage());
+        }
+        return fileNames;
+    }
+
+    /**
+     * Delete files from MinIO
+     * Failures are logged and do not interrupt the deletion of the remaining files
+     *
+     * @param fileNames : Names of the files
+     * @param bucketName : Bucket Name
+     */
+    public void deleteFiles(List<String> fileNames, String bucketName) {
+        for (String fileName : fileNames) {
+            try {
+                minioClient.removeObject(
+                        RemoveObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(fileName)
+                                .build()
+                );
+            } catch (Exception e) {
+                log.error("Unable to delete file {} from MinIO - Error: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Generate a presigned POST policy to upload a file directly to MinIO
+     * Policy restricts the upload to the generated file name, the given content type and the maximum upload size
+     * File is tagged as pending, so it expires unless an NBS references it
+     *
+     * @param nbsTitle : Title of NBS
+     * @param originalFileName : Name of the file
+     * @param contentType : Media type of the file
+     * @param bucketName : Bucket Name
+     * @return PresignedUrlDto with the name of the file to be created and the form fields of the upload
+     */
+    public PresignedUrlDto generateUploadUrl(String nbsTitle, String originalFileName, String contentType, String bucketName) {
+        String fileName = generateFileName(nbsTitle, originalFileName);
+        ZonedDateTime expiresAt = ZonedDateTime.now().plusMinutes(presignedUrlExpiryMinutes);
+        String tagging = "<Tagging><TagSet><Tag><Key>" + UPLOAD_STATUS_TAG + "</Key><Value>" + PENDING_UPLOAD_STATUS + "</Value></Tag></TagSet></Tagging>";
+
+        PostPolicy policy = new PostPolicy(bucketName, expiresAt);
+        policy.addEqualsCondition(POLICY_KEY, fileName);
+        policy.addEqualsCondition(POLICY_CONTENT_TYPE, contentType);
+        policy.addEqualsCondition(POLICY_TAGGING, tagging);
+        policy.addContentLengthRangeCondition(1, maxUploadSize);
+
+        try {
+            // Fields of the policy must be submitted along with the file, which is sent last as 'file' field
+            Map<String, String> formData = new LinkedHashMap<>(minioClient.getPresignedPostFormData(policy));
+            formData.put(POLICY_KEY, fileName);
+            formData.put(POLICY_CONTENT_TYPE, contentType);
+            formData.put(POLICY_TAGGING, tagging);
+
+            return PresignedUrlDto.builder()
+                    .fileName(fileName)
+                    .url(StringUtils.removeEnd(minioUrl, "/") + "/" + bucketName)
+                    .method(Method.POST.name())
+                    .formData(formData)
+                    .expiresAt(expiresAt.toInstant())
+                    .build();
+        } catch (Exception e) {
+            throw new FileUploadException("Unable to generate presigned upload policy - Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generate a presigned URL to download a file directly from MinIO
+     * Existence of the file must be verified by the caller
+     *
+     * @param fileName : Name of the file
+     * @param bucketName : Bucket Name
+     * @return PresignedUrlDto
+     */
+    public PresignedUrlDto generateDownloadUrl(String fileName, String bucketName) {
+        return generatePresignedUrl(Method.GET, fileName, bucketName);
+    }
+
+    /**
+     * Check whether a file has been uploaded as pending and is not yet referenced by an NBS
+     *
+     * @param fileName : Name of the file
+     * @param bucketName : Bucket Name
+     * @return True if the file exists and is pending, False otherwise
+     */
+    public boolean isPendingUpload(String fileName, String bucketName) {
+        try {
+            Tags tags = minioClient.getObjectTags(
+                    GetObjectTagsArgs.builder()
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .build()
+            );
+            return PENDING_UPLOAD_STATUS.equals(tags.get().get(UPLOAD_STATUS_TAG));
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new FileUploadException("Unable to retrieve file from MinIO - Error: " + e.getMessage());
+        } catch (Exception e) {
+            throw new FileUploadException("Unable to retrieve file from MinIO - Error: " + e.getMessage());
         }
     }
 
+    /**
+     * Mark files as referenced by an NBS, so they are excluded from the pending upload expiry
+     *
+     * @param fileNames : Names of the files
+     * @param bucketName : Bucket Name
+     * @throws FileUploadException if any of the files can not be updated
+     */
+    public void confirmUploads(List<String> fileNames, String bucketName) {
+        for (String fileName : fileNames) {
+            try {
+                minioClient.deleteObjectTags(
+                        DeleteObjectTagsArgs.builder()
+                                .bucket(bucketName)
+                                .object(fileName)
+                                .build()
+                );
+            } catch (Exception e) {
+                throw new FileUploadException("Unable to confirm upload of file " + fileName + " - Error: " + e.getMessage());
+            }
+        }
+    }
 
+    /**
+     * Mark confirmed files as pending again, e.g. when the NBS referencing them could not be stored
+     * Failures are logged and do not interrupt the restoration of the remaining files
+     *
+     * @param fileNames : Names of the files
+     * @param bucketName : Bucket Name
+     */
+    public void restorePendingUploads(List<String> fileNames, String bucketName) {
+        for (String fileName : fileNames) {
+            try {
+                minioClient.setObjectTags(
+                        SetObjectTagsArgs.builder()
+                                .bucket(bucketName)
+                                .object(fileName)
+                                .tags(Map.of(UPLOAD_STATUS_TAG, PENDING_UPLOAD_STATUS))
+                                .build()
+                );
+            } catch (Exception e) {
+                log.error("Unable to restore pending upload of file {} - Error: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Configure the bucket lifecycle rule that removes pending uploads which were never referenced by an NBS
+     * Existing lifecycle rules of the bucket are preserved
+     *
+     * @param bucketName : Bucket Name
+     * @param expiryDays : Days after which a pending upload is removed
+     */
+    public void configurePendingUploadExpiry(String bucketName, int expiryDays) {
+        try {
+            List<LifecycleRule> rules = new ArrayList<>();
+            retrieveBucketLifecycle(bucketName).stream()
+                    .flatMap(configuration -> configuration.rules().stream())
+                    .filter(rule -> !PENDING_UPLOAD_EXPIRY_RULE.equals(rule.id()))
+                    .forEach(rules::add);
+            rules.add(new LifecycleRule(Status.ENABLED, null,
+                    new Expiration((ZonedDateTime) null, expiryDays, null),
+                    new RuleFilter(new Tag(UPLOAD_STATUS_TAG, PENDING_UPLOAD_STATUS)),
+                    PENDING_UPLOAD_EXPIRY_RULE, null, null, null));
 
+            minioClient.setBucketLifecycle(
+                    SetBucketLifecycleArgs.builder()
+                            .bucket(bucketName)
+                            .config(new LifecycleConfiguration(rules))
+                            .build()
+            );
+            log.info("Pending uploads of bucket {} expire after {} days", bucketName, expiryDays);
+        } catch (Exception e) {
+            throw new FileUploadException("Unable to configure the lifecycle of bucket " + bucketName + " - Error: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Helper Methods
+     */
+
+    /**
+     * Retrieve the lifecycle configuration of a bucket
+     *
+     * @param bucketName : Bucket Name
+     * @return LifecycleConfiguration or empty if the bucket has no lifecycle rules
+     */
+    private Optional<LifecycleConfiguration> retrieveBucketLifecycle(String bucketName) throws Exception {
+        try {
+            return Optional.ofNullable(minioClient.getBucketLifecycle(GetBucketLifecycleArgs.builder().bucket(bucketName).build()));
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_LIFECYCLE_CONFIGURATION.equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Generate a unique name for an NBS file
+     *
+     * @param nbsTitle : Title of NBS
+     * @param originalFileName : Name of the file
+     * @return File Name
+     */
+    private String generateFileName(String nbsTitle, String originalFileName) {
+        return nbsTitle + "_" + UUID.randomUUID().toString() + "_" + originalFileName;
+    }
+
+    /**
+     * Generate a presigned URL for a file
+     *
+     * @param method : HTTP method allowed by the URL
+     * @param fileName : Name of the file
+     * @param bucketName : Bucket Name
+     * @return PresignedUrlDto
+     */
+    private PresignedUrlDto generatePresignedUrl(Method method, String fileName, String bucketName) {
+        try {
+            String url = minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .expiry(presignedUrlExpiryMinutes, TimeUnit.MINUTES)
+                            .build()
+            );
+
+            return PresignedUrlDto.builder()
+                    .fileName(fileName)
+                    .url(url)
+                    .method(method.name())
+                    .expiresAt(Instant.now().plus(presignedUrlExpiryMinutes, ChronoUnit.MINUTES))
+                    .build();
+        } catch (Exception e) {
+            throw new FileUploadException("Unable to generate presigned URL - Error: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Input stream that counts the uploaded bytes and stops reading once the maximum upload size is exceeded
+     * Required when the size of the upload is not known in advance
+     */
+    private class UploadInputStream extends FilterInputStream {
+
+        private long bytesRead;
+
+        private boolean limitExceeded;
+
+        UploadInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int data = super.read();
+            if (data != -1) {
+                onRead(1);
+            }
+            return data;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                onRead(count);
+            }
+            return count;
+        }
+
+        private void onRead(int count) throws IOException {
+            bytesRead += count;
+            uploadedBytes.increment(count);
+            if (bytesRead > maxUploadSize) {
+                limitExceeded = true;
+                throw new IOException("Maximum upload size of " + maxUploadSize + " bytes exceeded");
+            }
+        }
+    }
 }
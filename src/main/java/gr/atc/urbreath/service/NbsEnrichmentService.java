@@ -0,0 +1,98 @@
+package gr.atc.urbreath.service;
+
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsDetailsDto;
+import gr.atc.urbreath.enums.NbsExpansion;
+import gr.atc.urbreath.service.interfaces.IDataCollectorService;
+import gr.atc.urbreath.service.interfaces.INbsEnrichmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class NbsEnrichmentService implements INbsEnrichmentService {
+
+    // Expansion that was not requested - Omitted from the response
+    private static final Expansion SKIPPED = new Expansion(null, true);
+
+    private final IDataCollectorService dataCollectorService;
+
+    private final Duration idraTimeout;
+
+    private final Duration kpiManagerTimeout;
+
+    public NbsEnrichmentService(IDataCollectorService dataCollectorService,
+                                @Value("${nbs.expand.idra-timeout}") Duration idraTimeout,
+                                @Value("${nbs.expand.kpi-manager-timeout}") Duration kpiManagerTimeout) {
+        this.dataCollectorService = dataCollectorService;
+        this.idraTimeout = idraTimeout;
+        this.kpiManagerTimeout = kpiManagerTimeout;
+    }
+
+    /**
+     * Expand the external references of an NBS with the data of Idra and KPI Manager
+     * Upstreams are queried concurrently, and an upstream that fails or exceeds its timeout is reported as unavailable instead of failing the request
+     *
+     * @param nbs : NBS Information
+     * @param expansions : References to expand
+     * @return Mono emitting the NBS details
+     */
+    @Override
+    public Mono<NbsDetailsDto> expandNbs(NbsDataDto nbs, Set<NbsExpansion> expansions) {
+        Mono<Expansion> datasets = expansions.contains(NbsExpansion.DATASETS)
+                ? resolve(nbs.getIdraDatasets(), dataCollectorService::retrieveDatasetsFromIdra, idraTimeout, NbsExpansion.DATASETS)
+                : Mono.just(SKIPPED);
+        Mono<Expansion> kpis = expansions.contains(NbsExpansion.KPIS)
+                ? resolve(nbs.getKpis(), dataCollectorService::retrieveKpisFromKpiManager, kpiManagerTimeout, NbsExpansion.KPIS)
+                : Mono.just(SKIPPED);
+
+        return Mono.zip(datasets, kpis)
+                .map(results -> {
+                    List<NbsExpansion> unavailableExpansions = new ArrayList<>();
+                    if (!results.getT1().available()) {
+                        unavailableExpansions.add(NbsExpansion.DATASETS);
+                    }
+                    if (!results.getT2().available()) {
+                        unavailableExpansions.add(NbsExpansion.KPIS);
+                    }
+
+                    return NbsDetailsDto.builder()
+                            .nbs(nbs)
+                            .resolvedIdraDatasets(results.getT1().resolved())
+                            .resolvedKpis(results.getT2().resolved())
+                            .unavailableExpansions(unavailableExpansions.isEmpty() ? null : unavailableExpansions)
+                            .build();
+                });
+    }
+
+    /*
+     * Resolves the referenced IDs against the data of an upstream - Upstream is not queried if nothing is referenced
+     */
+    private Mono<Expansion> resolve(List<String> references, Supplier<Mono<List<String>>> upstream, Duration timeout, NbsExpansion expansion) {
+        if (references == null || references.isEmpty()) {
+            return Mono.just(new Expansion(List.of(), true));
+        }
+
+        return upstream.get()
+                .timeout(timeout)
+                .map(upstreamIds -> {
+                    Set<String> knownIds = new HashSet<>(upstreamIds);
+                    return new Expansion(references.stream().filter(knownIds::contains).toList(), true);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Unable to expand {} of NBS - Error: {}", expansion, e.getMessage());
+                    return Mono.just(new Expansion(null, false));
+                });
+    }
+
+    private record Expansion(List<String> resolved, boolean available) {}
+}
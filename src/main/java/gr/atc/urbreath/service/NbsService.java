@@ -1,21 +1,60 @@
 package gr.atc.urbreath.service;
 
+import gr.atc.urbreath.cache.NbsDataCache;
 import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.ImageVariantDto;
 import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsClusterDto;
 import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsFilterResultDto;
+import gr.atc.urbreath.dto.NbsMediaDto;
+import gr.atc.urbreath.dto.PresignedUrlDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.ExportFormat;
+import gr.atc.urbreath.events.NbsChangedEvent;
+import gr.atc.urbreath.models.ImageVariant;
+import gr.atc.urbreath.models.MediaFile;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsFacetResult;
+import gr.atc.urbreath.models.NbsFacetResult.FacetCount;
+import gr.atc.urbreath.models.NbsFilter;
 import gr.atc.urbreath.repository.NbsRepository;
 import gr.atc.urbreath.service.interfaces.INbsService;
+import gr.atc.urbreath.mapper.interfaces.INbsMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.MappingException;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static gr.atc.urbreath.exception.CustomExceptions.*;
 
@@ -23,20 +62,37 @@ import static gr.atc.urbreath.exception.CustomExceptions.*;
 @Slf4j
 public class NbsService implements INbsService {
 
+    // Number of grid cells per map tile axis - Determines how coarse the clustering is at every zoom level
+    private static final int CLUSTER_CELLS_PER_TILE = 4;
+
+    // Top-level media types accepted by presigned uploads
+    private static final Set<String> MEDIA_UPLOAD_TYPES = Set.of("image", "video");
+
     @Value("${minio.bucket}")
     private String minioBucket;
 
-    // Common Strings
-    private static final String MAPPING_ERROR = "Unable to map Nbs object to DTO - Error: ";
-
     private final NbsRepository nbsRepository;
 
-    private final ModelMapper modelMapper;
+    private final INbsMapper nbsMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final NbsDataCache nbsDataCache;
 
+    private final ApplicationEventPublisher eventPublisher;
 
-    public NbsService(NbsRepository nbsRepository, ModelMapper modelMapper) {
+    private final MinIOStorageService storageService;
+
+    private final ImageProcessingService imageProcessingService;
+
+    public NbsService(NbsRepository nbsRepository, INbsMapper nbsMapper, ObjectMapper objectMapper, NbsDataCache nbsDataCache, ApplicationEventPublisher eventPublisher, MinIOStorageService storageService, ImageProcessingService imageProcessingService) {
         this.nbsRepository = nbsRepository;
-        this.modelMapper = modelMapper;
+        this.nbsMapper = nbsMapper;
+        this.objectMapper = objectMapper;
+        this.nbsDataCache = nbsDataCache;
+        this.eventPublisher = eventPublisher;
+        this.storageService = storageService;
+        this.imageProcessingService = imageProcessingService;
     }
 
     /*
@@ -45,50 +101,177 @@ public class NbsService implements INbsService {
 
     /**
      * Retrieve NBS by Id
+     * Results are served from the NBS cache if present
      *
      * @param nbsId : ID of NBS
      * @return NbsDto if exists
      */
     public NbsDataDto retrieveNbsById(String nbsId){
-        try{
-            return nbsRepository.findById(nbsId)
-                    .map(nbs -> modelMapper.map(nbs, NbsDataDto.class))
-                    .orElseThrow(() -> new ResourceNotFoundException("NBS with id: " + nbsId + " not found in DB"));
-        } catch (MappingException e){
-            throw new DataMappingException(MAPPING_ERROR + e.getMessage());
-        }
+        return nbsDataCache.getById(nbsId, id -> nbsRepository.findById(id)
+                .map(nbsMapper::toNbsDataDto)
+                .orElseThrow(() -> new ResourceNotFoundException("NBS with id: " + id + " not found in DB")));
     }
 
     /**
      * Retrieve NBS by Title
+     * Results are served from the NBS cache if present
      *
      * @param nbsTitle : Name of NBS
      * @return NbsDto if exists
      */
     public NbsDataDto retrieveNbsByTitle(String nbsTitle){
-        try{
-            return nbsRepository.findByTitle(nbsTitle)
-                    .map(nbs -> modelMapper.map(nbs, NbsDataDto.class))
-                    .orElseThrow(() -> new ResourceNotFoundException("NBS with title: " + nbsTitle + " not found in DB"));
-        } catch (MappingException e){
-            throw new DataMappingException(MAPPING_ERROR + e.getMessage());
-        }
+        return nbsDataCache.getByTitle(nbsTitle, title -> nbsRepository.findByTitle(title)
+                .map(nbsMapper::toNbsDataDto)
+                .orElseThrow(() -> new ResourceNotFoundException("NBS with title: " + title + " not found in DB")));
     }
 
     /**
      * Return the List of Geolocations for all NBS
+     * Only the ID and Geolocation of each NBS are fetched and streamed through a DB cursor
      *
      * @return List of Geolocations
      */
     @Override
     public List<GeoLocationDto> retrieveAllNbsGeolocations() {
-        try{
-            return nbsRepository.findAll()
-                    .stream()
-                    .map(nbs -> modelMapper.map(nbs.getGeoLocation(), GeoLocationDto.class))
+        try (Stream<Nbs> nbsGeolocations = nbsRepository.streamNbsGeolocations()) {
+            return nbsGeolocations
+                    .map(nbs -> {
+                        GeoLocationDto geoLocation = nbsMapper.toGeoLocationDto(nbs.getGeoLocation());
+                        geoLocation.setNbsId(nbs.getId());
+                        return geoLocation;
+                    })
                     .toList();
-        } catch (MappingException e){
-            throw new DataMappingException("Unable to map GeoLocation object to DTO - Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Search NBS using full-text search on their descriptions
+     *
+     * @param text : Search terms
+     * @param pageable : Pagination parameters
+     * @return Page of NbsRecords ranked by relevance
+     */
+    @Override
+    public Page<NbsDataDto> searchNbsBriefData(String text, Pageable pageable) {
+        return nbsRepository.searchNbsBriefData(text, pageable)
+                .map(nbsMapper::toNbsDataDto);
+    }
+
+    /**
+     * Filter NBS by combined criteria and count the NBS per value of every facet
+     *
+     * @param filter : Combined filters
+     * @param pageable : Pagination parameters
+     * @return NbsFilterResultDto with the requested page and the facet counts
+     */
+    @Override
+    public NbsFilterResultDto filterNbsBriefData(NbsFilter filter, Pageable pageable) {
+        NbsFacetResult facetResult = nbsRepository.filterNbsBriefDataWithFacets(filter, pageable);
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        // Climate zones are stored by name, while NBS records expose their display value
+        facets.put("climateZone", toFacetCounts(facetResult.getClimateZone(), value -> Objects.toString(ClimateZone.fromString(value), value)));
+        facets.put("status", toFacetCounts(facetResult.getStatus(), Function.identity()));
+        facets.put("pilot", toFacetCounts(facetResult.getPilot(), Function.identity()));
+        facets.put("isUrBreathNbs", toFacetCounts(facetResult.getIsUrBreathNbs(), Function.identity()));
+        facets.put("keywords", toFacetCounts(facetResult.getKeywords(), Function.identity()));
+        facets.put("problems", toFacetCounts(facetResult.getProblems(), Function.identity()));
+
+        return NbsFilterResultDto.builder()
+                .results(facetResult.getResults().stream().map(nbsMapper::toNbsDataDto).toList())
+                .totalElements(facetResult.getTotal().isEmpty() ? 0 : facetResult.getTotal().getFirst().getCount())
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * Retrieve NBS located within a radius from a point, sorted by distance
+     *
+     * @param latitude : Latitude of the center
+     * @param longitude : Longitude of the center
+     * @param radiusKm : Radius in kilometers
+     * @param pageable : Pagination parameters
+     * @return Page of NbsDataDto
+     */
+    @Override
+    public Page<NbsDataDto> retrieveNbsBriefDataNear(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        return nbsRepository.findNbsBriefDataNear(latitude, longitude, radiusKm * 1000, pageable)
+                .map(nbsMapper::toNbsDataDto);
+    }
+
+    /**
+     * Retrieve NBS located within a bounding box
+     *
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @param pageable : Pagination parameters
+     * @return Page of NbsDataDto
+     */
+    @Override
+    public Page<NbsDataDto> retrieveNbsBriefDataWithinBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude, Pageable pageable) {
+        return nbsRepository.findNbsBriefDataWithinBox(minLongitude, minLatitude, maxLongitude, maxLatitude, pageable)
+                .map(nbsMapper::toNbsDataDto);
+    }
+
+    /**
+     * Retrieve NBS locations clustered in grid cells for a zoom level
+     * The grid follows the Web Mercator map tiles of the zoom level, so that each tile is split in a fixed number of cells per axis
+     *
+     * @param zoom : Zoom level of the map
+     * @param minLongitude : West boundary
+     * @param minLatitude : South boundary
+     * @param maxLongitude : East boundary
+     * @param maxLatitude : North boundary
+     * @return List of NbsClusterDto
+     */
+    @Override
+    public List<NbsClusterDto> retrieveNbsClusters(int zoom, double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+        int gridSize = (1 << zoom) * CLUSTER_CELLS_PER_TILE;
+        return nbsRepository.clusterNbsLocations(gridSize, minLongitude, minLatitude, maxLongitude, maxLatitude)
+                .stream()
+                .map(cluster -> NbsClusterDto.builder()
+                        .latitude(cluster.getLatitude())
+                        .longitude(cluster.getLongitude())
+                        .count(cluster.getCount())
+                        .nbsId(cluster.getCount() == 1 ? cluster.getNbsId() : null)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Export all NBS records to the given output stream
+     * Records are read through a DB cursor and written one by one, so memory usage does not depend on the registry size
+     * The generator is flushed only when its buffer is full, so the records are sent in chunks instead of one write per record
+     *
+     * @param outputStream : Output stream of the response
+     * @param format : NDJSON (one record per line) or JSON (single array)
+     * @throws IOException if writing to the output stream fails
+     */
+    @Override
+    public void exportAllNbs(OutputStream outputStream, ExportFormat format) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Nbs> nbsStream = nbsRepository.streamAllNbs();
+             JsonGenerator generator = writer.createGenerator(outputStream)) {
+            // Output stream is managed by the caller
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            if (format == ExportFormat.JSON) {
+                generator.writeStartArray();
+            }
+
+            for (Nbs nbs : (Iterable<Nbs>) nbsStream::iterator) {
+                writer.writeValue(generator, nbsMapper.toNbsDataDto(nbs));
+                if (format == ExportFormat.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            }
         }
     }
 
@@ -99,12 +282,8 @@ public class NbsService implements INbsService {
      * @return Page of NbsRecords
      */
     public Page<NbsDataDto> retrieveAllNbsBriefData(Pageable pageable){
-        try{
-            return nbsRepository.findNbsBriefData(pageable)
-                    .map(nbs -> modelMapper.map(nbs, NbsDataDto.class));
-        } catch (MappingException e){
-            throw new DataMappingException(MAPPING_ERROR + e.getMessage());
-        }
+        return nbsRepository.findNbsBriefData(pageable)
+                .map(nbsMapper::toNbsDataDto);
     }
 
     /**
@@ -115,16 +294,300 @@ public class NbsService implements INbsService {
      * @return Page of NbsRecords
      */
     public Page<NbsDataDto> retrieveAllNbsBriefDataByClimateZone(ClimateZone climateZone, Pageable pageable){
-        try{
-            return nbsRepository.findNbsBriefDataByClimateZone(climateZone, pageable)
-                    .map(nbs -> modelMapper.map(nbs, NbsDataDto.class));
-        } catch (MappingException e){
-            throw new DataMappingException(MAPPING_ERROR + e.getMessage());
-        }
+        return nbsRepository.findNbsBriefDataByClimateZone(climateZone, pageable)
+                .map(nbsMapper::toNbsDataDto);
     }
 
+    /**
+     * Retrieve all NBS using keyset pagination
+     *
+     * @param position : Position of the last record of the previous page
+     * @param direction : Direction of Sorting on creation date
+     * @param size : Size of returned elements
+     * @return Window of NbsRecords
+     */
+    @Override
+    public Window<NbsDataDto> retrieveAllNbsBriefData(KeysetScrollPosition position, Sort.Direction direction, int size){
+        return retrieveAllNbsBriefDataByClimateZone(null, position, direction, size);
+    }
+
+    /**
+     * Retrieve NBS per Climate Zone using keyset pagination
+     *
+     * @param climateZone : Climate Zone - If null all NBS are retrieved
+     * @param position : Position of the last record of the previous page
+     * @param direction : Direction of Sorting on creation date
+     * @param size : Size of returned elements
+     * @return Window of NbsRecords
+     */
+    @Override
+    public Window<NbsDataDto> retrieveAllNbsBriefDataByClimateZone(ClimateZone climateZone, KeysetScrollPosition position, Sort.Direction direction, int size){
+        return nbsRepository.scrollNbsBriefData(climateZone, position, direction, size)
+                .map(nbsMapper::toNbsDataDto);
+    }
+
+    /**
+     * Count the NBS records
+     *
+     * @param climateZone : Climate Zone - If null all NBS are counted
+     * @return Number of NBS
+     */
+    @Override
+    public long countNbs(ClimateZone climateZone){
+        return climateZone == null ? nbsRepository.count() : nbsRepository.countByClimateZone(climateZone);
+    }
+
+    /**
+     * Create a new NBS along with its media files
+     * Files are uploaded to MinIO concurrently and the NBS is stored only if all uploads succeed
+     * Resized variants of the main image and the images are generated before storing the NBS
+     *
+     * @param nbsData : NBS information and media files
+     * @return ID of the created NBS
+     * @throws ResourceAlreadyExistsException if an NBS with the same title exists
+     * @throws InvalidRequestParameterException if any of the uploaded videos has not been streamed through the media upload
+     * @throws FileUploadException if any of the files can not be uploaded
+     */
     @Override
     public String createNbs(NbsCreationDataDto nbsData) {
-        return "";
+        if (nbsRepository.existsByTitle(nbsData.getTitle())) {
+            throw new ResourceAlreadyExistsException("NBS with title: " + nbsData.getTitle() + " already exists in DB");
+        }
+
+        // Only pending uploads of the media upload can be referenced, so arbitrary objects of the bucket can not be attached
+        List<String> uploadedVideos = Objects.requireNonNullElse(nbsData.getUploadedVideos(), List.of());
+        uploadedVideos.stream()
+                .filter(fileName -> !storageService.isPendingUpload(fileName, minioBucket))
+                .findFirst()
+                .ifPresent(fileName -> {
+                    throw new InvalidRequestParameterException("File: " + fileName + " has not been uploaded");
+                });
+
+        // Main image, images and videos are uploaded as a single batch and split afterward in the same order
+        List<MultipartFile> images = Objects.requireNonNullElse(nbsData.getImages(), List.of());
+        List<MultipartFile> videos = Objects.requireNonNullElse(nbsData.getVideos(), List.of());
+        List<MultipartFile> files = new ArrayList<>();
+        if (nbsData.getMainImage() != null) {
+            files.add(nbsData.getMainImage());
+        }
+        files.addAll(images);
+        files.addAll(videos);
+
+        List<String> fileNames = storageService.uploadFiles(files, nbsData.getTitle(), minioBucket);
+        int imagesOffset = nbsData.getMainImage() != null ? 1 : 0;
+        int videosOffset = imagesOffset + images.size();
+
+        Nbs nbs = nbsMapper.toNbs(nbsData);
+        nbs.setMainImage(imagesOffset == 1 ? fileNames.getFirst() : null);
+        nbs.setImages(List.copyOf(fileNames.subList(imagesOffset, videosOffset)));
+        List<String> videoFiles = new ArrayList<>(fileNames.subList(videosOffset, fileNames.size()));
+        videoFiles.addAll(uploadedVideos);
+        nbs.setVideos(videoFiles);
+        if (nbs.getDateCreated() == null) {
+            nbs.setDateCreated(new Date());
+        }
+
+        // Resized variants are generated from the uploaded parts, so originals are not downloaded again
+        Map<String, InputStreamSource> imageSources = new LinkedHashMap<>();
+        if (nbs.getMainImage() != null) {
+            imageSources.put(nbs.getMainImage(), nbsData.getMainImage());
+        }
+        for (int i = 0; i < images.size(); i++) {
+            imageSources.put(nbs.getImages().get(i), images.get(i));
+        }
+        nbs.setImageVariants(imageProcessingService.generateVariants(imageSources, minioBucket));
+
+        // Referenced uploads no longer expire
+        storageService.confirmUploads(uploadedVideos, minioBucket);
+
+        Nbs savedNbs;
+        try {
+            savedNbs = nbsRepository.save(nbs);
+        } catch (DataAccessException e) {
+            // Uploaded files would be orphaned without the NBS record, while referenced uploads expire again
+            storageService.deleteFiles(fileNames, minioBucket);
+            storageService.deleteFiles(nbs.getImageVariants().stream().map(ImageVariant::getFileName).toList(), minioBucket);
+            storageService.restorePendingUploads(uploadedVideos, minioBucket);
+            if (e instanceof DuplicateKeyException) {
+                throw new ResourceAlreadyExistsException("NBS with title: " + nbsData.getTitle() + " already exists in DB");
+            }
+            throw e;
+        }
+
+        // Cached entries of the NBS are evicted on creation or update
+        eventPublisher.publishEvent(new NbsChangedEvent(savedNbs.getId(), savedNbs.getTitle()));
+        return savedNbs.getId();
+    }
+
+    /**
+     * Stream a media file of an NBS to MinIO without buffering it
+     * Used for large files (e.g. videos) that are referenced afterward on NBS creation
+     * File is stored as pending upload and removed by the storage if it is never referenced
+     *
+     * @param nbsTitle : Title of NBS
+     * @param fileName : Name of the file
+     * @param contentType : Media type of the file
+     * @param size : Size of the file in bytes (-1 if unknown)
+     * @param content : Content of the file
+     * @return Name of the stored file
+     */
+    @Override
+    public String uploadNbsMedia(String nbsTitle, String fileName, String contentType, long size, InputStream content) {
+        return storageService.uploadPendingStream(content, size, nbsTitle, fileName, contentType, minioBucket);
+    }
+
+    /**
+     * Generate a presigned POST policy to upload a media file of an NBS directly to the storage
+     * Only images and videos up to the maximum upload size are accepted by the storage
+     *
+     * @param nbsTitle : Title of NBS
+     * @param fileName : Name of the file
+     * @param contentType : Media type of the file
+     * @return PresignedUrlDto with the name of the file to be attached to the NBS
+     * @throws InvalidRequestParameterException if the content type is not an image or video type
+     */
+    @Override
+    public PresignedUrlDto generateNbsMediaUploadUrl(String nbsTitle, String fileName, String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            throw new InvalidRequestParameterException("Invalid content type: " + contentType);
+        }
+        if (mediaType.isWildcardSubtype() || !MEDIA_UPLOAD_TYPES.contains(mediaType.getType())) {
+            throw new InvalidRequestParameterException("Only image and video files can be uploaded - Content type: " + contentType);
+        }
+        return storageService.generateUploadUrl(nbsTitle, fileName, mediaType.toString(), minioBucket);
+    }
+
+    /**
+     * Generate a presigned URL to download a media file of an NBS directly from the storage
+     *
+     * @param nbsId : ID of NBS
+     * @param fileName : Name of the file
+     * @return PresignedUrlDto
+     * @throws ResourceNotFoundException if the NBS does not exist or the file does not belong to it
+     */
+    @Override
+    public PresignedUrlDto generateNbsMediaDownloadUrl(String nbsId, String fileName) {
+        MediaFile mediaFile = retrieveNbsMediaFile(nbsId, fileName);
+        return storageService.generateDownloadUrl(mediaFile.getFileName(), minioBucket);
+    }
+
+    /**
+     * Attach media files uploaded through presigned URLs to an NBS
+     * Resized variants of the attached images are generated from the stored files
+     * Variants of a replaced main image are removed along with their files
+     *
+     * @param nbsId : ID of NBS
+     * @param media : Names of the uploaded files
+     * @return Updated NbsDataDto
+     * @throws InvalidRequestParameterException if any of the files has not been uploaded or is already referenced
+     * @throws ResourceNotFoundException if NBS does not exist
+     */
+    @Override
+    public NbsDataDto attachNbsMedia(String nbsId, NbsMediaDto media) {
+        // Checked before any variant is generated, so no files are stored for a non-existent NBS
+        Nbs existingNbs = nbsRepository.findById(nbsId)
+                .orElseThrow(() -> new ResourceNotFoundException("NBS with id: " + nbsId + " not found in DB"));
+
+        List<String> images = Objects.requireNonNullElse(media.getImages(), List.of());
+        List<String> videos = Objects.requireNonNullElse(media.getVideos(), List.of());
+
+        List<String> attachedFiles = Stream.concat(Stream.ofNullable(media.getMainImage()), Stream.concat(images.stream(), videos.stream())).toList();
+        // Only pending uploads can be attached, so files of other NBS (and their variants) can not be referenced
+        attachedFiles.stream()
+                .filter(fileName -> !storageService.isPendingUpload(fileName, minioBucket))
+                .findFirst()
+                .ifPresent(fileName -> {
+                    throw new InvalidRequestParameterException("File: " + fileName + " has not been uploaded");
+                });
+
+        Map<String, InputStreamSource> imageSources = new LinkedHashMap<>();
+        Stream.concat(Stream.ofNullable(media.getMainImage()), images.stream())
+                .forEach(fileName -> imageSources.put(fileName, () -> storageService.downloadFile(fileName, minioBucket)));
+        List<ImageVariant> imageVariants = imageProcessingService.generateVariants(imageSources, minioBucket);
+
+        // Attached files uploaded as pending no longer expire
+        storageService.confirmUploads(attachedFiles, minioBucket);
+
+        Nbs nbs = nbsRepository.attachNbsMedia(nbsId, media.getMainImage(), images, videos, imageVariants);
+        if (nbs == null) {
+            storageService.deleteFiles(imageVariants.stream().map(ImageVariant::getFileName).toList(), minioBucket);
+            storageService.restorePendingUploads(attachedFiles, minioBucket);
+            throw new ResourceNotFoundException("NBS with id: " + nbsId + " not found in DB");
+        }
+
+        // Variant files no longer referenced by the NBS (e.g. of a replaced main image) are removed - Regenerated variants keep their file names
+        Set<String> referencedVariants = Stream.ofNullable(nbs.getImageVariants()).flatMap(List::stream)
+                .map(ImageVariant::getFileName)
+                .collect(Collectors.toSet());
+        List<String> replacedVariants = Stream.ofNullable(existingNbs.getImageVariants()).flatMap(List::stream)
+                .map(ImageVariant::getFileName)
+                .filter(fileName -> !referencedVariants.contains(fileName))
+                .toList();
+        if (!replacedVariants.isEmpty()) {
+            storageService.deleteFiles(replacedVariants, minioBucket);
+        }
+
+        // Cached entries of the NBS are evicted on creation or update
+        eventPublisher.publishEvent(new NbsChangedEvent(nbs.getId(), nbs.getTitle()));
+        return nbsMapper.toNbsDataDto(nbs);
+    }
+
+    /**
+     * Retrieve the metadata of a media file of an NBS
+     * Only files that belong to the NBS can be served
+     *
+     * @param nbsId : ID of NBS
+     * @param fileName : Name of the file
+     * @return MediaFile
+     * @throws ResourceNotFoundException if NBS or file do not exist
+     */
+    @Override
+    public MediaFile retrieveNbsMediaFile(String nbsId, String fileName) {
+        NbsDataDto nbs = retrieveNbsById(nbsId);
+        boolean belongsToNbs = Stream.of(Stream.ofNullable(nbs.getMainImage()),
+                        Stream.ofNullable(nbs.getImages()).flatMap(List::stream),
+                        Stream.ofNullable(nbs.getVideos()).flatMap(List::stream),
+                        Stream.ofNullable(nbs.getImageVariants()).flatMap(List::stream).map(ImageVariantDto::getFileName))
+                .flatMap(Function.identity())
+                .anyMatch(fileName::equals);
+        if (!belongsToNbs) {
+            throw new ResourceNotFoundException("File: " + fileName + " not found for NBS with id: " + nbsId);
+        }
+
+        return storageService.retrieveFileMetadata(fileName, minioBucket);
+    }
+
+    /**
+     * Download a byte range of a media file of an NBS
+     *
+     * @param fileName : Name of the file
+     * @param offset : Position of the first byte
+     * @param length : Number of bytes
+     * @return Content of the range - Must be closed by the caller
+     * @throws IOException if the file can not be retrieved
+     */
+    @Override
+    public InputStream downloadNbsMedia(String fileName, long offset, long length) throws IOException {
+        return storageService.downloadFile(fileName, offset, length, minioBucket);
+    }
+
+    /*
+     * Helper Methods
+     */
+
+    /**
+     * Convert the facet counts of an aggregation to an ordered map, skipping records without value
+     *
+     * @param facetCounts : Counts of facet values sorted by count
+     * @param valueMapper : Function converting a stored value to the value exposed in the responses
+     * @return Map of facet value to count
+     */
+    private Map<String, Long> toFacetCounts(List<FacetCount> facetCounts, Function<String, String> valueMapper) {
+        return facetCounts.stream()
+                .filter(facetCount -> Objects.nonNull(facetCount.getValue()))
+                .collect(Collectors.toMap(facetCount -> valueMapper.apply(String.valueOf(facetCount.getValue())), FacetCount::getCount, (first, second) -> first, LinkedHashMap::new));
     }
 }
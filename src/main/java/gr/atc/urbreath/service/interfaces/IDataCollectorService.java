@@ -2,9 +2,11 @@ package gr.atc.urbreath.service.interfaces;
 
 import java.util.List;
 
+import reactor.core.publisher.Mono;
+
 public interface IDataCollectorService {
 
-    List<String> retrieveDatasetsFromIdra();
+    Mono<List<String>> retrieveDatasetsFromIdra();
 
-    List<String> retrieveKpisFromKpiManager();
+    Mono<List<String>> retrieveKpisFromKpiManager();
 }
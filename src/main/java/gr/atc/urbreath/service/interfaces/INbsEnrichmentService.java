@@ -0,0 +1,13 @@
+package gr.atc.urbreath.service.interfaces;
+
+import java.util.Set;
+
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsDetailsDto;
+import gr.atc.urbreath.enums.NbsExpansion;
+import reactor.core.publisher.Mono;
+
+public interface INbsEnrichmentService {
+
+    Mono<NbsDetailsDto> expandNbs(NbsDataDto nbs, Set<NbsExpansion> expansions);
+}
@@ -2,11 +2,24 @@ package gr.atc.urbreath.service.interfaces;
 
 import gr.atc.urbreath.dto.GeoLocationDto;
 import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsClusterDto;
 import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsFilterResultDto;
+import gr.atc.urbreath.dto.NbsMediaDto;
+import gr.atc.urbreath.dto.PresignedUrlDto;
 import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.ExportFormat;
+import gr.atc.urbreath.models.MediaFile;
+import gr.atc.urbreath.models.NbsFilter;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface INbsService {
@@ -20,8 +33,38 @@ public interface INbsService {
 
     Page<NbsDataDto> retrieveAllNbsBriefDataByClimateZone(ClimateZone climateZone, Pageable pageable);
 
+    Window<NbsDataDto> retrieveAllNbsBriefData(KeysetScrollPosition position, Sort.Direction direction, int size);
+
+    Window<NbsDataDto> retrieveAllNbsBriefDataByClimateZone(ClimateZone climateZone, KeysetScrollPosition position, Sort.Direction direction, int size);
+
+    long countNbs(ClimateZone climateZone);
+
+    Page<NbsDataDto> searchNbsBriefData(String text, Pageable pageable);
+
+    NbsFilterResultDto filterNbsBriefData(NbsFilter filter, Pageable pageable);
+
     List<GeoLocationDto> retrieveAllNbsGeolocations();
 
+    Page<NbsDataDto> retrieveNbsBriefDataNear(double latitude, double longitude, double radiusKm, Pageable pageable);
+
+    Page<NbsDataDto> retrieveNbsBriefDataWithinBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude, Pageable pageable);
+
+    List<NbsClusterDto> retrieveNbsClusters(int zoom, double minLongitude, double minLatitude, double maxLongitude, double maxLatitude);
+
+    void exportAllNbs(OutputStream outputStream, ExportFormat format) throws IOException;
+
     // Manage Methods
     String createNbs(NbsCreationDataDto nbsData);
+
+    String uploadNbsMedia(String nbsTitle, String fileName, String contentType, long size, InputStream content);
+
+    PresignedUrlDto generateNbsMediaUploadUrl(String nbsTitle, String fileName, String contentType);
+
+    PresignedUrlDto generateNbsMediaDownloadUrl(String nbsId, String fileName);
+
+    NbsDataDto attachNbsMedia(String nbsId, NbsMediaDto media);
+
+    MediaFile retrieveNbsMediaFile(String nbsId, String fileName);
+
+    InputStream downloadNbsMedia(String fileName, long offset, long length) throws IOException;
 }
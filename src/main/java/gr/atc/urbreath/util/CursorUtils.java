@@ -0,0 +1,84 @@
+package gr.atc.urbreath.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+/*
+ * Utility class to convert keyset scroll positions on (dateCreated, _id) to opaque cursors and back
+ */
+public class CursorUtils {
+    public static final String DATE_CREATED_KEY = "dateCreated";
+    public static final String ID_KEY = "_id";
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid pagination cursor provided";
+
+    private CursorUtils() {}
+
+    /**
+     * Util to generate the keyset position of an NBS record
+     *
+     * @param dateCreated : Creation date of the record
+     * @param id : ID of the record
+     * @return KeysetScrollPosition
+     */
+    public static KeysetScrollPosition toScrollPosition(Date dateCreated, String id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(DATE_CREATED_KEY, dateCreated);
+        keys.put(ID_KEY, id);
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Util to encode a keyset position into an opaque URL-safe cursor
+     *
+     * @param position : Keyset position of the last returned record
+     * @return Encoded cursor or null if position is initial
+     */
+    public static String encodeCursor(KeysetScrollPosition position) {
+        if (position == null || position.isInitial()) {
+            return null;
+        }
+
+        Date dateCreated = (Date) position.getKeys().get(DATE_CREATED_KEY);
+        String rawCursor = (dateCreated == null ? "" : String.valueOf(dateCreated.getTime()))
+                + SEPARATOR + position.getKeys().get(ID_KEY);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Util to decode an opaque cursor into a keyset position
+     *
+     * @param cursor : Encoded cursor - Empty cursor refers to the first page
+     * @return KeysetScrollPosition
+     * @throws InvalidRequestParameterException if cursor can not be decoded
+     */
+    public static KeysetScrollPosition decodeCursor(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String dateCreated = StringUtils.substringBefore(rawCursor, SEPARATOR);
+            String id = StringUtils.substringAfter(rawCursor, SEPARATOR);
+            if (!ObjectId.isValid(id)) {
+                throw new InvalidRequestParameterException(INVALID_CURSOR);
+            }
+
+            return toScrollPosition(dateCreated.isEmpty() ? null : new Date(Long.parseLong(dateCreated)), id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException(INVALID_CURSOR);
+        }
+    }
+}
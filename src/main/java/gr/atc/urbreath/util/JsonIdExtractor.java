@@ -0,0 +1,210 @@
+package gr.atc.urbreath.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Utility class to extract the IDs of the entries of an upstream JSON response while it is received
+ * Entries are the objects of the root array or of the array field of the root object configured for the upstream (e.g. "results")
+ * Body is parsed token by token with a non-blocking parser, so the JSON tree is never materialized and each buffer is released once parsed
+ */
+public class JsonIdExtractor {
+    public static final String ID_FIELD = "id";
+
+    // Memory ceiling of the parser - Bounds a single token (e.g. a long description) and the nesting of the entries
+    private static final int MAX_TOKEN_LENGTH = 1024 * 1024;
+    private static final int MAX_NESTING_DEPTH = 64;
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder()
+                    .maxStringLength(MAX_TOKEN_LENGTH)
+                    .maxNestingDepth(MAX_NESTING_DEPTH)
+                    .build())
+            .build();
+
+    private JsonIdExtractor() {}
+
+    /**
+     * Util to extract the IDs of the entries of a streamed JSON body
+     *
+     * @param body : Streamed JSON body
+     * @param entriesField : Field of the root object holding the entries - Ignored if the body is a root array
+     * @param maxIds : Maximum number of IDs retained
+     * @return Mono emitting the IDs in the order of the entries - Empty list if the body contains no entries or no entries field
+     * @throws DataBufferLimitException if the body contains more than maxIds entries or a token exceeds the memory ceiling
+     * @throws DecodingException if the body is not valid JSON
+     */
+    public static Mono<List<String>> extractIds(Flux<DataBuffer> body, String entriesField, int maxIds) {
+        return Mono.defer(() -> {
+            IdCollector idCollector = new IdCollector(entriesField, maxIds);
+            return body
+                    .doOnNext(buffer -> {
+                        try {
+                            idCollector.feed(buffer);
+                        } catch (IOException e) {
+                            throw toExtractionError(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromCallable(idCollector::finish))
+                    .onErrorMap(IOException.class, JsonIdExtractor::toExtractionError)
+                    .doFinally(signal -> idCollector.close());
+        });
+    }
+
+    /**
+     * Util to check whether an error was raised while extracting the IDs of a response
+     *
+     * @param error : Error of the extraction
+     * @return True if the response is invalid or exceeded the limits
+     */
+    public static boolean isExtractionError(Throwable error) {
+        return error instanceof DecodingException || error instanceof DataBufferLimitException;
+    }
+
+    // Helper method to convert parsing errors - Exceeded parser constraints are reported as exceeded memory limit
+    private static RuntimeException toExtractionError(IOException e) {
+        if (e instanceof StreamConstraintsException) {
+            return new DataBufferLimitException("Upstream response exceeded the parser limits: " + e.getMessage());
+        }
+        return new DecodingException("Invalid JSON response: " + e.getMessage(), e);
+    }
+
+    /*
+     * Keeps the parsing state of a single response - Only the IDs are retained
+     */
+    private static class IdCollector {
+
+        private final String entriesField;
+
+        private final int maxIds;
+
+        private final JsonParser parser;
+
+        private final List<String> ids = new ArrayList<>();
+
+        private int depth;
+
+        private int entriesDepth = -1;
+
+        private boolean entriesExpected;
+
+        private boolean idExpected;
+
+        private boolean completed;
+
+        IdCollector(String entriesField, int maxIds) {
+            this.entriesField = entriesField;
+            this.maxIds = maxIds;
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw toExtractionError(e);
+            }
+        }
+
+        void feed(DataBuffer buffer) throws IOException {
+            // Rest of the body is drained without parsing once the entries are complete
+            if (completed) {
+                return;
+            }
+
+            ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext() && !completed) {
+                    ByteBuffer byteBuffer = iterator.next();
+                    feeder.feedInput(byteBuffer);
+                    parseAvailableTokens();
+                }
+            }
+        }
+
+        List<String> finish() throws IOException {
+            if (!completed) {
+                ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                parseAvailableTokens();
+            }
+            return ids;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Parser holds no external resources
+            }
+        }
+
+        private void parseAvailableTokens() throws IOException {
+            JsonToken token;
+            while (!completed && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handleToken(token);
+            }
+        }
+
+        private void handleToken(JsonToken token) throws IOException {
+            switch (token) {
+                // Entries are either the root array or the value of the entries field of the root object
+                case START_ARRAY -> {
+                    depth++;
+                    if (entriesDepth < 0 && (depth == 1 || entriesExpected)) {
+                        entriesDepth = depth;
+                    }
+                    entriesExpected = false;
+                    idExpected = false;
+                }
+                case START_OBJECT -> {
+                    depth++;
+                    entriesExpected = false;
+                    idExpected = false;
+                }
+                case END_ARRAY, END_OBJECT -> {
+                    if (depth == entriesDepth && token == JsonToken.END_ARRAY) {
+                        completed = true;
+                    }
+                    depth--;
+                }
+                // Fields of an entry are one level below the entries array
+                case FIELD_NAME -> {
+                    entriesExpected = entriesDepth < 0 && depth == 1 && parser.currentName().equals(entriesField);
+                    idExpected = entriesDepth > 0 && depth == entriesDepth + 1 && ID_FIELD.equals(parser.currentName());
+                }
+                case VALUE_STRING, VALUE_NUMBER_INT -> {
+                    if (idExpected) {
+                        addId(parser.getText());
+                    }
+                    entriesExpected = false;
+                }
+                default -> {
+                    entriesExpected = false;
+                    idExpected = false;
+                }
+            }
+        }
+
+        private void addId(String id) {
+            if (ids.size() >= maxIds) {
+                throw new DataBufferLimitException("Upstream response exceeded the limit of " + maxIds + " entries");
+            }
+            ids.add(id);
+            idExpected = false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package gr.atc.urbreath.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gr.atc.urbreath.util.JsonIdExtractor;
+import reactor.core.publisher.Flux;
+
+/*
+ * Compares the extraction of dataset IDs from an Idra catalogue response between the JsonNode tree and the streaming token parser
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JsonIdExtractorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonIdExtractorBenchmark {
+
+    // Size of the buffers received by WebClient
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private static final String DESCRIPTION = "Hourly measurements of air pollutants collected by the sensors of the pilot city. ".repeat(5);
+
+    @Param({"10000"})
+    private int datasets;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private byte[] catalogue;
+
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("{\"count\":").append(datasets).append(",\"results\":[");
+        for (int i = 0; i < datasets; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"dataset-").append(i)
+                    .append("\",\"title\":\"Dataset ").append(i)
+                    .append("\",\"description\":\"").append(DESCRIPTION)
+                    .append("\",\"keywords\":[\"air\",\"quality\",\"sensors\"]")
+                    .append(",\"distributions\":[{\"id\":\"distribution-").append(i)
+                    .append("\",\"format\":\"CSV\",\"downloadURL\":\"https://idra.example.org/datasets/").append(i).append(".csv\"}]}");
+        }
+        catalogue = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < catalogue.length; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(catalogue, offset, Math.min(offset + CHUNK_SIZE, catalogue.length)));
+        }
+    }
+
+    @Benchmark
+    public List<String> jsonNodeTree() throws IOException {
+        // Extraction as implemented before the streaming parser - Whole body decoded into a tree
+        JsonNode response = objectMapper.readTree(catalogue);
+        List<String> ids = new ArrayList<>();
+        for (JsonNode dataset : response.path("results")) {
+            ids.add(dataset.path("id").asText());
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<String> streamingParser() {
+        Flux<DataBuffer> body = Flux.fromIterable(chunks).map(bufferFactory::wrap);
+        return JsonIdExtractor.extractIds(body, "results", datasets).block();
+    }
+}
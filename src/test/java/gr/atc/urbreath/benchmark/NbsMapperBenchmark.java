@@ -0,0 +1,92 @@
+package gr.atc.urbreath.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.atc.urbreath.config.ModelMapperConfig;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.NbsStatus;
+import gr.atc.urbreath.mapper.ModelMapperNbsMapper;
+import gr.atc.urbreath.mapper.NbsMapper;
+import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.Nbs;
+
+/*
+ * Compares the mapping of a page of NBS records to DTOs between the hand-built mapper and ModelMapper
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=NbsMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NbsMapperBenchmark {
+
+    @Param({"1000"})
+    private int pageSize;
+
+    private List<Nbs> page;
+
+    private NbsMapper nbsMapper;
+
+    private ModelMapperNbsMapper modelMapperNbsMapper;
+
+    @Setup
+    public void setup() {
+        nbsMapper = new NbsMapper();
+        modelMapperNbsMapper = new ModelMapperNbsMapper(new ModelMapperConfig().modelMapper());
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(Nbs.builder()
+                    .id("65f1c0a2b3d4e5f6012" + String.format("%05d", i))
+                    .title("NBS " + i)
+                    .climateZone(ClimateZone.values()[i % ClimateZone.values().length])
+                    .geoLocation(new GeoLocation(37.9 + i * 0.001, 23.7 + i * 0.001, "Address " + i))
+                    .status(NbsStatus.IMPLEMENTED)
+                    .pilot("Pilot " + (i % 10))
+                    .isUrBreathNbs(i % 2 == 0)
+                    .dateCreated(new Date(1700000000000L + i))
+                    .areaCharacterization("Area characterization " + i)
+                    .objective("Objective " + i)
+                    .challenges("Challenges " + i)
+                    .potentialImpactsAndBenefits("Benefits " + i)
+                    .lessonsLearnt("Lessons " + i)
+                    .keywords(List.of("urban", "green", "water"))
+                    .problems(List.of("heat", "flooding"))
+                    .relatedMaterial(List.of("material"))
+                    .mainImage("main-" + i + ".png")
+                    .images(List.of("image-" + i + ".png"))
+                    .videos(List.of("video-" + i + ".mp4"))
+                    .idraDatasets(List.of("dataset-" + i))
+                    .kpis(List.of("kpi-" + i))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<NbsDataDto> directMapper() {
+        return page.stream().map(nbsMapper::toNbsDataDto).toList();
+    }
+
+    @Benchmark
+    public List<NbsDataDto> modelMapper() {
+        return page.stream().map(modelMapperNbsMapper::toNbsDataDto).toList();
+    }
+}
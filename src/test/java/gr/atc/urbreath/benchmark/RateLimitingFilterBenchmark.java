@@ -0,0 +1,85 @@
+package gr.atc.urbreath.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import gr.atc.urbreath.controller.responses.BaseAppResponse;
+import gr.atc.urbreath.enums.RateLimitGroup;
+import gr.atc.urbreath.filter.RateLimitBucketRegistry;
+import gr.atc.urbreath.filter.RateLimitingFilter;
+
+/*
+ * Compares the throughput of rejected requests between the per-request serialization of the response and the pre-serialized response
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RateLimitingFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    private static final String CLIENT_ADDRESS = "10.0.0.1";
+
+    private RateLimitBucketRegistry bucketRegistry;
+
+    private RateLimitingFilter rateLimitingFilter;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        bucketRegistry = new RateLimitBucketRegistry(1000, 1, 1, 1, 1, 1, 1, Duration.ofSeconds(10), Optional.empty(), new SimpleMeterRegistry());
+        rateLimitingFilter = new RateLimitingFilter(bucketRegistry);
+
+        request = new MockHttpServletRequest("GET", "/api/nbs/");
+        request.setRemoteAddr(CLIENT_ADDRESS);
+        // Exhaust the bucket of the client, so that every measured request is rejected
+        rateLimitingFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse perRequestSerialization() throws IOException {
+        // Rejection path as implemented before the response was pre-serialized
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RateLimitGroup group = RateLimitGroup.fromPath(request.getRequestURI());
+        if (!bucketRegistry.tryConsume("ip:" + request.getRemoteAddr(), group).isConsumed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType("application/json");
+            BaseAppResponse<String> responseMessage = BaseAppResponse.error("Too many requests. Please try again later.", "Rate Limit Exceeded");
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            mapper.writeValue(response.getWriter(), responseMessage);
+        }
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse preSerializedRejection() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
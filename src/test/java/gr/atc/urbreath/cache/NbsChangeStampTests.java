@@ -0,0 +1,117 @@
+package gr.atc.urbreath.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import gr.atc.urbreath.events.NbsChangedEvent;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.repository.NbsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class NbsChangeStampTests {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2025-03-01T10:15:30.250Z");
+
+    @Mock
+    private NbsRepository nbsRepository;
+
+    private NbsChangeStamp nbsChangeStamp;
+
+    @BeforeEach
+    void setUp() {
+        nbsChangeStamp = new NbsChangeStamp(nbsRepository, Duration.ofMinutes(1));
+    }
+
+    @DisplayName("Retrieve ETag: Weak and derived from the latest modification")
+    @Test
+    void givenStoredNbs_whenGetETag_thenReturnWeakETagOfLatestModification() {
+        // Given
+        when(nbsRepository.findTopByOrderByLastModifiedDesc()).thenReturn(Optional.of(nbsModifiedAt(LAST_MODIFIED)));
+        when(nbsRepository.count()).thenReturn(3L);
+
+        // When
+        String eTag = nbsChangeStamp.getETag();
+
+        // Then
+        assertEquals("W/\"" + LAST_MODIFIED.toEpochMilli() + "-3\"", eTag);
+        assertEquals(Instant.parse("2025-03-01T10:15:30Z"), nbsChangeStamp.getLastModified());
+    }
+
+    @DisplayName("Retrieve ETag: Cached within TTL")
+    @Test
+    void givenCachedStamp_whenGetETagAgain_thenSkipDatabase() {
+        // Given
+        when(nbsRepository.findTopByOrderByLastModifiedDesc()).thenReturn(Optional.of(nbsModifiedAt(LAST_MODIFIED)));
+
+        // When
+        String eTag = nbsChangeStamp.getETag();
+
+        // Then
+        assertEquals(eTag, nbsChangeStamp.getETag());
+        nbsChangeStamp.getLastModified();
+        verify(nbsRepository, times(1)).findTopByOrderByLastModifiedDesc();
+    }
+
+    @DisplayName("Retrieve ETag: Empty collection")
+    @Test
+    void givenNoNbs_whenGetETag_thenReturnEpochStamp() {
+        // When
+        String eTag = nbsChangeStamp.getETag();
+
+        // Then
+        assertEquals("W/\"0-0\"", eTag);
+        assertEquals(Instant.EPOCH, nbsChangeStamp.getLastModified());
+    }
+
+    @DisplayName("NBS changed: Reload stamp")
+    @Test
+    void givenNbsChangedEvent_whenOnNbsChanged_thenReloadStamp() {
+        // Given
+        Instant modifiedInSameSecond = LAST_MODIFIED.plusMillis(100);
+        when(nbsRepository.findTopByOrderByLastModifiedDesc())
+                .thenReturn(Optional.of(nbsModifiedAt(LAST_MODIFIED)), Optional.of(nbsModifiedAt(modifiedInSameSecond)));
+        String eTag = nbsChangeStamp.getETag();
+
+        // When - Changes within the same second must still produce different ETags
+        nbsChangeStamp.onNbsChanged(new NbsChangedEvent("mock-id", "mock-title"));
+
+        // Then
+        assertNotEquals(eTag, nbsChangeStamp.getETag());
+        assertEquals(Instant.parse("2025-03-01T10:15:30Z"), nbsChangeStamp.getLastModified());
+    }
+
+    @DisplayName("NBS removed: Advance stamp")
+    @Test
+    void givenRemovedNbs_whenOnNbsChanged_thenAdvanceStamp() {
+        // Given
+        when(nbsRepository.findTopByOrderByLastModifiedDesc()).thenReturn(Optional.of(nbsModifiedAt(LAST_MODIFIED)));
+        when(nbsRepository.count()).thenReturn(3L, 2L);
+        String eTag = nbsChangeStamp.getETag();
+
+        // When
+        nbsChangeStamp.onNbsChanged(new NbsChangedEvent("mock-id", "mock-title"));
+
+        // Then
+        assertNotEquals(eTag, nbsChangeStamp.getETag());
+    }
+
+    private static Nbs nbsModifiedAt(Instant lastModified) {
+        Nbs nbs = new Nbs();
+        nbs.setLastModified(Date.from(lastModified));
+        return nbs;
+    }
+}
@@ -0,0 +1,159 @@
+package gr.atc.urbreath.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.events.NbsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+class NbsDataCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NbsChangeStamp nbsChangeStamp;
+
+    private NbsDataCache nbsDataCache;
+
+    private NbsDataDto mockNbsDto;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nbsChangeStamp = mock(NbsChangeStamp.class);
+        when(nbsChangeStamp.getETag()).thenReturn("W/\"1-1\"");
+        nbsDataCache = new NbsDataCache(10, 10, meterRegistry, nbsChangeStamp);
+        mockNbsDto = NbsDataDto.builder().id("mock-id").title("mock-title").build();
+        loads = new AtomicInteger();
+    }
+
+    @DisplayName("Retrieve by ID and Title: Share the same entry")
+    @Test
+    void givenCachedId_whenGetByTitle_thenReturnSameEntry() {
+        // When
+        NbsDataDto byId = nbsDataCache.getById("mock-id", id -> load());
+        NbsDataDto byTitle = nbsDataCache.getByTitle("mock-title", title -> load());
+
+        // Then
+        assertEquals(byId, byTitle);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "nbs").tag("result", "hit").functionCounter().count());
+    }
+
+    @DisplayName("NBS Changed Event: Evict entries by Title")
+    @Test
+    void givenNbsChangedEvent_whenRetrieveAgain_thenReload() {
+        // Given
+        nbsDataCache.getByTitle("mock-title", title -> load());
+
+        // When
+        nbsDataCache.onNbsChanged(new NbsChangedEvent(null, "mock-title"));
+        nbsDataCache.getById("mock-id", id -> load());
+        nbsDataCache.onNbsChanged(new NbsChangedEvent("mock-id", null));
+        nbsDataCache.getByTitle("mock-title", title -> load());
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @DisplayName("Loader failure: Not cached")
+    @Test
+    void givenMissingNbs_whenGetById_thenPropagateExceptionWithoutCaching() {
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> nbsDataCache.getById("mock-id", id -> {
+            throw new ResourceNotFoundException("NBS with id: " + id + " not found in DB");
+        }));
+        assertEquals(mockNbsDto, nbsDataCache.getById("mock-id", id -> load()));
+    }
+
+    @DisplayName("Modified response: Cached entry unchanged")
+    @Test
+    void givenModifiedResponse_whenRetrieveAgain_thenReturnOriginalEntry() {
+        // Given
+        mockNbsDto.setKeywords(new ArrayList<>(List.of("green-roof")));
+        mockNbsDto.setGeoLocation(new GeoLocationDto(1.0, 2.0, null));
+        NbsDataDto firstResult = nbsDataCache.getById("mock-id", id -> load());
+
+        // When
+        firstResult.setTitle("modified-title");
+        firstResult.getKeywords().add("modified-keyword");
+        firstResult.getGeoLocation().setNbsId("modified-id");
+
+        // Then
+        NbsDataDto secondResult = nbsDataCache.getByTitle("mock-title", title -> load());
+        assertNotSame(firstResult, secondResult);
+        assertEquals("mock-title", secondResult.getTitle());
+        assertEquals(List.of("green-roof"), secondResult.getKeywords());
+        assertNull(secondResult.getGeoLocation().getNbsId());
+        assertEquals(1, loads.get());
+    }
+
+    @DisplayName("Eviction during load by Title: Loaded entry not cached")
+    @Test
+    void givenEvictionDuringLoad_whenGetByTitle_thenReloadOnNextRetrieval() {
+        // Given - NBS is updated while its previous state is being loaded
+        nbsDataCache.getByTitle("mock-title", title -> {
+            NbsDataDto previousState = load();
+            nbsDataCache.onNbsChanged(new NbsChangedEvent("mock-id", "mock-title"));
+            return previousState;
+        });
+
+        // When
+        nbsDataCache.getByTitle("mock-title", title -> load());
+        nbsDataCache.getById("mock-id", id -> load());
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Change stamp advanced: Reload entries loaded before the change")
+    @Test
+    void givenChangeOnOtherReplica_whenStampAdvances_thenReload() {
+        // Given - No eviction event is received for changes made by other replicas
+        nbsDataCache.getById("mock-id", id -> load());
+        nbsDataCache.getByTitle("mock-title", title -> load());
+
+        // When
+        when(nbsChangeStamp.getETag()).thenReturn("W/\"2-1\"");
+        nbsDataCache.getByTitle("mock-title", title -> load());
+        nbsDataCache.getById("mock-id", id -> load());
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Change stamp unavailable: Serve cached entries")
+    @Test
+    void givenUnavailableStamp_whenGetById_thenReturnCachedEntry() {
+        // Given
+        nbsDataCache.getById("mock-id", id -> load());
+        when(nbsChangeStamp.getETag()).thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"));
+
+        // When
+        NbsDataDto result = nbsDataCache.getById("mock-id", id -> load());
+
+        // Then
+        assertEquals(mockNbsDto, result);
+        assertEquals(1, loads.get());
+    }
+
+    private NbsDataDto load() {
+        loads.incrementAndGet();
+        return mockNbsDto;
+    }
+}
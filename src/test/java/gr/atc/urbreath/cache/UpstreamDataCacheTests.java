@@ -0,0 +1,146 @@
+package gr.atc.urbreath.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+class UpstreamDataCacheTests {
+
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(100);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UpstreamDataCache upstreamDataCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamDataCache = new UpstreamDataCache(Duration.ofMillis(50), Duration.ofHours(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @DisplayName("Retrieve upstream data: Concurrent misses trigger a single request")
+    @Test
+    void givenConcurrentMisses_whenGet_thenLoadOnce() {
+        // When
+        List<List<String>> results = Flux.range(0, 10)
+                .flatMap(i -> upstreamDataCache.get("idra", this::slowLoad))
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(1, loads.get());
+        assertNotNull(results);
+        assertEquals(10, results.size());
+        assertTrue(results.stream().allMatch(List.of("dataset-1")::equals));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "upstream-data").tag("result", "miss").functionCounter().count());
+    }
+
+    @DisplayName("Retrieve upstream data: Stale data are served while refreshed")
+    @Test
+    void givenStaleEntry_whenGet_thenReturnStaleDataAndRefresh() throws Exception {
+        // Given
+        upstreamDataCache.get("kpi-manager", this::versionedLoad).block();
+        Thread.sleep(100);
+
+        // When
+        List<String> staleData = upstreamDataCache.get("kpi-manager", this::versionedLoad).block();
+
+        // Then
+        assertEquals(List.of("version-1"), staleData);
+        List<String> refreshedData = staleData;
+        for (int i = 0; i < 50 && List.of("version-1").equals(refreshedData); i++) {
+            Thread.sleep(20);
+            refreshedData = upstreamDataCache.get("kpi-manager", this::versionedLoad).block();
+        }
+        assertEquals(List.of("version-2"), refreshedData);
+        assertEquals(1.0, meterRegistry.get("nbs.proxy.cache.refresh").tag("outcome", "success").counter().count());
+    }
+
+    @DisplayName("Retrieve upstream data: Stale data are kept if refresh fails")
+    @Test
+    void givenFailingUpstream_whenRefresh_thenKeepStaleData() throws Exception {
+        // Given
+        upstreamDataCache.get("idra", this::failingReload).block();
+        Thread.sleep(100);
+
+        // When
+        upstreamDataCache.get("idra", this::failingReload).block();
+
+        // Then
+        for (int i = 0; i < 50 && meterRegistry.find("nbs.proxy.cache.refresh").tag("outcome", "failure").counter() == null; i++) {
+            Thread.sleep(20);
+        }
+        assertNotNull(meterRegistry.find("nbs.proxy.cache.refresh").tag("outcome", "failure").counter());
+        assertEquals(List.of("dataset-1"), upstreamDataCache.get("idra", this::failingReload).block());
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Retrieve upstream data: Last data are served after expiration while upstream is unavailable")
+    @Test
+    void givenExpiredEntryAndUnavailableUpstream_whenGet_thenReturnLastData() throws Exception {
+        // Given
+        upstreamDataCache = new UpstreamDataCache(Duration.ofHours(1), Duration.ofMillis(50), meterRegistry);
+        upstreamDataCache.get("kpi-manager", this::unavailableReload).block();
+        Thread.sleep(100);
+
+        // When
+        List<String> data = upstreamDataCache.get("kpi-manager", this::unavailableReload).block();
+
+        // Then
+        assertEquals(List.of("kpi-1"), data);
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Retrieve upstream data: Unavailable upstream without previous data")
+    @Test
+    void givenUnavailableUpstreamWithoutData_whenGet_thenThrowUpstreamUnavailableException() {
+        // When
+        Mono<List<String>> data = upstreamDataCache.get("kpi-manager",
+                () -> Mono.error(new UpstreamUnavailableException("Circuit breaker of kpi-manager is open")));
+
+        // Then
+        assertThrows(UpstreamUnavailableException.class, data::block);
+    }
+
+    private Mono<List<String>> slowLoad() {
+        return Mono.delay(UPSTREAM_LATENCY)
+                .doOnNext(tick -> loads.incrementAndGet())
+                .thenReturn(List.of("dataset-1"));
+    }
+
+    private Mono<List<String>> versionedLoad() {
+        return Mono.defer(() -> {
+            int version = loads.incrementAndGet();
+            // Slow upstream on refresh, so the stale data are returned while the refresh is in progress
+            Duration latency = version > 1 ? UPSTREAM_LATENCY : Duration.ZERO;
+            return Mono.delay(latency).thenReturn(List.of("version-" + version));
+        });
+    }
+
+    private Mono<List<String>> failingReload() {
+        return Mono.defer(() -> loads.incrementAndGet() > 1
+                ? Mono.error(new WebClientRequestException("Unable to retrieve datasets from Idra"))
+                : Mono.just(List.of("dataset-1")));
+    }
+
+    private Mono<List<String>> unavailableReload() {
+        return Mono.defer(() -> loads.incrementAndGet() > 1
+                ? Mono.error(new UpstreamUnavailableException("Circuit breaker of kpi-manager is open"))
+                : Mono.just(List.of("kpi-1")));
+    }
+}
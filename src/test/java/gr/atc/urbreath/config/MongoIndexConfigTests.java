@@ -0,0 +1,87 @@
+package gr.atc.urbreath.config;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.argThat;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.RateLimitBucket;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexConfigTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoQueryPlanVerifier queryPlanVerifier;
+
+    @Mock
+    private IndexOperations nbsIndexOperations;
+
+    @Mock
+    private IndexOperations bucketIndexOperations;
+
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoTemplate.indexOps(Nbs.class)).thenReturn(nbsIndexOperations);
+        when(mongoTemplate.indexOps(RateLimitBucket.class)).thenReturn(bucketIndexOperations);
+        mongoIndexConfig = new MongoIndexConfig(mongoTemplate, queryPlanVerifier);
+    }
+
+    @DisplayName("Ensure indexes: Success")
+    @Test
+    void givenReachableDatabase_whenEnsureIndexes_thenCreateAllIndexes() {
+        // When
+        List<String> failedIndexes = mongoIndexConfig.ensureIndexes();
+
+        // Then
+        assertTrue(failedIndexes.isEmpty());
+        verify(nbsIndexOperations).ensureIndex(argThat(index -> isNamed(index, "location_coordinates_2d")));
+        verify(bucketIndexOperations).ensureIndex(argThat(index -> isNamed(index, "expires_at_ttl")));
+    }
+
+    @DisplayName("Ensure indexes: Failing index does not prevent the rest")
+    @Test
+    void givenFailingUniqueIndex_whenEnsureIndexes_thenCreateRemainingIndexesAndReportFailure() {
+        // Given
+        lenient().doThrow(new DuplicateKeyException("E11000 duplicate key error"))
+                .when(nbsIndexOperations).ensureIndex(argThat(index -> isNamed(index, "title_unique")));
+
+        // When
+        List<String> failedIndexes = mongoIndexConfig.ensureIndexes();
+
+        // Then
+        assertEquals(List.of("title_unique"), failedIndexes);
+        verify(nbsIndexOperations).ensureIndex(argThat(index -> isNamed(index, "date_created_id")));
+        verify(nbsIndexOperations).ensureIndex(argThat(index -> isNamed(index, "location_coordinates_2d")));
+        verify(bucketIndexOperations).ensureIndex(argThat(index -> isNamed(index, "expires_at_ttl")));
+        verify(queryPlanVerifier, never()).verifyQueryPlans();
+    }
+
+    private static boolean isNamed(IndexDefinition index, String name) {
+        return index != null && name.equals(index.getIndexOptions().getString("name"));
+    }
+}
@@ -0,0 +1,79 @@
+package gr.atc.urbreath.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import gr.atc.urbreath.models.Nbs;
+
+class MongoQueryPlanVerifierTests {
+
+    @DisplayName("Find inefficient stages of nested query plan: Success")
+    @Test
+    void givenPlanWithCollectionScanAndSort_whenFindInefficientStages_thenReturnStages() {
+        // Given
+        Document plan = new Document("stage", "PROJECTION_SIMPLE")
+                .append("inputStage", new Document("stage", "SORT")
+                        .append("inputStage", new Document("stage", "COLLSCAN")));
+
+        // When
+        List<String> stages = MongoQueryPlanVerifier.findInefficientStages(plan);
+
+        // Then
+        assertEquals(List.of("SORT", "COLLSCAN"), stages);
+    }
+
+    @DisplayName("Find inefficient stages of indexed query plan: No stages")
+    @Test
+    void givenPlanWithIndexScan_whenFindInefficientStages_thenReturnEmptyList() {
+        // Given
+        Document plan = new Document("stage", "FETCH")
+                .append("inputStages", List.of(new Document("stage", "IXSCAN").append("indexName", "date_created_id")));
+
+        // When
+        List<String> stages = MongoQueryPlanVerifier.findInefficientStages(plan);
+
+        // Then
+        assertTrue(stages.isEmpty());
+    }
+
+    @DisplayName("Generate repository queries: Same operators as the repository")
+    @Test
+    void givenRepositoryQueryBuilders_whenRepositoryQueries_thenMapExecutedOperators() {
+        // Given
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        QueryMapper queryMapper = new QueryMapper(converter);
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(Nbs.class);
+
+        // When
+        Map<String, MongoQueryPlanVerifier.CheckedQuery> queries = new MongoQueryPlanVerifier(null).repositoryQueries();
+
+        // Then
+        Document keysetFilter = queryMapper.getMappedObject(queries.get("scrollNbsBriefData").query().getQueryObject(), entity);
+        assertTrue(keysetFilter.containsKey("$or"));
+        assertEquals(11, queries.get("scrollNbsBriefData").query().getLimit());
+
+        Document textQuery = queries.get("searchNbsBriefData").query().getQueryObject();
+        assertTrue(textQuery.containsKey("$text"));
+        assertTrue(queries.get("searchNbsBriefData").query().getSortObject().containsKey("score"));
+
+        Document nearFilter = queryMapper.getMappedObject(queries.get("findNbsBriefDataNear").query().getQueryObject(), entity);
+        assertTrue(nearFilter.get("location", Document.class).containsKey("$nearSphere"));
+        Document countFilter = queryMapper.getMappedObject(queries.get("countNbsNear").query().getQueryObject(), entity);
+        assertTrue(countFilter.get("location", Document.class).containsKey("$geoWithin"));
+
+        Document filter = queryMapper.getMappedObject(queries.get("filterNbsByKeywords").query().getQueryObject(), entity);
+        assertTrue(filter.get("keywords", Document.class).containsKey("$in"));
+    }
+}
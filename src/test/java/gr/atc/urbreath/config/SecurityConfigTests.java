@@ -6,11 +6,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import gr.atc.urbreath.dto.NbsMediaDto;
+import gr.atc.urbreath.service.interfaces.INbsService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -27,13 +36,37 @@ class SecurityConfigTests {
     @MockitoBean
     private JwtDecoder jwtDecoder;
 
+    @MockitoBean
+    private INbsService nbsService;
+
     @Test
     @DisplayName("POST Request - Failure - Requires authentication")
     void postNbsEndpointsShouldRequireAuthentication() throws Exception {
         mockMvc.perform(post("/api/nbs/create"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("POST Request - Failure - Requires admin role")
+    void postNbsEndpointsShouldRequireAdminRole() throws Exception {
+        mockMvc.perform(post("/api/nbs/{id}/media", "mock-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("POST Request - Success - Admin reaches the endpoint")
+    void postNbsEndpointsShouldBeReachableByAdmin() throws Exception {
+        mockMvc.perform(post("/api/nbs/{id}/media", "mock-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk());
+        verify(nbsService).attachNbsMedia(eq("mock-id"), any(NbsMediaDto.class));
+    }
+
     @Test
     @DisplayName("Request to non-NBS endpoint should require authentication")
     void nonNbsEndpointsShouldRequireAuthentication() throws Exception {
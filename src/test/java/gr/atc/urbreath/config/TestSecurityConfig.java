@@ -17,7 +17,7 @@ public class TestSecurityConfig {
     @Primary
     public RateLimitingFilter testRateLimitingFilter() {
         // Mock Rate Limiting Filter
-        return new RateLimitingFilter() {
+        return new RateLimitingFilter(null) {
             @Override
             protected boolean shouldNotFilter(jakarta.servlet.http.HttpServletRequest request) {
                 return true;
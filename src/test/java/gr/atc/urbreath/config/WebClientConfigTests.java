@@ -0,0 +1,110 @@
+package gr.atc.urbreath.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+class WebClientConfigTests {
+
+    private final WebClientConfig webClientConfig = new WebClientConfig();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DisposableServer upstream;
+
+    private ConnectionProvider connectionProvider;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+
+        // Upstream reporting the protocol and the accepted encodings of each request
+        upstream = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .handle((request, response) -> response.sendString(Mono.just(
+                        request.version() + "|" + request.requestHeaders().get(HttpHeaders.ACCEPT_ENCODING))))
+                .bindNow();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("urbreath.idra.url", "http://localhost:" + upstream.port() + "/datasets")
+                .withProperty("urbreath.kpi.manager.url", "http://kpi-manager:8090/kpis")
+                .withProperty("nbs.webclient.connect-timeout", "1s")
+                .withProperty("nbs.webclient.response-timeout", "5s")
+                .withProperty("nbs.webclient.http2-enabled", "true")
+                .withProperty("nbs.webclient.compression-enabled", "true")
+                .withProperty("nbs.webclient.pool.max-connections", "10")
+                .withProperty("nbs.webclient.pool.pending-acquire-max-count", "20")
+                .withProperty("nbs.webclient.pool.pending-acquire-timeout", "1s")
+                .withProperty("nbs.webclient.pool.max-idle-time", "30s")
+                .withProperty("nbs.webclient.pool.max-life-time", "5m")
+                .withProperty("nbs.webclient.pool.eviction-interval", "30s")
+                .withProperty("nbs.webclient.pool.idra.max-connections", "2");
+        // Durations are converted as in the application environment
+        environment.setConversionService(new ApplicationConversionService());
+
+        connectionProvider = webClientConfig.upstreamConnectionProvider(environment);
+        webClient = webClientConfig.webClient(WebClient.builder(), connectionProvider, environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        upstream.disposeNow();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @DisplayName("Request upstream: HTTP/2 and compression negotiated")
+    @Test
+    void givenUpstreamSupportingH2c_whenRequest_thenUseHttp2AndAcceptCompression() {
+        // When
+        String response = webClient.get()
+                .uri("http://localhost:" + upstream.port() + "/datasets")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertNotNull(response);
+        assertTrue(response.startsWith("HTTP/2.0"), response);
+        assertTrue(response.contains("gzip"), response);
+    }
+
+    @DisplayName("Request upstream: Pool metrics published")
+    @Test
+    void givenUpstreamPool_whenRequest_thenPublishPoolMetrics() {
+        // When
+        webClient.get()
+                .uri("http://localhost:" + upstream.port() + "/datasets")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertNotNull(meterRegistry.find("reactor.netty.connection.provider.max.connections").tag("name", "upstream").gauge());
+        assertEquals(2.0, meterRegistry.get("reactor.netty.connection.provider.max.connections")
+                .tag("name", "upstream")
+                .tag("remote.address", "localhost:" + upstream.port())
+                .gauge().value());
+    }
+}
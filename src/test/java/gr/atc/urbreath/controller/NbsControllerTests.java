@@ -1,51 +1,106 @@
 package gr.atc.urbreath.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
+import gr.atc.urbreath.cache.NbsChangeStamp;
 import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsClusterDto;
 import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsDetailsDto;
+import gr.atc.urbreath.dto.NbsFilterResultDto;
+import gr.atc.urbreath.dto.PresignedUrlDto;
 import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.ExportFormat;
+import gr.atc.urbreath.enums.NbsExpansion;
+import gr.atc.urbreath.enums.NbsStatus;
+import gr.atc.urbreath.events.NbsChangedEvent;
 import gr.atc.urbreath.exception.CustomExceptions.DataMappingException;
+import gr.atc.urbreath.filter.RateLimitBucketRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import gr.atc.urbreath.exception.CustomExceptions.ResourceNotFoundException;
+import gr.atc.urbreath.models.MediaFile;
+import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsFilter;
+import gr.atc.urbreath.repository.NbsRepository;
+import gr.atc.urbreath.service.interfaces.INbsEnrichmentService;
 import gr.atc.urbreath.service.interfaces.INbsService;
+import gr.atc.urbreath.util.CursorUtils;
+import reactor.core.publisher.Mono;
 
 @WebMvcTest(NbsController.class)
+@Import({NbsChangeStamp.class, RateLimitBucketRegistry.class, SimpleMeterRegistry.class})
 class NbsControllerTests {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private NbsChangeStamp nbsChangeStamp;
+
     @MockitoBean
     private INbsService nbsService;
 
+    @MockitoBean
+    private INbsEnrichmentService nbsEnrichmentService;
+
+    @MockitoBean
+    private NbsRepository nbsRepository;
+
     private static NbsDataDto mockNbs;
     private static List<NbsDataDto> mockNbsList;
     private static List<GeoLocationDto> mockGeoLocations;
+    private static MediaFile mockMediaFile;
+
+    private static final byte[] MEDIA_CONTENT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
 
     @BeforeAll
     static void setup() {
@@ -68,9 +123,19 @@ class NbsControllerTests {
         mockNbsList = List.of(mockNbs, mockNbs2);
 
         mockGeoLocations = List.of(
-                new GeoLocationDto(1.0, 2.0, "Athens"),
-                new GeoLocationDto(3.0, 4.0, "Madrid")
+                new GeoLocationDto(1.0, 2.0, "Athens", "mock-id"),
+                new GeoLocationDto(3.0, 4.0, "Madrid", "mock-id-2")
         );
+
+        mockMediaFile = new MediaFile("video.mp4", "video/mp4", MEDIA_CONTENT.length, "mock-etag", Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @BeforeEach
+    void setupChangeStamp() {
+        Nbs lastModifiedNbs = new Nbs();
+        lastModifiedNbs.setLastModified(Date.from(Instant.parse("2025-03-01T10:15:30Z")));
+        when(nbsRepository.findTopByOrderByLastModifiedDesc()).thenReturn(Optional.of(lastModifiedNbs));
+        nbsChangeStamp.onNbsChanged(new NbsChangedEvent(null, null));
     }
 
     @DisplayName("Retrieve NBS by ID: Success")
@@ -94,6 +159,96 @@ class NbsControllerTests {
                 .andExpect(jsonPath("$.data.geoLocation.longitude").value(2.0));
     }
 
+    @DisplayName("Retrieve NBS by ID: Validators Returned")
+    @Test
+    @WithMockUser
+    void givenId_whenRetrieveNbsById_thenReturnETagAndLastModified() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsById(anyString())).thenReturn(mockNbs);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}", "mock-id"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, nbsChangeStamp.getETag()))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, nbsChangeStamp.getLastModified().toEpochMilli()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    @DisplayName("Retrieve NBS by ID: Not Modified")
+    @Test
+    @WithMockUser
+    void givenMatchingETag_whenRetrieveNbsById_thenReturnNotModifiedWithoutFetching() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}", "mock-id")
+                .header(HttpHeaders.IF_NONE_MATCH, nbsChangeStamp.getETag()));
+
+        // Then
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(nbsService, never()).retrieveNbsById(anyString());
+    }
+
+    @DisplayName("Retrieve expanded NBS by ID: Success")
+    @Test
+    @WithMockUser
+    void givenExpand_whenRetrieveNbsById_thenReturnExpandedNbsAsynchronously() throws Exception {
+        // Given
+        NbsDetailsDto mockNbsDetails = NbsDetailsDto.builder()
+                .nbs(mockNbs)
+                .resolvedIdraDatasets(List.of("dataset-1"))
+                .unavailableExpansions(List.of(NbsExpansion.KPIS))
+                .build();
+        when(nbsService.retrieveNbsById("mock-id")).thenReturn(mockNbs);
+        when(nbsEnrichmentService.expandNbs(mockNbs, EnumSet.allOf(NbsExpansion.class))).thenReturn(Mono.just(mockNbsDetails));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}", "mock-id")
+                                                .param("expand", "datasets,kpis"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.data.title").value("mock-title"))
+                .andExpect(jsonPath("$.data.resolvedIdraDatasets", hasSize(1)))
+                .andExpect(jsonPath("$.data.unavailableExpansions[0]").value("KPIS"));
+    }
+
+    @DisplayName("Retrieve expanded NBS by ID: Invalid Expansion")
+    @Test
+    @WithMockUser
+    void givenInvalidExpand_whenRetrieveNbsById_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}", "mock-id")
+                .param("expand", "datasets,images"));
+
+        // Then
+        response.andExpect(status().isBadRequest());
+        verify(nbsEnrichmentService, never()).expandNbs(any(), any());
+    }
+
+    @DisplayName("Retrieve all NBS: Modified after change")
+    @Test
+    @WithMockUser
+    void givenOutdatedETag_whenRetrieveAllNbs_thenReturnNbs() throws Exception {
+        // Given
+        String outdatedETag = nbsChangeStamp.getETag();
+        when(nbsRepository.count()).thenReturn(1L);
+        nbsChangeStamp.onNbsChanged(new NbsChangedEvent("mock-id", "mock-title"));
+        when(nbsService.retrieveAllNbsBriefData(any(Pageable.class))).thenReturn(new PageImpl<>(mockNbsList));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/")
+                .header(HttpHeaders.IF_NONE_MATCH, outdatedETag));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, nbsChangeStamp.getETag()));
+    }
+
     @DisplayName("Retrieve NBS by ID: Resource Not Found")
     @Test
     @WithMockUser
@@ -255,6 +410,7 @@ class NbsControllerTests {
                 .andExpect(jsonPath("$.data", hasSize(2)))
                 .andExpect(jsonPath("$.data[0].latitude").value(1.0))
                 .andExpect(jsonPath("$.data[0].longitude").value(2.0))
+                .andExpect(jsonPath("$.data[0].nbsId").value("mock-id"))
                 .andExpect(jsonPath("$.data[1].latitude").value(3.0))
                 .andExpect(jsonPath("$.data[1].longitude").value(4.0))
                 .andExpect(jsonPath("$.success").value(true))
@@ -281,6 +437,228 @@ class NbsControllerTests {
     }
 
 
+    @DisplayName("Retrieve NBS near a location: Success")
+    @Test
+    @WithMockUser
+    void givenLocationAndRadius_whenRetrieveNbsNear_thenReturnListOfNbs() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsBriefDataNear(37.9, 23.7, 10.0, PageRequest.of(0, 9))).thenReturn(new PageImpl<>(mockNbsList));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/near")
+                                        .param("lat", "37.9")
+                                        .param("lon", "23.7")
+                                        .param("radiusKm", "10"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(2)))
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.message").value("NBSs near the given location retrieved successfully"));
+    }
+
+    @DisplayName("Retrieve NBS near a location: Invalid Radius")
+    @Test
+    @WithMockUser
+    void givenInvalidRadius_whenRetrieveNbsNear_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/near")
+                                        .param("lat", "37.9")
+                                        .param("lon", "23.7")
+                                        .param("radiusKm", "0"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").value("Radius must be greater than zero"));
+    }
+
+    @DisplayName("Retrieve NBS within a bounding box: Success")
+    @Test
+    @WithMockUser
+    void givenBoundingBox_whenRetrieveNbsWithin_thenReturnListOfNbs() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsBriefDataWithinBox(23.0, 37.0, 24.0, 38.5, PageRequest.of(0, 9))).thenReturn(new PageImpl<>(mockNbsList));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/within")
+                                        .param("bbox", "23.0,37.0,24.0,38.5"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(2)))
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.message").value("NBSs within the given area retrieved successfully"));
+    }
+
+    @DisplayName("Retrieve NBS within a bounding box: Invalid Bounding Box")
+    @Test
+    @WithMockUser
+    void givenInvalidBoundingBox_whenRetrieveNbsWithin_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/within")
+                                        .param("bbox", "24.0,37.0,23.0"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").value("Bounding box must be in the form of minLon,minLat,maxLon,maxLat"));
+    }
+
+    @DisplayName("Search NBS: Success")
+    @Test
+    @WithMockUser
+    void givenSearchTerms_whenSearchNbs_thenReturnPaginatedResults() throws Exception {
+        // Given
+        when(nbsService.searchNbsBriefData(eq("green roofs"), any(Pageable.class))).thenReturn(new PageImpl<>(mockNbsList));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/search")
+                                        .param("q", "green roofs"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(2)))
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.message").value("NBSs search results retrieved successfully"));
+    }
+
+    @DisplayName("Search NBS: Blank Search Terms")
+    @Test
+    @WithMockUser
+    void givenBlankSearchTerms_whenSearchNbs_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/search")
+                                        .param("q", " "))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").value("Search terms are required"));
+    }
+
+    @DisplayName("Filter NBS with facets: Success")
+    @Test
+    @WithMockUser
+    void givenFilters_whenFilterNbs_thenReturnResultsWithFacets() throws Exception {
+        // Given
+        NbsFilter expectedFilter = NbsFilter.builder()
+                .climateZone(ClimateZone.MEDITERRANEAN)
+                .status(NbsStatus.IMPLEMENTED)
+                .keywords(List.of("urban", "green"))
+                .build();
+        NbsFilterResultDto filterResult = NbsFilterResultDto.builder()
+                .results(mockNbsList)
+                .totalElements(11)
+                .facets(Map.of("pilot", Map.of("Athens", 11L)))
+                .build();
+        when(nbsService.filterNbsBriefData(eq(expectedFilter), any(Pageable.class))).thenReturn(filterResult);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/filter")
+                                        .param("climateZone", "mediterranean")
+                                        .param("status", "IMPLEMENTED")
+                                        .param("keywords", "urban", "green")
+                                        .param("size", "9"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(2)))
+                .andExpect(jsonPath("$.data.totalElements").value(11))
+                .andExpect(jsonPath("$.data.totalPages").value(2))
+                .andExpect(jsonPath("$.data.lastPage").value(false))
+                .andExpect(jsonPath("$.data.facets.pilot.Athens").value(11));
+    }
+
+    @DisplayName("Filter NBS with facets: Invalid Status")
+    @Test
+    @WithMockUser
+    void givenInvalidStatus_whenFilterNbs_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/filter")
+                                        .param("status", "UNKNOWN"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").value("Invalid NBS status provided"));
+    }
+
+    @DisplayName("Retrieve NBS clusters: Success")
+    @Test
+    @WithMockUser
+    void givenZoomLevel_whenRetrieveNbsClusters_thenReturnClusters() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsClusters(3, -180, -90, 180, 90))
+                .thenReturn(List.of(new NbsClusterDto(38.0, 23.7, 3, null)));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/clusters")
+                                        .param("zoom", "3"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].count").value(3))
+                .andExpect(jsonPath("$.data[0].nbsId").doesNotExist());
+    }
+
+    @DisplayName("Retrieve NBS clusters: Invalid Zoom Level")
+    @Test
+    @WithMockUser
+    void givenInvalidZoomLevel_whenRetrieveNbsClusters_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/clusters")
+                                        .param("zoom", "30"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Export All NBS: Success")
+    @Test
+    @WithMockUser
+    void whenExportAllNbs_thenStreamNdjsonRecords() throws Exception {
+        // Given
+        String ndjson = "{\"id\":\"mock-id\"}\n{\"id\":\"mock-id-2\"}\n";
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(nbsService).exportAllNbs(any(OutputStream.class), eq(ExportFormat.NDJSON));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/export"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(ndjson))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not("no-cache, public")));
+    }
+
+    @DisplayName("Export All NBS: Invalid Format")
+    @Test
+    @WithMockUser
+    void givenInvalidFormat_whenExportAllNbs_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/export").param("format", "xml"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @DisplayName("Invalid Climate Zone: Bad Request")
     @Test
     @WithMockUser
@@ -294,4 +672,178 @@ class NbsControllerTests {
         // Then
         response.andExpect(status().isBadRequest());
     }
+
+    @DisplayName("Retrieve All NBS Brief Data with cursor: Success")
+    @Test
+    @WithMockUser
+    void givenEmptyCursor_whenRetrieveAllNbsBriefData_thenReturnFirstWindowWithNextCursor() throws Exception {
+        // Given
+        String lastId = "65f1c0a2b3d4e5f601234567";
+        Window<NbsDataDto> mockWindow = Window.from(mockNbsList, index -> CursorUtils.toScrollPosition(null, lastId), true);
+        when(nbsService.retrieveAllNbsBriefData(ScrollPosition.keyset(), Sort.Direction.DESC, 2)).thenReturn(mockWindow);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/")
+                                        .param("size", "2")
+                                        .param("cursor", ""))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(2)))
+                .andExpect(jsonPath("$.data.lastPage").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").value(CursorUtils.encodeCursor(CursorUtils.toScrollPosition(null, lastId))))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @DisplayName("Retrieve NBS by Climate Zone with cursor and total: Success")
+    @Test
+    @WithMockUser
+    void givenCursor_whenRetrieveNbsByClimateZone_thenReturnNextWindowWithTotals() throws Exception {
+        // Given
+        String cursor = CursorUtils.encodeCursor(CursorUtils.toScrollPosition(new java.util.Date(1000L), "65f1c0a2b3d4e5f601234567"));
+        Window<NbsDataDto> mockWindow = Window.from(List.of(mockNbs), index -> ScrollPosition.keyset(), false);
+        when(nbsService.retrieveAllNbsBriefDataByClimateZone(ClimateZone.MEDITERRANEAN, CursorUtils.decodeCursor(cursor), Sort.Direction.DESC, 1))
+                .thenReturn(mockWindow);
+        when(nbsService.countNbs(ClimateZone.MEDITERRANEAN)).thenReturn(3L);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/zone/{climateZone}", "Mediterranean")
+                                        .param("size", "1")
+                                        .param("cursor", cursor)
+                                        .param("includeTotal", "true"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results", hasSize(1)))
+                .andExpect(jsonPath("$.data.lastPage").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.totalPages").value(3));
+    }
+
+    @DisplayName("Retrieve All NBS Brief Data with invalid cursor: Bad Request")
+    @Test
+    @WithMockUser
+    void givenInvalidCursor_whenRetrieveAllNbsBriefData_thenReturnBadRequest() throws Exception {
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/")
+                                        .param("cursor", "invalid-cursor"))
+                                        .andDo(print());
+
+        // Then
+        response.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errors").value("Invalid pagination cursor provided"));
+    }
+
+    @DisplayName("Generate presigned download URL: Success - Not cached")
+    @Test
+    @WithMockUser
+    void givenFileName_whenGenerateNbsMediaDownloadUrl_thenReturnPresignedUrlWithoutValidators() throws Exception {
+        // Given
+        when(nbsService.generateNbsMediaDownloadUrl("mock-id", "mock-file"))
+                .thenReturn(PresignedUrlDto.builder().fileName("mock-file").url("http://minio/mock-url").method("GET").build());
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}/media/{fileName}/download-url", "mock-id", "mock-file"));
+
+        // Then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.url").value("http://minio/mock-url"))
+                .andExpect(jsonPath("$.data.method").value("GET"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @DisplayName("Generate presigned download URL: Failure - File of another NBS")
+    @Test
+    @WithMockUser
+    void givenFileOfAnotherNbs_whenGenerateNbsMediaDownloadUrl_thenReturnNotFound() throws Exception {
+        // Given
+        when(nbsService.generateNbsMediaDownloadUrl("mock-id", "other-file"))
+                .thenThrow(new ResourceNotFoundException("File: other-file not found for NBS with id: mock-id"));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/{id}/media/{fileName}/download-url", "mock-id", "other-file"));
+
+        // Then
+        response.andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Stream NBS media: Success - Whole file")
+    @Test
+    @WithMockUser
+    void givenNoRange_whenStreamNbsMedia_thenReturnWholeFile() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsMediaFile("mock-id", "video.mp4")).thenReturn(mockMediaFile);
+        when(nbsService.downloadNbsMedia("video.mp4", 0, 10)).thenReturn(new ByteArrayInputStream(MEDIA_CONTENT));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/mock-id/media/video.mp4"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("video/mp4"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"mock-etag\""))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(MEDIA_CONTENT));
+    }
+
+    @DisplayName("Stream NBS media: Success - Partial content")
+    @Test
+    @WithMockUser
+    void givenRange_whenStreamNbsMedia_thenReturnPartialContent() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsMediaFile("mock-id", "video.mp4")).thenReturn(mockMediaFile);
+        when(nbsService.downloadNbsMedia("video.mp4", 2, 4)).thenReturn(new ByteArrayInputStream(MEDIA_CONTENT, 2, 4));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/mock-id/media/video.mp4")
+                                                .header(HttpHeaders.RANGE, "bytes=2-5"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(new byte[]{2, 3, 4, 5}));
+    }
+
+    @DisplayName("Stream NBS media: Failure - Range not satisfiable")
+    @Test
+    @WithMockUser
+    void givenRangeBeyondFile_whenStreamNbsMedia_thenReturnRangeNotSatisfiable() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsMediaFile("mock-id", "video.mp4")).thenReturn(mockMediaFile);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/mock-id/media/video.mp4")
+                                                .header(HttpHeaders.RANGE, "bytes=20-30"));
+
+        // Then
+        response.andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        verify(nbsService, never()).downloadNbsMedia(anyString(), anyLong(), anyLong());
+    }
+
+    @DisplayName("Stream NBS media: Not Modified")
+    @Test
+    @WithMockUser
+    void givenMatchingETag_whenStreamNbsMedia_thenReturnNotModified() throws Exception {
+        // Given
+        when(nbsService.retrieveNbsMediaFile("mock-id", "video.mp4")).thenReturn(mockMediaFile);
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/nbs/mock-id/media/video.mp4")
+                                                .header(HttpHeaders.IF_NONE_MATCH, "\"mock-etag\""));
+
+        // Then
+        response.andExpect(status().isNotModified());
+        verify(nbsService, never()).downloadNbsMedia(anyString(), anyLong(), anyLong());
+    }
 }
@@ -1,5 +1,82 @@
 package gr.atc.urbreath.controller;
 
-public class ProxyControllerTests {
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import gr.atc.urbreath.cache.NbsChangeStamp;
+import gr.atc.urbreath.exception.CustomExceptions.WebClientRequestException;
+import gr.atc.urbreath.filter.RateLimitBucketRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import gr.atc.urbreath.repository.NbsRepository;
+import gr.atc.urbreath.service.interfaces.IDataCollectorService;
+import reactor.core.publisher.Mono;
+
+@WebMvcTest(ProxyController.class)
+@Import({NbsChangeStamp.class, RateLimitBucketRegistry.class, SimpleMeterRegistry.class})
+class ProxyControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private IDataCollectorService dataCollectorService;
+
+    @MockitoBean
+    private NbsRepository nbsRepository;
+
+    @DisplayName("Retrieve Idra Datasets: Success")
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void givenAdmin_whenRetrieveDatasetsFromIdra_thenReturnDatasetsAsynchronously() throws Exception {
+        // Given
+        when(dataCollectorService.retrieveDatasetsFromIdra()).thenReturn(Mono.just(List.of("dataset-1", "dataset-2")));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/proxy/datasets"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.message", is("Idra Datasets retrieved successfully")))
+                .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
+    @DisplayName("Retrieve KPIs: Upstream Failure")
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void givenFailingKpiManager_whenRetrieveKpis_thenReturnInternalServerError() throws Exception {
+        // Given
+        when(dataCollectorService.retrieveKpisFromKpiManager())
+                .thenReturn(Mono.error(new WebClientRequestException("Unable to retrieve KPIs from KPI Manager")));
+
+        // When
+        ResultActions response = mockMvc.perform(get("/api/proxy/kpis"))
+                                        .andExpect(request().asyncStarted());
+
+        // Then
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.message", is("Internal proxy error")));
+    }
 }
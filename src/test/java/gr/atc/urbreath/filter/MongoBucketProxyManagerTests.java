@@ -0,0 +1,124 @@
+package gr.atc.urbreath.filter;
+
+import gr.atc.urbreath.models.RateLimitBucket;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Testcontainers
+class MongoBucketProxyManagerTests {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.6");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Bandwidth limit = Bandwidth.builder()
+            .capacity(3)
+            .refillGreedy(1, Duration.ofMinutes(1))
+            .build();
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(RateLimitBucket.class);
+    }
+
+    @Test
+    @DisplayName("Shared bucket: Success - Limit applies across replicas")
+    void givenTwoReplicas_whenConsumeTokens_thenShareLimit() {
+        // Given
+        Bucket firstReplica = new MongoBucketProxyManager(mongoTemplate, Runnable::run, 1, Duration.ofMillis(1)).createBucket("DEFAULT:ip:10.0.0.1", limit);
+        Bucket secondReplica = new MongoBucketProxyManager(mongoTemplate, Runnable::run, 1, Duration.ofMillis(1)).createBucket("DEFAULT:ip:10.0.0.1", limit);
+
+        // When
+        boolean firstConsumed = firstReplica.tryConsume(2);
+        boolean secondConsumed = secondReplica.tryConsume(1);
+        boolean limitExceeded = !firstReplica.tryConsume(1);
+
+        // Then
+        assertThat(firstConsumed).isTrue();
+        assertThat(secondConsumed).isTrue();
+        assertThat(limitExceeded).isTrue();
+    }
+
+    @Test
+    @DisplayName("Shared bucket: Success - Expiration is set to the full refill time")
+    void givenConsumedBucket_whenStored_thenExpireAfterFullRefill() {
+        // Given
+        Bucket bucket = new MongoBucketProxyManager(mongoTemplate, Runnable::run, 1, Duration.ofMillis(1)).createBucket("EXPORT:ip:10.0.0.1", limit);
+
+        // When
+        bucket.tryConsume(2);
+
+        // Then
+        RateLimitBucket storedBucket = mongoTemplate.findById("EXPORT:ip:10.0.0.1", RateLimitBucket.class);
+        assertThat(storedBucket).isNotNull();
+        assertThat(storedBucket.getState()).isNotEmpty();
+        assertThat(storedBucket.getExpiresAt()).isAfter(new Date(System.currentTimeMillis() + Duration.ofSeconds(90).toMillis()));
+    }
+
+    @Test
+    @DisplayName("Shared bucket: Success - Tokens are synchronized in batches")
+    void givenDelayedSynchronization_whenConsumeBelowThreshold_thenReuseLocalTokens() {
+        // Given
+        Bucket firstReplica = new MongoBucketProxyManager(mongoTemplate, Runnable::run, 2, Duration.ofMinutes(1)).createBucket("MEDIA:ip:10.0.0.1", limit);
+        firstReplica.tryConsume(1);
+        byte[] synchronizedState = mongoTemplate.findById("MEDIA:ip:10.0.0.1", RateLimitBucket.class).getState();
+
+        // When
+        firstReplica.tryConsume(1);
+
+        // Then
+        assertThat(mongoTemplate.findById("MEDIA:ip:10.0.0.1", RateLimitBucket.class).getState()).isEqualTo(synchronizedState);
+    }
+
+    @Test
+    @DisplayName("Shared bucket: Success - Asynchronous consumption shares the limit")
+    void givenAsyncBucket_whenConsumeTokens_thenShareLimitWithSyncBucket() throws Exception {
+        // Given
+        MongoBucketProxyManager proxyManager = new MongoBucketProxyManager(mongoTemplate, Executors.newVirtualThreadPerTaskExecutor(), 1, Duration.ofMillis(1));
+        AsyncBucketProxy asyncBucket = proxyManager.asAsync().builder().build("DEFAULT:ip:10.0.0.2",
+                () -> CompletableFuture.completedFuture(BucketConfiguration.builder().addLimit(limit).build()));
+        Bucket syncBucket = proxyManager.createBucket("DEFAULT:ip:10.0.0.2", limit);
+
+        // When
+        boolean asyncConsumed = asyncBucket.tryConsume(3).get();
+
+        // Then
+        assertThat(asyncConsumed).isTrue();
+        assertThat(syncBucket.tryConsume(1)).isFalse();
+
+        // When
+        proxyManager.asAsync().removeProxy("DEFAULT:ip:10.0.0.2").get();
+
+        // Then
+        assertThat(mongoTemplate.findById("DEFAULT:ip:10.0.0.2", RateLimitBucket.class)).isNull();
+    }
+}
@@ -0,0 +1,164 @@
+package gr.atc.urbreath.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import gr.atc.urbreath.enums.RateLimitGroup;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitingFilterTests {
+
+    private RateLimitingFilter rateLimitingFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitBucketRegistry bucketRegistry = new RateLimitBucketRegistry(100, 2, 1, 5, 1, 1, 1, Duration.ofSeconds(10), Optional.empty(), new SimpleMeterRegistry());
+        rateLimitingFilter = new RateLimitingFilter(bucketRegistry);
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Success - Return rate limit headers")
+    void givenRequestWithinLimit_whenFilter_thenProceedWithRateLimitHeaders() throws Exception {
+        // When
+        MockHttpServletResponse response = performRequest("/api/nbs/", "10.0.0.1");
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("2", response.getHeader(RateLimitingFilter.LIMIT_HEADER));
+        assertEquals("1", response.getHeader(RateLimitingFilter.REMAINING_HEADER));
+        assertEquals("60", response.getHeader(RateLimitingFilter.RESET_HEADER));
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Failure - Limit exceeded")
+    void givenExhaustedBucket_whenFilter_thenReturnTooManyRequests() throws Exception {
+        // Given
+        performRequest("/api/nbs/", "10.0.0.1");
+        performRequest("/api/nbs/", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse response = performRequest("/api/nbs/", "10.0.0.1");
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("0", response.getHeader(RateLimitingFilter.REMAINING_HEADER));
+        assertNotNull(response.getHeader(RateLimitingFilter.RESET_HEADER));
+        assertTrue(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER)) > 0);
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertTrue(response.getContentAsString().contains("\"success\":false"));
+        assertTrue(response.getContentAsString().contains("Rate Limit Exceeded"));
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Success - Buckets are kept per client")
+    void givenExhaustedBucketOfOtherClient_whenFilter_thenProceed() throws Exception {
+        // Given
+        performRequest("/api/nbs/", "10.0.0.1");
+        performRequest("/api/nbs/", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse response = performRequest("/api/nbs/", "10.0.0.2");
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Success - Buckets are kept per endpoint group")
+    void givenExhaustedExportBucket_whenFilterOtherGroup_thenProceed() throws Exception {
+        // Given
+        performRequest("/api/nbs/export", "10.0.0.1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), performRequest("/api/nbs/export", "10.0.0.1").getStatus());
+
+        // When
+        MockHttpServletResponse response = performRequest("/api/nbs/mock-id/media/video.mp4", "10.0.0.1");
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("5", response.getHeader(RateLimitingFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Success - Fail open to in-memory buckets if the shared store is unavailable")
+    void givenUnavailableSharedStore_whenFilter_thenApplyInMemoryLimitAndRecordFailure() throws Exception {
+        // Given
+        BucketProxy sharedBucket = mock(BucketProxy.class);
+        when(sharedBucket.tryConsumeAndReturnRemaining(anyLong())).thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"));
+        MongoBucketProxyManager sharedStore = mock(MongoBucketProxyManager.class);
+        when(sharedStore.createBucket(any(), any())).thenReturn(sharedBucket);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimitingFilter = new RateLimitingFilter(new RateLimitBucketRegistry(100, 2, 1, 5, 1, 1, 1, Duration.ofSeconds(10), Optional.of(sharedStore), meterRegistry));
+
+        // When
+        MockHttpServletResponse response = performRequest("/api/nbs/", "10.0.0.1");
+        performRequest("/api/nbs/", "10.0.0.1");
+        MockHttpServletResponse limitedResponse = performRequest("/api/nbs/", "10.0.0.1");
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("1", response.getHeader(RateLimitingFilter.REMAINING_HEADER));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), limitedResponse.getStatus());
+        assertEquals(3.0, meterRegistry.get("nbs.rate-limit.store.failures").counter().count());
+        verify(sharedBucket, times(1)).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    @DisplayName("Rate limit requests: Success - Shared store is retried after the retry interval")
+    void givenElapsedRetryInterval_whenFilter_thenRetrySharedStore() throws Exception {
+        // Given
+        BucketProxy sharedBucket = mock(BucketProxy.class);
+        when(sharedBucket.tryConsumeAndReturnRemaining(anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"))
+                .thenReturn(ConsumptionProbe.consumed(9, 60_000_000_000L));
+        MongoBucketProxyManager sharedStore = mock(MongoBucketProxyManager.class);
+        when(sharedStore.createBucket(any(), any())).thenReturn(sharedBucket);
+        rateLimitingFilter = new RateLimitingFilter(new RateLimitBucketRegistry(100, 2, 1, 5, 1, 1, 1, Duration.ZERO, Optional.of(sharedStore), new SimpleMeterRegistry()));
+
+        // When
+        performRequest("/api/nbs/", "10.0.0.1");
+        MockHttpServletResponse response = performRequest("/api/nbs/", "10.0.0.1");
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("9", response.getHeader(RateLimitingFilter.REMAINING_HEADER));
+        verify(sharedBucket, times(2)).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    @DisplayName("Resolve endpoint group: Success")
+    void givenPath_whenFromPath_thenReturnEndpointGroup() {
+        assertEquals(RateLimitGroup.EXPORT, RateLimitGroup.fromPath("/api/nbs/export"));
+        assertEquals(RateLimitGroup.MEDIA, RateLimitGroup.fromPath("/api/nbs/media/upload-url"));
+        assertEquals(RateLimitGroup.MEDIA, RateLimitGroup.fromPath("/api/nbs/mock-id/media/video.mp4"));
+        assertEquals(RateLimitGroup.DEFAULT, RateLimitGroup.fromPath("/api/nbs/mock-id"));
+    }
+
+    private MockHttpServletResponse performRequest(String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
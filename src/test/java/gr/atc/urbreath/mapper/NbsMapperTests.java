@@ -0,0 +1,124 @@
+package gr.atc.urbreath.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import gr.atc.urbreath.config.ModelMapperConfig;
+import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsCreationDataDto;
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.NbsStatus;
+import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.ImageVariant;
+import gr.atc.urbreath.models.Nbs;
+
+class NbsMapperTests {
+
+    private final NbsMapper nbsMapper = new NbsMapper();
+
+    private final ModelMapperNbsMapper modelMapperNbsMapper = new ModelMapperNbsMapper(new ModelMapperConfig().modelMapper());
+
+    private Nbs mockNbs;
+
+    @BeforeEach
+    void setUp() {
+        mockNbs = Nbs.builder()
+                .id("mock-id")
+                .title("mock-title")
+                .climateZone(ClimateZone.MEDITERRANEAN)
+                .geoLocation(new GeoLocation(1.0, 2.0, "Athens"))
+                .status(NbsStatus.IMPLEMENTED)
+                .pilot("Athens")
+                .isUrBreathNbs(true)
+                .relatedMaterial(List.of("material"))
+                .dateCreated(new Date(1700000000000L))
+                .areaCharacterization("area")
+                .objective("objective")
+                .challenges("challenges")
+                .potentialImpactsAndBenefits("benefits")
+                .lessonsLearnt("lessons")
+                .keywords(List.of("urban", "green"))
+                .problems(List.of("heat"))
+                .mainImage("main.png")
+                .images(List.of("image.png"))
+                .videos(List.of("video.mp4"))
+                .imageVariants(List.of(new ImageVariant("main.png", 320, "main_w320.jpg")))
+                .idraDatasets(List.of("dataset"))
+                .kpis(List.of("kpi"))
+                .build();
+    }
+
+    @DisplayName("Map Nbs to DTO: Same result as ModelMapper")
+    @Test
+    void givenNbs_whenMapToNbsDataDto_thenMatchModelMapper() {
+        // When
+        NbsDataDto result = nbsMapper.toNbsDataDto(mockNbs);
+
+        // Then
+        assertEquals(modelMapperNbsMapper.toNbsDataDto(mockNbs), result);
+        assertEquals(ClimateZone.MEDITERRANEAN.toString(), result.getClimateZone());
+    }
+
+    @DisplayName("Map brief Nbs to DTO: Same result as ModelMapper")
+    @Test
+    void givenBriefNbs_whenMapToNbsDataDto_thenMatchModelMapper() {
+        // Given
+        Nbs briefNbs = new Nbs();
+        briefNbs.setId("mock-id");
+        briefNbs.setTitle("mock-title");
+
+        // When - Then
+        assertEquals(modelMapperNbsMapper.toNbsDataDto(briefNbs), nbsMapper.toNbsDataDto(briefNbs));
+        assertNull(nbsMapper.toNbsDataDto(null));
+    }
+
+    @DisplayName("Map GeoLocation to DTO: Same result as ModelMapper")
+    @Test
+    void givenGeoLocation_whenMapToGeoLocationDto_thenMatchModelMapper() {
+        // When - Then
+        assertEquals(modelMapperNbsMapper.toGeoLocationDto(mockNbs.getGeoLocation()), nbsMapper.toGeoLocationDto(mockNbs.getGeoLocation()));
+        assertNull(nbsMapper.toGeoLocationDto(null));
+    }
+
+    @DisplayName("Map creation DTO to Nbs: Same result as ModelMapper")
+    @Test
+    void givenNbsCreationData_whenMapToNbs_thenMatchModelMapper() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder()
+                .id("client-id")
+                .title("mock-title")
+                .climateZone(ClimateZone.BOREAL)
+                .geoLocation(new GeoLocationDto(1.0, 2.0, "Helsinki"))
+                .status(NbsStatus.TO_BE_IMPLEMENTED)
+                .pilot("Helsinki")
+                .isUrBreathNbs(true)
+                .areaCharacterization("area")
+                .objective("objective")
+                .challenges("challenges")
+                .potentialImpactsAndBenefits("benefits")
+                .lessonsLearnt("lessons")
+                .keywords(List.of("urban"))
+                .problems(List.of("heat"))
+                .mainImage(new MockMultipartFile("mainImage", "main.png", "image/png", new byte[]{1}))
+                .idraDatasets(List.of("dataset"))
+                .kpis(List.of("kpi"))
+                .build();
+
+        // When
+        Nbs result = nbsMapper.toNbs(nbsData);
+
+        // Then
+        assertEquals(modelMapperNbsMapper.toNbs(nbsData), result);
+        assertNull(result.getId());
+        assertNull(result.getMainImage());
+    }
+}
@@ -1,18 +1,34 @@
 package gr.atc.urbreath.repository;
 
+import gr.atc.urbreath.config.MongoAuditingConfig;
+import gr.atc.urbreath.config.MongoIndexConfig;
+import gr.atc.urbreath.config.MongoQueryPlanVerifier;
 import gr.atc.urbreath.enums.ClimateZone;
 import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.ImageVariant;
 import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsCluster;
+import gr.atc.urbreath.models.NbsFacetResult;
+import gr.atc.urbreath.models.NbsFilter;
+import gr.atc.urbreath.repository.callbacks.NbsLocationCallback;
 
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
@@ -24,12 +40,15 @@ import java.time.temporal.ChronoUnit;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataMongoTest
 @Testcontainers
+@Import({NbsLocationCallback.class, MongoAuditingConfig.class, MongoIndexConfig.class, MongoQueryPlanVerifier.class})
 class NbsRepositoryTests {
 
     @Container
@@ -38,6 +57,15 @@ class NbsRepositoryTests {
     @Autowired
     private NbsRepository nbsRepository;
 
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @Autowired
+    private MongoQueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private Nbs mediterraneanNbs;
     private Nbs borealNbs;
 
@@ -50,6 +78,7 @@ class NbsRepositoryTests {
     void setUp() {
         // Clear the database before each test
         nbsRepository.deleteAll();
+        mongoIndexConfig.ensureIndexes();
 
         // Create test data
         mediterraneanNbs = new Nbs();
@@ -89,6 +118,7 @@ class NbsRepositoryTests {
         assertThat(foundNbs).isPresent();
         assertThat(foundNbs.get().getTitle()).isEqualTo("Mediterranean NBS");
         assertThat(foundNbs.get().getClimateZone()).isEqualTo(ClimateZone.MEDITERRANEAN);
+        assertThat(foundNbs.get().getLastModified()).isNotNull();
     }
 
     @Test
@@ -181,4 +211,286 @@ class NbsRepositoryTests {
         assertThat(secondPage.isFirst()).isFalse();
         assertThat(secondPage.isLast()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Stream NBS geolocations - Success")
+    void whenStreamNbsGeolocations_thenReturnOnlyIdAndGeolocation() {
+        // Given - NBS without geolocation should be excluded
+        Nbs nbsWithoutLocation = new Nbs();
+        nbsWithoutLocation.setTitle("NBS without location");
+        nbsRepository.save(nbsWithoutLocation);
+
+        // When
+        List<Nbs> geolocations;
+        try (Stream<Nbs> stream = nbsRepository.streamNbsGeolocations()) {
+            geolocations = stream.toList();
+        }
+
+        // Then
+        assertThat(geolocations).hasSize(2);
+        assertThat(geolocations).allSatisfy(nbs -> {
+            assertThat(nbs.getId()).isNotNull();
+            assertThat(nbs.getGeoLocation()).isNotNull();
+            assertThat(nbs.getTitle()).isNull();
+            assertThat(nbs.getKeywords()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Stream all NBS - Success")
+    void whenStreamAllNbs_thenReturnAllRecords() {
+        // When
+        List<Nbs> allNbs;
+        try (Stream<Nbs> stream = nbsRepository.streamAllNbs()) {
+            allNbs = stream.toList();
+        }
+
+        // Then
+        assertThat(allNbs).hasSize(2);
+        assertThat(allNbs).extracting(Nbs::getTitle).containsExactlyInAnyOrder("Mediterranean NBS", "Boreal NBS");
+    }
+
+    @Test
+    @DisplayName("Find NBS brief data near a location - Success")
+    void givenLocationAndRadius_whenFindNbsBriefDataNear_thenReturnRecordsByDistance() {
+        // When
+        Page<Nbs> nearbyNbs = nbsRepository.findNbsBriefDataNear(4.1, 4.1, 100_000, PageRequest.of(0, 10));
+        Page<Nbs> allNbs = nbsRepository.findNbsBriefDataNear(4.1, 4.1, 500_000, PageRequest.of(0, 10));
+        Page<Nbs> secondPage = nbsRepository.findNbsBriefDataNear(4.1, 4.1, 500_000, PageRequest.of(1, 1));
+
+        // Then
+        assertThat(nearbyNbs.getContent()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS");
+        assertThat(allNbs.getContent()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS", "Boreal NBS");
+        assertThat(allNbs.getContent().get(0).getObjective()).isNull();
+        assertThat(secondPage.getContent()).extracting(Nbs::getTitle).containsExactly("Boreal NBS");
+        assertThat(secondPage.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Find NBS brief data within a bounding box - Success")
+    void givenBoundingBox_whenFindNbsBriefDataWithinBox_thenReturnRecordsInside() {
+        // When
+        Page<Nbs> nbsInBox = nbsRepository.findNbsBriefDataWithinBox(4.5, 4.5, 6.0, 6.0, PageRequest.of(0, 10));
+        Page<Nbs> worldPage = nbsRepository.findNbsBriefDataWithinBox(-180, -90, 180, 90, PageRequest.of(0, 1));
+
+        // Then
+        assertThat(nbsInBox.getContent()).extracting(Nbs::getTitle).containsExactly("Boreal NBS");
+        assertThat(worldPage.getContent()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS");
+        assertThat(worldPage.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Find NBS brief data within a wide bounding box - Edges follow the lines of latitude")
+    void givenWideBoundingBox_whenFindNbsBriefDataWithinBox_thenExcludeRecordsBeyondNorthEdge() {
+        // Given - A geodesic edge between (-90, 60) and (90, 60) crosses the pole and would include this record
+        Nbs northernNbs = new Nbs();
+        northernNbs.setTitle("Northern NBS");
+        northernNbs.setGeoLocation(new GeoLocation(61.0, 0.0, null));
+        Nbs antimeridianNbs = new Nbs();
+        antimeridianNbs.setTitle("Antimeridian NBS");
+        antimeridianNbs.setGeoLocation(new GeoLocation(10.0, 180.0, null));
+        nbsRepository.saveAll(List.of(northernNbs, antimeridianNbs));
+
+        // When
+        Page<Nbs> nbsInBox = nbsRepository.findNbsBriefDataWithinBox(-90, 0, 90, 60, PageRequest.of(0, 10));
+        Page<Nbs> easternNbs = nbsRepository.findNbsBriefDataWithinBox(170, 0, 180, 20, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(nbsInBox.getContent()).extracting(Nbs::getTitle).containsExactlyInAnyOrder("Mediterranean NBS", "Boreal NBS");
+        assertThat(easternNbs.getContent()).extracting(Nbs::getTitle).containsExactly("Antimeridian NBS");
+    }
+
+    @Test
+    @DisplayName("Verify query plans of repository queries - Success")
+    void givenIndexes_whenVerifyQueryPlans_thenNoCollectionScansOrInMemorySorts() {
+        // When
+        Map<String, List<String>> inefficientQueries = queryPlanVerifier.verifyQueryPlans();
+
+        // Then
+        assertThat(inefficientQueries).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Attach media to NBS - Success")
+    void givenUploadedFiles_whenAttachNbsMedia_thenAppendFiles() {
+        // Given
+        nbsRepository.attachNbsMedia(mediterraneanNbs.getId(), null, List.of("image-1"), List.of(), List.of());
+
+        // When
+        Nbs updatedNbs = nbsRepository.attachNbsMedia(mediterraneanNbs.getId(), "main-image", List.of("image-2"), List.of("video-1"),
+                List.of(new ImageVariant("main-image", 320, "main-image_w320.jpg")));
+
+        // Then
+        assertThat(updatedNbs.getMainImage()).isEqualTo("main-image");
+        assertThat(updatedNbs.getImages()).containsExactly("image-1", "image-2");
+        assertThat(updatedNbs.getVideos()).containsExactly("video-1");
+        assertThat(updatedNbs.getImageVariants()).extracting(ImageVariant::getFileName).containsExactly("main-image_w320.jpg");
+        assertThat(updatedNbs.getLastModified()).isNotNull();
+        assertThat(nbsRepository.attachNbsMedia(new ObjectId().toHexString(), "main-image", List.of(), List.of(), List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Attach media to NBS - Variants of replaced main image are removed")
+    void givenReplacedMainImage_whenAttachNbsMedia_thenRemoveVariantsOfPreviousMainImage() {
+        // Given
+        nbsRepository.attachNbsMedia(mediterraneanNbs.getId(), "old-image", List.of("image-1"), List.of(),
+                List.of(new ImageVariant("old-image", 320, "old-image_w320.jpg"), new ImageVariant("image-1", 320, "image-1_w320.jpg")));
+
+        // When
+        Nbs updatedNbs = nbsRepository.attachNbsMedia(mediterraneanNbs.getId(), "new-image", List.of(), List.of(),
+                List.of(new ImageVariant("new-image", 320, "new-image_w320.jpg")));
+
+        // Then
+        assertThat(updatedNbs.getMainImage()).isEqualTo("new-image");
+        assertThat(updatedNbs.getImages()).containsExactly("image-1");
+        assertThat(updatedNbs.getImageVariants()).extracting(ImageVariant::getFileName).containsExactly("image-1_w320.jpg", "new-image_w320.jpg");
+    }
+
+    @Test
+    @DisplayName("Backfill GeoJSON location of existing NBS - Success")
+    void givenNbsWithoutLocation_whenBackfillNbsLocations_thenGenerateLocation() {
+        // Given - unset location as in records stored before its introduction
+        mongoTemplate.updateMulti(new Query(), new Update().unset("location"), Nbs.class);
+
+        // When
+        int updates = mongoIndexConfig.backfillNbsLocations();
+
+        // Then
+        assertThat(updates).isEqualTo(2);
+        assertThat(nbsRepository.findNbsBriefDataWithinBox(3.5, 3.5, 4.5, 4.5, PageRequest.of(0, 10)).getContent()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Cluster NBS locations - Success")
+    void givenCellSize_whenClusterNbsLocations_thenReturnCountAndCentroidPerCell() {
+        // When
+        List<NbsCluster> singleCell = nbsRepository.clusterNbsLocations(1, -180, -90, 180, 90);
+        List<NbsCluster> separateCells = nbsRepository.clusterNbsLocations(1024, -180, -90, 180, 90);
+        List<NbsCluster> filteredCells = nbsRepository.clusterNbsLocations(1024, 3.5, 3.5, 4.5, 4.5);
+
+        // Then
+        assertThat(singleCell).hasSize(1);
+        assertThat(singleCell.get(0).getCount()).isEqualTo(2);
+        assertThat(singleCell.get(0).getLatitude()).isEqualTo(4.5);
+        assertThat(singleCell.get(0).getLongitude()).isEqualTo(4.5);
+
+        assertThat(separateCells).hasSize(2).allSatisfy(cluster -> assertThat(cluster.getNbsId()).isNotNull());
+        assertThat(filteredCells).hasSize(1);
+        assertThat(filteredCells.get(0).getLatitude()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Cluster NBS locations - Cells follow the Web Mercator tiles")
+    void givenHighLatitudes_whenClusterNbsLocations_thenBinProjectedLatitudes() {
+        // Given - 1 degree apart at 60N, which is more than one Mercator cell height of a 256 cells grid (~0.7 degrees)
+        Nbs southernNbs = new Nbs();
+        southernNbs.setTitle("Southern Nordic NBS");
+        southernNbs.setGeoLocation(new GeoLocation(60.5, 25.0, null));
+        Nbs northernNbs = new Nbs();
+        northernNbs.setTitle("Northern Nordic NBS");
+        northernNbs.setGeoLocation(new GeoLocation(61.5, 25.0, null));
+        nbsRepository.saveAll(List.of(southernNbs, northernNbs));
+
+        // When
+        List<NbsCluster> clusters = nbsRepository.clusterNbsLocations(256, 20, 55, 30, 65);
+
+        // Then
+        assertThat(clusters).hasSize(2).allSatisfy(cluster -> assertThat(cluster.getCount()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Full-text search NBS brief data - Success")
+    void givenSearchTerms_whenSearchNbsBriefData_thenReturnRecordsRankedByScore() {
+        // Given
+        mediterraneanNbs.setObjective("Reduce urban heat with green roofs");
+        borealNbs.setLessonsLearnt("Green corridors improve biodiversity");
+        nbsRepository.saveAll(List.of(mediterraneanNbs, borealNbs));
+
+        // When
+        Page<Nbs> greenResults = nbsRepository.searchNbsBriefData("green", PageRequest.of(0, 10));
+        Page<Nbs> urbanResults = nbsRepository.searchNbsBriefData("urban", PageRequest.of(0, 1));
+
+        // Then
+        assertThat(greenResults.getTotalElements()).isEqualTo(2);
+        assertThat(urbanResults.getContent()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS");
+        assertThat(urbanResults.getContent().get(0).getLessonsLearnt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Filter NBS brief data with facet counts - Success")
+    void givenFilters_whenFilterNbsBriefDataWithFacets_thenReturnPageAndFacetCounts() {
+        // When
+        NbsFacetResult allNbs = nbsRepository.filterNbsBriefDataWithFacets(new NbsFilter(), PageRequest.of(0, 1));
+        NbsFacetResult borealNbs = nbsRepository.filterNbsBriefDataWithFacets(NbsFilter.builder()
+                .climateZone(ClimateZone.BOREAL)
+                .keywords(List.of("biodiversity", "water"))
+                .build(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(allNbs.getResults()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS");
+        assertThat(allNbs.getTotal().get(0).getCount()).isEqualTo(2);
+        assertThat(allNbs.getClimateZone()).hasSize(2);
+        assertThat(allNbs.getIsUrBreathNbs()).singleElement().satisfies(facet -> {
+            assertThat(facet.getValue()).isEqualTo(true);
+            assertThat(facet.getCount()).isEqualTo(2);
+        });
+        assertThat(allNbs.getKeywords()).extracting(NbsFacetResult.FacetCount::getValue).containsExactlyInAnyOrder("urban", "biodiversity");
+
+        assertThat(borealNbs.getResults()).extracting(Nbs::getTitle).containsExactly("Boreal NBS");
+        assertThat(borealNbs.getTotal().get(0).getCount()).isEqualTo(1);
+        assertThat(borealNbs.getPilot()).singleElement().satisfies(facet -> assertThat(facet.getValue()).isEqualTo("Helsinki"));
+        assertThat(borealNbs.getProblems()).isEmpty();
+
+        // Facets are counted without their own filter, so the other values of a selected facet keep their counts
+        NbsFacetResult mediterraneanFacets = nbsRepository.filterNbsBriefDataWithFacets(NbsFilter.builder()
+                .climateZone(ClimateZone.MEDITERRANEAN)
+                .build(), PageRequest.of(0, 10));
+        assertThat(mediterraneanFacets.getResults()).extracting(Nbs::getTitle).containsExactly("Mediterranean NBS");
+        assertThat(mediterraneanFacets.getClimateZone()).extracting(NbsFacetResult.FacetCount::getValue).containsExactlyInAnyOrder("MEDITERRANEAN", "BOREAL");
+        assertThat(mediterraneanFacets.getPilot()).singleElement().satisfies(facet -> assertThat(facet.getValue()).isEqualTo("Athens"));
+
+        // Records matching all filters except one are still counted by the facet of that filter
+        NbsFacetResult unmatchedPilotFacets = nbsRepository.filterNbsBriefDataWithFacets(NbsFilter.builder()
+                .climateZone(ClimateZone.BOREAL)
+                .pilot("Athens")
+                .build(), PageRequest.of(0, 10));
+        assertThat(unmatchedPilotFacets.getResults()).isEmpty();
+        assertThat(unmatchedPilotFacets.getPilot()).singleElement().satisfies(facet -> assertThat(facet.getValue()).isEqualTo("Helsinki"));
+        assertThat(unmatchedPilotFacets.getClimateZone()).singleElement().satisfies(facet -> assertThat(facet.getValue()).isEqualTo("MEDITERRANEAN"));
+    }
+
+    @Test
+    @DisplayName("Scroll NBS brief data with keyset pagination - Success")
+    void givenKeysetPosition_whenScrollNbsBriefData_thenReturnNextRecords() {
+        // When - get first window with 1 item
+        Window<Nbs> firstWindow = nbsRepository.scrollNbsBriefData(null, ScrollPosition.keyset(), Sort.Direction.DESC, 1);
+
+        // Then
+        assertThat(firstWindow.getContent()).hasSize(1);
+        assertThat(firstWindow.getContent().get(0).getTitle()).isEqualTo("Mediterranean NBS");
+        assertThat(firstWindow.getContent().get(0).getDateCreated()).isNotNull();
+        assertThat(firstWindow.hasNext()).isTrue();
+
+        // When - get second window after the last record of the first one
+        KeysetScrollPosition nextPosition = (KeysetScrollPosition) firstWindow.positionAt(0);
+        Window<Nbs> secondWindow = nbsRepository.scrollNbsBriefData(null, nextPosition, Sort.Direction.DESC, 1);
+
+        // Then
+        assertThat(secondWindow.getContent()).hasSize(1);
+        assertThat(secondWindow.getContent().get(0).getTitle()).isEqualTo("Boreal NBS");
+        assertThat(secondWindow.isLast()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Scroll NBS brief data with keyset pagination filtered by Climate Zone - Success")
+    void givenClimateZone_whenScrollNbsBriefData_thenReturnFilteredRecords() {
+        // When
+        Window<Nbs> borealWindow = nbsRepository.scrollNbsBriefData(ClimateZone.BOREAL, ScrollPosition.keyset(), Sort.Direction.ASC, 5);
+
+        // Then
+        assertThat(borealWindow.getContent()).hasSize(1);
+        assertThat(borealWindow.getContent().get(0).getTitle()).isEqualTo("Boreal NBS");
+        assertThat(borealWindow.isLast()).isTrue();
+        assertThat(nbsRepository.countByClimateZone(ClimateZone.BOREAL)).isEqualTo(1);
+    }
+}
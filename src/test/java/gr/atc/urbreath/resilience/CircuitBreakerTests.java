@@ -0,0 +1,125 @@
+package gr.atc.urbreath.resilience;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gr.atc.urbreath.enums.CircuitBreakerState;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+class CircuitBreakerTests {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    private CircuitBreaker circuitBreaker;
+
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("kpi-manager", 2, OPEN_DURATION, 1, IllegalStateException.class::isInstance);
+        calls = new AtomicInteger();
+    }
+
+    @DisplayName("Protect upstream call: Open after consecutive failures")
+    @Test
+    void givenConsecutiveFailures_whenProtect_thenOpenAndRejectWithoutCalling() {
+        // Given
+        failingCall();
+        failingCall();
+
+        // When
+        Mono<String> rejectedCall = circuitBreaker.protect(upstreamCall(Mono.just("kpi-1")));
+
+        // Then
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+        UpstreamUnavailableException exception = assertThrows(UpstreamUnavailableException.class, rejectedCall::block);
+        assertEquals("Circuit breaker of kpi-manager is open", exception.getMessage());
+        assertEquals(2, calls.get());
+    }
+
+    @DisplayName("Protect upstream call: Close after successful probe")
+    @Test
+    void givenOpenCircuit_whenProbeSucceeds_thenClose() throws Exception {
+        // Given
+        failingCall();
+        failingCall();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        // When
+        String result = circuitBreaker.protect(upstreamCall(Mono.just("kpi-1"))).block();
+
+        // Then
+        assertEquals("kpi-1", result);
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @DisplayName("Protect upstream call: Reopen after failed probe")
+    @Test
+    void givenOpenCircuit_whenProbeFails_thenReopen() throws Exception {
+        // Given
+        failingCall();
+        failingCall();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        // When
+        failingCall();
+
+        // Then
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+        assertThrows(UpstreamUnavailableException.class, () -> circuitBreaker.protect(upstreamCall(Mono.just("kpi-1"))).block());
+        assertEquals(3, calls.get());
+    }
+
+    @DisplayName("Protect upstream call: Ignored errors do not open the circuit")
+    @Test
+    void givenIgnoredErrors_whenProtect_thenRemainClosed() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            Mono<String> call = circuitBreaker.protect(upstreamCall(Mono.error(new WebClientRequestException("Unable to retrieve KPIs"))));
+            assertThrows(WebClientRequestException.class, call::block);
+        }
+
+        // Then
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @DisplayName("Protect upstream call: Bulkhead rejects excess concurrent calls")
+    @Test
+    void givenFullBulkhead_whenProtect_thenRejectWithoutCalling() {
+        // Given
+        Sinks.One<String> pendingResponse = Sinks.one();
+        circuitBreaker.protect(upstreamCall(pendingResponse.asMono())).subscribe();
+
+        // When
+        Mono<String> rejectedCall = circuitBreaker.protect(upstreamCall(Mono.just("kpi-1")));
+
+        // Then
+        UpstreamUnavailableException exception = assertThrows(UpstreamUnavailableException.class, rejectedCall::block);
+        assertEquals("Maximum concurrent calls to kpi-manager reached", exception.getMessage());
+        assertEquals(1, calls.get());
+
+        pendingResponse.tryEmitValue("kpi-1");
+        assertEquals("kpi-1", circuitBreaker.protect(upstreamCall(Mono.just("kpi-1"))).block());
+    }
+
+    private void failingCall() {
+        Mono<String> call = circuitBreaker.protect(upstreamCall(Mono.error(new IllegalStateException("Connection refused"))));
+        assertThrows(IllegalStateException.class, call::block);
+    }
+
+    private Mono<String> upstreamCall(Mono<String> response) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return response;
+        });
+    }
+}
@@ -1,5 +1,121 @@
 package gr.atc.urbreath.service;
 
-public class DataCollectorServiceTests {
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import gr.atc.urbreath.cache.UpstreamDataCache;
+import gr.atc.urbreath.enums.CircuitBreakerState;
+import gr.atc.urbreath.resilience.UpstreamCircuitBreakers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataCollectorServiceTests {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(500);
+
+    private final AtomicInteger upstreamRequests = new AtomicInteger();
+
+    private final AtomicReference<HttpResponseStatus> upstreamStatus = new AtomicReference<>(HttpResponseStatus.OK);
+
+    @Mock
+    private UpstreamDataCache upstreamDataCache;
+
+    private DisposableServer kpiManager;
+
+    private UpstreamCircuitBreakers upstreamCircuitBreakers;
+
+    private DataCollectorService dataCollectorService;
+
+    @BeforeEach
+    void setUp() {
+        // Mock KPI Manager responding with the configured status
+        kpiManager = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> {
+                    upstreamRequests.incrementAndGet();
+                    return response.status(upstreamStatus.get())
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just("{\"kpis\":[{\"id\":\"kpi-1\",\"title\":\"Air Quality\"}]}"));
+                })
+                .bindNow();
+
+        // Cache is bypassed, so every retrieval reaches the circuit breaker
+        when(upstreamDataCache.get(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<Mono<List<String>>>>getArgument(1).get());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        upstreamCircuitBreakers = new UpstreamCircuitBreakers(2, OPEN_DURATION, 5, meterRegistry);
+        dataCollectorService = new DataCollectorService(WebClient.create(), upstreamDataCache, upstreamCircuitBreakers);
+        ReflectionTestUtils.setField(dataCollectorService, "kpiManagerUrl", "http://localhost:" + kpiManager.port() + "/kpis");
+        ReflectionTestUtils.setField(dataCollectorService, "kpiManagerEntriesField", "kpis");
+        ReflectionTestUtils.setField(dataCollectorService, "maxExtractedIds", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kpiManager.disposeNow();
+    }
+
+    @DisplayName("Retrieve KPIs: Circuit opens while KPI Manager is down")
+    @Test
+    void givenUnavailableKpiManager_whenRetrieveKpis_thenOpenCircuitAndFailFast() {
+        // Given
+        upstreamStatus.set(HttpResponseStatus.SERVICE_UNAVAILABLE);
+        assertThrows(WebClientRequestException.class, () -> dataCollectorService.retrieveKpisFromKpiManager().block());
+        assertThrows(WebClientRequestException.class, () -> dataCollectorService.retrieveKpisFromKpiManager().block());
+        int requestsBeforeOpen = upstreamRequests.get();
+
+        // When
+        Mono<List<String>> rejectedCall = dataCollectorService.retrieveKpisFromKpiManager();
+
+        // Then
+        assertThrows(UpstreamUnavailableException.class, rejectedCall::block);
+        assertEquals(requestsBeforeOpen, upstreamRequests.get());
+        assertEquals(CircuitBreakerState.OPEN, circuitBreakerState());
+    }
+
+    @DisplayName("Retrieve KPIs: Circuit closes once KPI Manager recovers")
+    @Test
+    void givenRecoveredKpiManager_whenOpenDurationElapses_thenCloseCircuit() throws Exception {
+        // Given
+        upstreamStatus.set(HttpResponseStatus.SERVICE_UNAVAILABLE);
+        assertThrows(WebClientRequestException.class, () -> dataCollectorService.retrieveKpisFromKpiManager().block());
+        assertThrows(WebClientRequestException.class, () -> dataCollectorService.retrieveKpisFromKpiManager().block());
+        upstreamStatus.set(HttpResponseStatus.OK);
+        Thread.sleep(OPEN_DURATION.toMillis() + 100);
+
+        // When
+        List<String> kpis = dataCollectorService.retrieveKpisFromKpiManager().block();
+
+        // Then
+        assertEquals(List.of("kpi-1"), kpis);
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreakerState());
+    }
+
+    private CircuitBreakerState circuitBreakerState() {
+        return upstreamCircuitBreakers.getCircuitBreakers().iterator().next().getState();
+    }
 }
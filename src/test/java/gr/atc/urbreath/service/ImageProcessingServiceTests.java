@@ -0,0 +1,102 @@
+package gr.atc.urbreath.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import gr.atc.urbreath.models.ImageVariant;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageProcessingServiceTests {
+
+    @Mock
+    private MinIOStorageService storageService;
+
+    private ImageProcessingService imageProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        imageProcessingService = new ImageProcessingService(storageService, List.of(768, 320, 2000), 0.8f);
+    }
+
+    @Test
+    @DisplayName("Generate image variants: Success - Only narrower variants")
+    void givenImage_whenGenerateVariants_thenStoreResizedJpegVariants() throws Exception {
+        // Given
+        ByteArrayResource image = new ByteArrayResource(generatePng(1000, 500));
+
+        // When
+        List<ImageVariant> variants = imageProcessingService.generateVariants("mock-title_image.png", image, "mock-bucket");
+
+        // Then
+        assertEquals(List.of(new ImageVariant("mock-title_image.png", 320, "mock-title_image_w320.jpg"),
+                new ImageVariant("mock-title_image.png", 768, "mock-title_image_w768.jpg")), variants);
+
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+        verify(storageService).storeFile(content.capture(), eq("mock-title_image_w320.jpg"), eq("image/jpeg"), eq("mock-bucket"));
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(content.getValue()));
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(160, thumbnail.getHeight());
+    }
+
+    @Test
+    @DisplayName("Generate image variants: Unsupported file - No variants")
+    void givenNonImageFile_whenGenerateVariants_thenReturnEmptyList() {
+        // Given
+        ByteArrayResource video = new ByteArrayResource(new byte[]{0, 1, 2, 3});
+
+        // When
+        List<ImageVariant> variants = imageProcessingService.generateVariants("mock-title_video.mp4", video, "mock-bucket");
+
+        // Then
+        assertTrue(variants.isEmpty());
+        verify(storageService, never()).storeFile(any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Generate image variants: Failure - Remove stored variants")
+    void givenFailedUpload_whenGenerateVariants_thenRemoveStoredVariants() throws Exception {
+        // Given
+        ByteArrayResource image = new ByteArrayResource(generatePng(1000, 500));
+        doNothing().doThrow(new FileUploadException("Upload failed"))
+                .when(storageService).storeFile(any(), anyString(), anyString(), anyString());
+
+        // When
+        List<ImageVariant> variants = imageProcessingService.generateVariants("mock-title_image.png", image, "mock-bucket");
+
+        // Then
+        assertTrue(variants.isEmpty());
+        verify(storageService).deleteFiles(List.of("mock-title_image_w320.jpg"), "mock-bucket");
+    }
+
+    private byte[] generatePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,267 @@
+package gr.atc.urbreath.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import gr.atc.urbreath.dto.PresignedUrlDto;
+import io.minio.GetBucketLifecycleArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Expiration;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import io.minio.messages.Tags;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+@ExtendWith(MockitoExtension.class)
+class MinIOStorageServiceTests {
+
+    @Mock
+    private MinioClient minioClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MinIOStorageService storageService;
+
+    private final MockMultipartFile image = new MockMultipartFile("images", "image.png", "image/png", new byte[]{1});
+    private final MockMultipartFile video = new MockMultipartFile("videos", "video.mp4", "video/mp4", new byte[]{2});
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        storageService = new MinIOStorageService(minioClient, "http://minio/", DataSize.ofMegabytes(5), DataSize.ofBytes(16), 15, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Upload files concurrently: Success")
+    void givenFiles_whenUploadFiles_thenReturnFileNamesInOrder() throws Exception {
+        // When
+        List<String> fileNames = storageService.uploadFiles(List.of(image, video), "mock-title", "mock-bucket");
+
+        // Then
+        assertEquals(2, fileNames.size());
+        assertTrue(fileNames.get(0).startsWith("mock-title_") && fileNames.get(0).endsWith("_image.png"));
+        assertTrue(fileNames.get(1).endsWith("_video.mp4"));
+        verify(minioClient, times(2)).putObject(any(PutObjectArgs.class));
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    @DisplayName("Upload files concurrently: Failure - Remove uploaded files")
+    void givenFailedUpload_whenUploadFiles_thenRemoveUploadedFiles() throws Exception {
+        // Given
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            if (args.object().endsWith("_video.mp4")) {
+                throw new IllegalStateException("Connection refused");
+            }
+            return null;
+        });
+
+        // When - Then
+        FileUploadException exception = assertThrows(FileUploadException.class,
+                () -> storageService.uploadFiles(List.of(image, video), "mock-title", "mock-bucket"));
+        assertTrue(exception.getMessage().contains("Connection refused"));
+        verify(minioClient).removeObject(argThat(args -> args.object().endsWith("_image.png")));
+    }
+
+    @Test
+    @DisplayName("Stream file of unknown size: Success - Report uploaded bytes")
+    void givenStreamOfUnknownSize_whenUploadStream_thenCountUploadedBytes() throws Exception {
+        // Given
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            args.stream().readAllBytes();
+            return null;
+        });
+
+        // When
+        String fileName = storageService.uploadStream(new ByteArrayInputStream(new byte[10]), -1, "mock-title", "video.mp4", "video/mp4", "mock-bucket");
+
+        // Then
+        assertTrue(fileName.endsWith("_video.mp4"));
+        assertEquals(10, meterRegistry.get("nbs.media.upload.bytes").counter().count());
+        assertEquals(1, meterRegistry.get("nbs.media.upload").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Stream file of unknown size: Failure - Maximum upload size exceeded")
+    void givenStreamExceedingMaxSize_whenUploadStream_thenThrowMaxUploadSizeExceededException() throws Exception {
+        // Given
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            args.stream().readAllBytes();
+            return null;
+        });
+
+        // When - Then
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> storageService.uploadStream(new ByteArrayInputStream(new byte[32]), -1, "mock-title", "video.mp4", "video/mp4", "mock-bucket"));
+        assertEquals(1, meterRegistry.get("nbs.media.upload").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Stream file of known size: Failure - Rejected before upload")
+    void givenSizeExceedingMaxSize_whenUploadStream_thenRejectWithoutUploading() throws Exception {
+        // When - Then
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> storageService.uploadStream(new ByteArrayInputStream(new byte[32]), 32, "mock-title", "video.mp4", "video/mp4", "mock-bucket"));
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    @DisplayName("Stream pending file: Success - Tagged as pending")
+    void givenStream_whenUploadPendingStream_thenTagAsPending() throws Exception {
+        // When
+        storageService.uploadPendingStream(new ByteArrayInputStream(new byte[10]), 10, "mock-title", "video.mp4", "video/mp4", "mock-bucket");
+
+        // Then
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> "pending".equals(args.tags().get().get("upload-status"))));
+    }
+
+    @Test
+    @DisplayName("Restore pending uploads: Tag files as pending and continue on failures")
+    void givenConfirmedFiles_whenRestorePendingUploads_thenTagAsPending() throws Exception {
+        // Given
+        lenient().doThrow(new IOException("MinIO unavailable")).when(minioClient)
+                .setObjectTags(argThat(args -> args != null && "failing-file".equals(args.object())));
+
+        // When
+        storageService.restorePendingUploads(List.of("failing-file", "confirmed-file"), "mock-bucket");
+
+        // Then
+        verify(minioClient).setObjectTags(argThat(args -> args != null && "confirmed-file".equals(args.object())
+                && "pending".equals(args.tags().get().get("upload-status"))));
+    }
+
+    @Test
+    @DisplayName("Check pending upload: Only pending files of the bucket")
+    void givenFiles_whenIsPendingUpload_thenMatchPendingTag() throws Exception {
+        // Given
+        when(minioClient.getObjectTags(argThat(args -> args != null && "pending-file".equals(args.object()))))
+                .thenReturn(Tags.newObjectTags(Map.of("upload-status", "pending")));
+        when(minioClient.getObjectTags(argThat(args -> args != null && "referenced-file".equals(args.object()))))
+                .thenReturn(new Tags());
+        ErrorResponse noSuchKey = new ErrorResponse("NoSuchKey", "Not found", "mock-bucket", "missing-file", null, null, null);
+        when(minioClient.getObjectTags(argThat(args -> args != null && "missing-file".equals(args.object()))))
+                .thenThrow(new ErrorResponseException(noSuchKey, null, null));
+
+        // When - Then
+        assertTrue(storageService.isPendingUpload("pending-file", "mock-bucket"));
+        assertFalse(storageService.isPendingUpload("referenced-file", "mock-bucket"));
+        assertFalse(storageService.isPendingUpload("missing-file", "mock-bucket"));
+    }
+
+    @Test
+    @DisplayName("Configure pending upload expiry: Existing rules preserved")
+    void givenExistingLifecycleRule_whenConfigurePendingUploadExpiry_thenAddExpiryRule() throws Exception {
+        // Given
+        LifecycleRule existingRule = new LifecycleRule(Status.ENABLED, null, new Expiration((ZonedDateTime) null, 30, null),
+                new RuleFilter("exports/"), "expire-exports", null, null, null);
+        when(minioClient.getBucketLifecycle(any(GetBucketLifecycleArgs.class))).thenReturn(new LifecycleConfiguration(List.of(existingRule)));
+
+        // When
+        storageService.configurePendingUploadExpiry("mock-bucket", 1);
+
+        // Then
+        verify(minioClient).setBucketLifecycle(argThat((SetBucketLifecycleArgs args) -> {
+            List<LifecycleRule> rules = args.config().rules();
+            return rules.size() == 2
+                    && "expire-exports".equals(rules.get(0).id())
+                    && "expire-pending-uploads".equals(rules.get(1).id())
+                    && rules.get(1).expiration().days() == 1
+                    && "pending".equals(rules.get(1).filter().tag().value());
+        }));
+    }
+
+    @Test
+    @DisplayName("Generate presigned upload policy: Success - Content type and size restricted")
+    void givenFileName_whenGenerateUploadUrl_thenReturnPostPolicyWithGeneratedFileName() throws Exception {
+        // Given
+        when(minioClient.getPresignedPostFormData(any(PostPolicy.class))).thenReturn(Map.of("policy", "mock-policy", "x-amz-signature", "mock-signature"));
+
+        // When
+        PresignedUrlDto presignedUrl = storageService.generateUploadUrl("mock-title", "video.mp4", "video/mp4", "mock-bucket");
+
+        // Then
+        assertEquals("http://minio/mock-bucket", presignedUrl.getUrl());
+        assertEquals("POST", presignedUrl.getMethod());
+        assertTrue(presignedUrl.getFileName().startsWith("mock-title_") && presignedUrl.getFileName().endsWith("_video.mp4"));
+        assertEquals(presignedUrl.getFileName(), presignedUrl.getFormData().get("key"));
+        assertEquals("video/mp4", presignedUrl.getFormData().get("Content-Type"));
+        assertTrue(presignedUrl.getFormData().get("tagging").contains("<Value>pending</Value>"));
+        assertEquals("mock-policy", presignedUrl.getFormData().get("policy"));
+        assertNotNull(presignedUrl.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Generate presigned download URL: Success")
+    void givenFileName_whenGenerateDownloadUrl_thenReturnGetUrl() throws Exception {
+        // Given
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class))).thenReturn("http://minio/mock-url");
+
+        // When
+        PresignedUrlDto presignedUrl = storageService.generateDownloadUrl("video-file", "mock-bucket");
+
+        // Then
+        assertEquals("http://minio/mock-url", presignedUrl.getUrl());
+        assertEquals("GET", presignedUrl.getMethod());
+        verify(minioClient).getPresignedObjectUrl(argThat(args -> args.method() == Method.GET && args.expiry() == 15 * 60));
+    }
+
+    @Test
+    @DisplayName("Download file range: Success - Only the range is requested")
+    void givenRange_whenDownloadFile_thenRequestRangeFromStorage() throws Exception {
+        // When
+        storageService.downloadFile("video-file", 100, 50, "mock-bucket");
+
+        // Then
+        verify(minioClient).getObject(argThat(args -> "video-file".equals(args.object())
+                && args.offset() == 100 && args.length() == 50));
+    }
+
+    @Test
+    @DisplayName("Retrieve file metadata: Failure - File not found")
+    void givenMissingFile_whenRetrieveFileMetadata_thenThrowResourceNotFoundException() throws Exception {
+        // Given
+        ErrorResponse errorResponse = new ErrorResponse("NoSuchKey", "Object does not exist", "mock-bucket", "missing-file", null, null, null);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(new ErrorResponseException(errorResponse, null, null));
+
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> storageService.retrieveFileMetadata("missing-file", "mock-bucket"));
+    }
+}
@@ -0,0 +1,119 @@
+package gr.atc.urbreath.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsDetailsDto;
+import gr.atc.urbreath.enums.NbsExpansion;
+import gr.atc.urbreath.service.interfaces.IDataCollectorService;
+import reactor.core.publisher.Mono;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+@ExtendWith(MockitoExtension.class)
+class NbsEnrichmentServiceTests {
+
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofMillis(200);
+
+    @Mock
+    private IDataCollectorService dataCollectorService;
+
+    private NbsEnrichmentService nbsEnrichmentService;
+
+    private NbsDataDto mockNbsDto;
+
+    @BeforeEach
+    void setUp() {
+        nbsEnrichmentService = new NbsEnrichmentService(dataCollectorService, UPSTREAM_TIMEOUT, UPSTREAM_TIMEOUT);
+
+        mockNbsDto = NbsDataDto.builder()
+                .id("mock-id")
+                .title("mock-title")
+                .idraDatasets(List.of("dataset-1", "dataset-3"))
+                .kpis(List.of("kpi-2"))
+                .build();
+    }
+
+    @DisplayName("Expand NBS: Success")
+    @Test
+    void givenBothExpansions_whenExpandNbs_thenResolveReferencedIds() {
+        // Given
+        when(dataCollectorService.retrieveDatasetsFromIdra()).thenReturn(Mono.just(List.of("dataset-1", "dataset-2")));
+        when(dataCollectorService.retrieveKpisFromKpiManager()).thenReturn(Mono.just(List.of("kpi-1", "kpi-2")));
+
+        // When
+        NbsDetailsDto result = nbsEnrichmentService.expandNbs(mockNbsDto, EnumSet.allOf(NbsExpansion.class)).block();
+
+        // Then
+        assertNotNull(result);
+        assertEquals(mockNbsDto, result.getNbs());
+        assertEquals(List.of("dataset-1"), result.getResolvedIdraDatasets());
+        assertEquals(List.of("kpi-2"), result.getResolvedKpis());
+        assertNull(result.getUnavailableExpansions());
+    }
+
+    @DisplayName("Expand NBS: Partial result if an upstream times out")
+    @Test
+    void givenSlowKpiManager_whenExpandNbs_thenReturnDatasetsAndReportKpisUnavailable() {
+        // Given
+        when(dataCollectorService.retrieveDatasetsFromIdra()).thenReturn(Mono.just(List.of("dataset-1", "dataset-3")));
+        when(dataCollectorService.retrieveKpisFromKpiManager()).thenReturn(Mono.never());
+
+        // When
+        NbsDetailsDto result = nbsEnrichmentService.expandNbs(mockNbsDto, EnumSet.allOf(NbsExpansion.class)).block();
+
+        // Then
+        assertNotNull(result);
+        assertEquals(List.of("dataset-1", "dataset-3"), result.getResolvedIdraDatasets());
+        assertNull(result.getResolvedKpis());
+        assertEquals(List.of(NbsExpansion.KPIS), result.getUnavailableExpansions());
+    }
+
+    @DisplayName("Expand NBS: Partial result if an upstream fails")
+    @Test
+    void givenFailingIdra_whenExpandNbs_thenReportDatasetsUnavailable() {
+        // Given
+        when(dataCollectorService.retrieveDatasetsFromIdra())
+                .thenReturn(Mono.error(new WebClientRequestException("Unable to retrieve datasets from Idra")));
+
+        // When
+        NbsDetailsDto result = nbsEnrichmentService.expandNbs(mockNbsDto, Set.of(NbsExpansion.DATASETS)).block();
+
+        // Then
+        assertNotNull(result);
+        assertNull(result.getResolvedIdraDatasets());
+        assertNull(result.getResolvedKpis());
+        assertEquals(List.of(NbsExpansion.DATASETS), result.getUnavailableExpansions());
+        verify(dataCollectorService, never()).retrieveKpisFromKpiManager();
+    }
+
+    @DisplayName("Expand NBS: Upstream skipped if nothing is referenced")
+    @Test
+    void givenNoReferencedKpis_whenExpandNbs_thenSkipKpiManager() {
+        // Given
+        mockNbsDto.setKpis(null);
+
+        // When
+        NbsDetailsDto result = nbsEnrichmentService.expandNbs(mockNbsDto, Set.of(NbsExpansion.KPIS)).block();
+
+        // Then
+        assertNotNull(result);
+        assertEquals(List.of(), result.getResolvedKpis());
+        verify(dataCollectorService, never()).retrieveKpisFromKpiManager();
+    }
+}
@@ -2,10 +2,20 @@ package gr.atc.urbreath.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,24 +24,48 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.MappingException;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.spi.ErrorMessage;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.mock.web.MockMultipartFile;
 
 import gr.atc.urbreath.dto.GeoLocationDto;
+import gr.atc.urbreath.dto.NbsClusterDto;
+import gr.atc.urbreath.dto.NbsCreationDataDto;
 import gr.atc.urbreath.dto.NbsDataDto;
+import gr.atc.urbreath.dto.NbsFilterResultDto;
+import gr.atc.urbreath.dto.NbsMediaDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import gr.atc.urbreath.cache.NbsChangeStamp;
+import gr.atc.urbreath.cache.NbsDataCache;
+
 import gr.atc.urbreath.enums.ClimateZone;
+import gr.atc.urbreath.enums.ExportFormat;
+import gr.atc.urbreath.events.NbsChangedEvent;
+import gr.atc.urbreath.mapper.interfaces.INbsMapper;
 import gr.atc.urbreath.models.GeoLocation;
+import gr.atc.urbreath.models.ImageVariant;
+import gr.atc.urbreath.models.MediaFile;
 import gr.atc.urbreath.models.Nbs;
+import gr.atc.urbreath.models.NbsCluster;
+import gr.atc.urbreath.models.NbsFacetResult;
+import gr.atc.urbreath.models.NbsFacetResult.FacetCount;
+import gr.atc.urbreath.models.NbsFilter;
 
 import static gr.atc.urbreath.exception.CustomExceptions.*;
 import gr.atc.urbreath.repository.NbsRepository;
+import gr.atc.urbreath.util.CursorUtils;
 
 @ExtendWith(MockitoExtension.class)
 class NbsServiceTests {
@@ -40,7 +74,22 @@ class NbsServiceTests {
     private NbsRepository nbsRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private INbsMapper nbsMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private NbsDataCache nbsDataCache = new NbsDataCache(100, 10, new SimpleMeterRegistry(), mock(NbsChangeStamp.class));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MinIOStorageService storageService;
+
+    @Mock
+    private ImageProcessingService imageProcessingService;
 
     @InjectMocks
     private NbsService nbsService;
@@ -95,7 +144,7 @@ class NbsServiceTests {
     void givenId_whenRetrieveNbsById_thenReturnNbsDto() {
         // Given
         when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenReturn(mockNbsDto);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
 
         // When
         NbsDataDto result = nbsService.retrieveNbsById("mock-id");
@@ -127,10 +176,10 @@ class NbsServiceTests {
 
     @Test
     @DisplayName("Retrieve NBS by ID: Data Mapping Exception")
-    void givenId_whenModelMapperFails_thenThrowDataMappingException() {
+    void givenId_whenMapperFails_thenThrowDataMappingException() {
         // Given
         when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenThrow(new MappingException(List.of(new ErrorMessage("Test mapping error"))));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenThrow(new DataMappingException("Test mapping error"));
 
         // When & Then
         assertThrows(DataMappingException.class, 
@@ -142,7 +191,7 @@ class NbsServiceTests {
     void givenTitle_whenRetrieveNbsByTitle_thenReturnNbsDto() {
         // Given
         when(nbsRepository.findByTitle("mock-title")).thenReturn(Optional.of(mockNbs));
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenReturn(mockNbsDto);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
 
         // When
         NbsDataDto result = nbsService.retrieveNbsByTitle("mock-title");
@@ -171,8 +220,8 @@ class NbsServiceTests {
     @DisplayName("Retrieve all NBS Geolocations: Success")
     void whenRetrieveAllNbsGeolocations_thenReturnListOfGeoLocationDto() {
         // Given
-        when(nbsRepository.findAll()).thenReturn(mockNbsList);
-        when(modelMapper.map(any(GeoLocation.class), eq(GeoLocationDto.class)))
+        when(nbsRepository.streamNbsGeolocations()).thenReturn(mockNbsList.stream());
+        when(nbsMapper.toGeoLocationDto(any(GeoLocation.class)))
                 .thenReturn(mockGeoLocationDto)
                 .thenReturn(new GeoLocationDto(3.0, 4.0, "Madrid"));
 
@@ -184,17 +233,19 @@ class NbsServiceTests {
         assertEquals(2, result.size());
         assertEquals(1.0, result.get(0).getLatitude());
         assertEquals(2.0, result.get(0).getLongitude());
+        assertEquals("mock-id", result.get(0).getNbsId());
         assertEquals(3.0, result.get(1).getLatitude());
         assertEquals(4.0, result.get(1).getLongitude());
+        assertEquals("mock-id-2", result.get(1).getNbsId());
     }
 
     @Test
     @DisplayName("Retrieve all NBS Geolocations: Data Mapping Exception")
-    void whenModelMapperFailsForGeoLocations_thenThrowDataMappingException() {
+    void whenMapperFailsForGeoLocations_thenThrowDataMappingException() {
         // Given
-        when(nbsRepository.findAll()).thenReturn(mockNbsList);
-        when(modelMapper.map(any(GeoLocation.class), eq(GeoLocationDto.class)))
-                .thenThrow(new MappingException(List.of(new ErrorMessage("Test mapping error"))));
+        when(nbsRepository.streamNbsGeolocations()).thenReturn(mockNbsList.stream());
+        when(nbsMapper.toGeoLocationDto(any(GeoLocation.class)))
+                .thenThrow(new DataMappingException("Test mapping error"));
 
         // When & Then
         assertThrows(DataMappingException.class, 
@@ -215,8 +266,8 @@ class NbsServiceTests {
                 .climateZone(ClimateZone.BOREAL.toString())
                 .build();
         
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenReturn(mockNbsDto);
-        when(modelMapper.map(mockNbsList.get(1), NbsDataDto.class)).thenReturn(mockNbsDto2);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+        when(nbsMapper.toNbsDataDto(mockNbsList.get(1))).thenReturn(mockNbsDto2);
 
         // When
         Page<NbsDataDto> result = nbsService.retrieveAllNbsBriefData(mockPageable);
@@ -238,7 +289,7 @@ class NbsServiceTests {
         Page<Nbs> mockPage = new PageImpl<>(mediterraneanNbs);
         
         when(nbsRepository.findNbsBriefDataByClimateZone(ClimateZone.MEDITERRANEAN, mockPageable)).thenReturn(mockPage);
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenReturn(mockNbsDto);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
 
         // When
         Page<NbsDataDto> result = nbsService.retrieveAllNbsBriefDataByClimateZone(ClimateZone.MEDITERRANEAN, mockPageable);
@@ -253,15 +304,522 @@ class NbsServiceTests {
 
     @Test
     @DisplayName("Retrieve NBS by Climate Zone: Data Mapping Exception")
-    void givenClimateZone_whenModelMapperFails_thenThrowDataMappingException() {
+    void givenClimateZone_whenMapperFails_thenThrowDataMappingException() {
         // Given
         Page<Nbs> mockPage = new PageImpl<>(List.of(mockNbs));
         when(nbsRepository.findNbsBriefDataByClimateZone(ClimateZone.MEDITERRANEAN, mockPageable)).thenReturn(mockPage);
-        when(modelMapper.map(mockNbs, NbsDataDto.class)).thenThrow(new MappingException(List.of(new ErrorMessage("Test mapping error"))));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenThrow(new DataMappingException("Test mapping error"));
 
         // When & Then
         assertThrows(DataMappingException.class, 
                 () -> nbsService.retrieveAllNbsBriefDataByClimateZone(ClimateZone.MEDITERRANEAN, mockPageable));
         
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Retrieve all NBS (Brief Data) with keyset pagination: Success")
+    void givenKeysetPosition_whenRetrieveAllNbsBriefData_thenReturnWindowOfNbsDto() {
+        // Given
+        Window<Nbs> mockWindow = Window.from(List.of(mockNbs), index -> CursorUtils.toScrollPosition(null, "mock-id"), true);
+        when(nbsRepository.scrollNbsBriefData(null, ScrollPosition.keyset(), Sort.Direction.DESC, 1)).thenReturn(mockWindow);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        Window<NbsDataDto> result = nbsService.retrieveAllNbsBriefData(ScrollPosition.keyset(), Sort.Direction.DESC, 1);
+
+        // Then
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals("mock-id", result.getContent().get(0).getId());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    @DisplayName("Count NBS by Climate Zone: Success")
+    void givenClimateZone_whenCountNbs_thenReturnCount() {
+        // Given
+        when(nbsRepository.countByClimateZone(ClimateZone.MEDITERRANEAN)).thenReturn(3L);
+        when(nbsRepository.count()).thenReturn(5L);
+
+        // When - Then
+        assertEquals(3L, nbsService.countNbs(ClimateZone.MEDITERRANEAN));
+        assertEquals(5L, nbsService.countNbs(null));
+    }
+
+    @Test
+    @DisplayName("Export all NBS as NDJSON: Success")
+    void givenNdjsonFormat_whenExportAllNbs_thenWriteOneRecordPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(nbsRepository.streamAllNbs()).thenReturn(mockNbsList.stream());
+        when(nbsMapper.toNbsDataDto(any(Nbs.class)))
+                .thenReturn(mockNbsDto)
+                .thenReturn(NbsDataDto.builder().id("mock-id-2").title("mock-title-2").build());
+
+        // When
+        nbsService.exportAllNbs(outputStream, ExportFormat.NDJSON);
+
+        // Then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("mock-id", objectMapper.readValue(lines[0], NbsDataDto.class).getId());
+        assertEquals("mock-id-2", objectMapper.readValue(lines[1], NbsDataDto.class).getId());
+    }
+
+    @Test
+    @DisplayName("Export all NBS as JSON array: Success")
+    void givenJsonFormat_whenExportAllNbs_thenWriteJsonArray() throws Exception {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(nbsRepository.streamAllNbs()).thenReturn(mockNbsList.stream());
+        when(nbsMapper.toNbsDataDto(any(Nbs.class))).thenReturn(mockNbsDto);
+
+        // When
+        nbsService.exportAllNbs(outputStream, ExportFormat.JSON);
+
+        // Then
+        NbsDataDto[] result = objectMapper.readValue(outputStream.toByteArray(), NbsDataDto[].class);
+        assertEquals(2, result.length);
+        assertEquals("mock-title", result[1].getTitle());
+    }
+
+    @Test
+    @DisplayName("Export all NBS: Output flushed only on completion")
+    void givenMultipleRecords_whenExportAllNbs_thenDoNotFlushPerRecord() throws Exception {
+        // Given
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        when(nbsRepository.streamAllNbs()).thenReturn(mockNbsList.stream());
+        when(nbsMapper.toNbsDataDto(any(Nbs.class))).thenReturn(mockNbsDto);
+
+        // When
+        nbsService.exportAllNbs(outputStream, ExportFormat.NDJSON);
+
+        // Then
+        assertEquals(1, flushes.get());
+        assertEquals(2, outputStream.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS by ID and Title: Served from cache")
+    void givenCachedNbs_whenRetrieveNbsByIdOrTitle_thenSkipRepository() {
+        // Given
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        NbsDataDto firstResult = nbsService.retrieveNbsById("mock-id");
+        NbsDataDto secondResult = nbsService.retrieveNbsById("mock-id");
+        NbsDataDto titleResult = nbsService.retrieveNbsByTitle("mock-title");
+
+        // Then
+        assertEquals(firstResult, secondResult);
+        assertEquals(firstResult, titleResult);
+        verify(nbsRepository, times(1)).findById("mock-id");
+        verify(nbsRepository, times(0)).findByTitle("mock-title");
+    }
+
+    @Test
+    @DisplayName("Create NBS: Upload files, store NBS and publish change event")
+    void givenNbsDataWithFiles_whenCreateNbs_thenStoreUploadedFileNames() {
+        // Given
+        MockMultipartFile mainImage = new MockMultipartFile("mainImage", "main.png", "image/png", new byte[]{1});
+        MockMultipartFile image = new MockMultipartFile("images", "image.png", "image/png", new byte[]{2});
+        MockMultipartFile video = new MockMultipartFile("videos", "video.mp4", "video/mp4", new byte[]{3});
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder()
+                .title("mock-title")
+                .mainImage(mainImage)
+                .images(List.of(image))
+                .videos(List.of(video))
+                .build();
+        Nbs nbs = Nbs.builder().title("mock-title").build();
+
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.uploadFiles(eq(List.of(mainImage, image, video)), eq("mock-title"), any()))
+                .thenReturn(List.of("main-file", "image-file", "video-file"));
+        when(nbsMapper.toNbs(nbsData)).thenReturn(nbs);
+        when(imageProcessingService.generateVariants(eq(Map.of("main-file", mainImage, "image-file", image)), any()))
+                .thenReturn(List.of(new ImageVariant("main-file", 320, "main-file_w320.jpg")));
+        when(nbsRepository.save(nbs)).thenAnswer(invocation -> {
+            Nbs savedNbs = invocation.getArgument(0);
+            savedNbs.setId("mock-id");
+            return savedNbs;
+        });
+
+        // When
+        String nbsId = nbsService.createNbs(nbsData);
+
+        // Then
+        assertEquals("mock-id", nbsId);
+        assertEquals("main-file", nbs.getMainImage());
+        assertEquals(List.of("image-file"), nbs.getImages());
+        assertEquals(List.of("video-file"), nbs.getVideos());
+        assertNotNull(nbs.getDateCreated());
+        assertEquals(List.of(new ImageVariant("main-file", 320, "main-file_w320.jpg")), nbs.getImageVariants());
+        verify(eventPublisher).publishEvent(new NbsChangedEvent("mock-id", "mock-title"));
+    }
+
+    @Test
+    @DisplayName("Create NBS: Reference streamed videos and confirm their upload")
+    void givenUploadedVideos_whenCreateNbs_thenConfirmPendingUploads() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder()
+                .title("mock-title")
+                .uploadedVideos(List.of("streamed-video"))
+                .build();
+        Nbs nbs = Nbs.builder().title("mock-title").build();
+
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.isPendingUpload(eq("streamed-video"), any())).thenReturn(true);
+        when(storageService.uploadFiles(eq(List.of()), eq("mock-title"), any())).thenReturn(List.of());
+        when(nbsMapper.toNbs(nbsData)).thenReturn(nbs);
+        when(nbsRepository.save(nbs)).thenReturn(nbs);
+
+        // When
+        nbsService.createNbs(nbsData);
+
+        // Then
+        assertEquals(List.of("streamed-video"), nbs.getVideos());
+        verify(storageService).confirmUploads(eq(List.of("streamed-video")), any());
+    }
+
+    @Test
+    @DisplayName("Create NBS: Failure - Streamed videos are pending again if the NBS can not be stored")
+    void givenSaveFailure_whenCreateNbs_thenRestorePendingUploads() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder()
+                .title("mock-title")
+                .uploadedVideos(List.of("streamed-video"))
+                .build();
+        Nbs nbs = Nbs.builder().title("mock-title").build();
+
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.isPendingUpload(eq("streamed-video"), any())).thenReturn(true);
+        when(storageService.uploadFiles(eq(List.of()), eq("mock-title"), any())).thenReturn(List.of());
+        when(nbsMapper.toNbs(nbsData)).thenReturn(nbs);
+        when(nbsRepository.save(nbs)).thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"));
+
+        // When - Then
+        assertThrows(DataAccessResourceFailureException.class, () -> nbsService.createNbs(nbsData));
+        verify(storageService).restorePendingUploads(eq(List.of("streamed-video")), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Create NBS: Failure - Uploaded video not created by the media upload")
+    void givenUnknownUploadedVideo_whenCreateNbs_thenThrowInvalidRequestParameterException() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder()
+                .title("mock-title")
+                .uploadedVideos(List.of("other-nbs-video"))
+                .build();
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.isPendingUpload(eq("other-nbs-video"), any())).thenReturn(false);
+
+        // When - Then
+        assertThrows(InvalidRequestParameterException.class, () -> nbsService.createNbs(nbsData));
+        verify(storageService, never()).uploadFiles(anyList(), any(), any());
+        verify(nbsRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Create NBS: Failure - Title already exists")
+    void givenExistingTitle_whenCreateNbs_thenThrowResourceAlreadyExistsException() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder().title("mock-title").build();
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(true);
+
+        // When - Then
+        assertThrows(ResourceAlreadyExistsException.class, () -> nbsService.createNbs(nbsData));
+        verify(storageService, never()).uploadFiles(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Create NBS: Failure - File upload failed")
+    void givenFailedUpload_whenCreateNbs_thenDoNotStoreNbs() {
+        // Given
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder().title("mock-title").build();
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.uploadFiles(anyList(), any(), any())).thenThrow(new FileUploadException("Upload failed"));
+
+        // When - Then
+        assertThrows(FileUploadException.class, () -> nbsService.createNbs(nbsData));
+        verify(nbsRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Create NBS: Failure - Cleanup uploaded files when NBS can not be stored")
+    void givenFailedSave_whenCreateNbs_thenDeleteUploadedFiles() {
+        // Given
+        MockMultipartFile mainImage = new MockMultipartFile("mainImage", "main.png", "image/png", new byte[]{1});
+        NbsCreationDataDto nbsData = NbsCreationDataDto.builder().title("mock-title").mainImage(mainImage).build();
+        Nbs nbs = Nbs.builder().title("mock-title").build();
+
+        when(nbsRepository.existsByTitle("mock-title")).thenReturn(false);
+        when(storageService.uploadFiles(anyList(), any(), any())).thenReturn(List.of("main-file"));
+        when(nbsMapper.toNbs(nbsData)).thenReturn(nbs);
+        when(nbsRepository.save(nbs)).thenThrow(new DuplicateKeyException("Duplicate title"));
+
+        // When - Then
+        assertThrows(ResourceAlreadyExistsException.class, () -> nbsService.createNbs(nbsData));
+        verify(storageService).deleteFiles(eq(List.of("main-file")), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS near a location: Success")
+    void givenLocationAndRadius_whenRetrieveNbsBriefDataNear_thenQueryRadiusInMeters() {
+        // Given
+        when(nbsRepository.findNbsBriefDataNear(1.0, 2.0, 1500.0, mockPageable)).thenReturn(new PageImpl<>(List.of(mockNbs)));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        Page<NbsDataDto> result = nbsService.retrieveNbsBriefDataNear(1.0, 2.0, 1.5, mockPageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals("mock-id", result.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS within a bounding box: Success")
+    void givenBoundingBox_whenRetrieveNbsBriefDataWithinBox_thenReturnPageOfNbsDto() {
+        // Given
+        when(nbsRepository.findNbsBriefDataWithinBox(0.0, 0.0, 5.0, 5.0, mockPageable)).thenReturn(new PageImpl<>(mockNbsList));
+        when(nbsMapper.toNbsDataDto(any(Nbs.class))).thenReturn(mockNbsDto);
+
+        // When
+        Page<NbsDataDto> result = nbsService.retrieveNbsBriefDataWithinBox(0.0, 0.0, 5.0, 5.0, mockPageable);
+
+        // Then
+        assertEquals(2, result.getContent().size());
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS clusters: Success")
+    void givenZoomLevel_whenRetrieveNbsClusters_thenReturnClustersPerCell() {
+        // Given - Zoom level 2 splits the world in 4x4 tiles of 4x4 cells
+        when(nbsRepository.clusterNbsLocations(16, -180, -90, 180, 90)).thenReturn(List.of(
+                new NbsCluster(38.0, 23.7, 3, "mock-id"),
+                new NbsCluster(60.1, 24.9, 1, "mock-id-2")));
+
+        // When
+        List<NbsClusterDto> result = nbsService.retrieveNbsClusters(2, -180, -90, 180, 90);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(3, result.get(0).getCount());
+        assertNull(result.get(0).getNbsId());
+        assertEquals("mock-id-2", result.get(1).getNbsId());
+    }
+
+    @Test
+    @DisplayName("Search NBS (Brief Data): Success")
+    void givenSearchTerms_whenSearchNbsBriefData_thenReturnPageOfNbsDto() {
+        // Given
+        when(nbsRepository.searchNbsBriefData("green", mockPageable)).thenReturn(new PageImpl<>(List.of(mockNbs)));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        Page<NbsDataDto> result = nbsService.searchNbsBriefData("green", mockPageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals("mock-id", result.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Filter NBS (Brief Data) with facets: Success")
+    void givenFilter_whenFilterNbsBriefData_thenReturnResultsAndFacetCounts() {
+        // Given
+        NbsFilter filter = NbsFilter.builder().climateZone(ClimateZone.MEDITERRANEAN).build();
+        NbsFacetResult facetResult = new NbsFacetResult(
+                List.of(mockNbs),
+                List.of(new FacetCount(null, 12)),
+                List.of(new FacetCount("MEDITERRANEAN", 12)),
+                List.of(),
+                List.of(new FacetCount("Athens", 10), new FacetCount(null, 2)),
+                List.of(new FacetCount(true, 12)),
+                List.of(new FacetCount("urban", 7), new FacetCount("green", 3)),
+                List.of());
+        when(nbsRepository.filterNbsBriefDataWithFacets(filter, mockPageable)).thenReturn(facetResult);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        NbsFilterResultDto result = nbsService.filterNbsBriefData(filter, mockPageable);
+
+        // Then
+        assertEquals(1, result.getResults().size());
+        assertEquals(12, result.getTotalElements());
+        assertEquals(12L, result.getFacets().get("climateZone").get("Mediterranean"));
+        assertEquals(1, result.getFacets().get("pilot").size());
+        assertEquals(12L, result.getFacets().get("isUrBreathNbs").get("true"));
+        assertEquals(List.of("urban", "green"), List.copyOf(result.getFacets().get("keywords").keySet()));
+        assertTrue(result.getFacets().get("problems").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Success")
+    void givenUploadedFiles_whenAttachNbsMedia_thenUpdateNbsAndPublishEvent() {
+        // Given
+        NbsMediaDto media = NbsMediaDto.builder().mainImage("main-file").videos(List.of("video-file")).build();
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(storageService.isPendingUpload(eq("main-file"), any())).thenReturn(true);
+        when(storageService.isPendingUpload(eq("video-file"), any())).thenReturn(true);
+        when(nbsRepository.attachNbsMedia("mock-id", "main-file", List.of(), List.of("video-file"), List.of())).thenReturn(mockNbs);
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When
+        NbsDataDto result = nbsService.attachNbsMedia("mock-id", media);
+
+        // Then
+        assertEquals("mock-id", result.getId());
+        verify(eventPublisher).publishEvent(new NbsChangedEvent(mockNbs.getId(), mockNbs.getTitle()));
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Failure - File not uploaded")
+    void givenMissingFile_whenAttachNbsMedia_thenThrowInvalidRequestParameterException() {
+        // Given
+        NbsMediaDto media = NbsMediaDto.builder().images(List.of("missing-file")).build();
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(storageService.isPendingUpload(eq("missing-file"), any())).thenReturn(false);
+
+        // When - Then
+        assertThrows(InvalidRequestParameterException.class, () -> nbsService.attachNbsMedia("mock-id", media));
+        verify(nbsRepository, never()).attachNbsMedia(any(), any(), anyList(), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Failure - File already referenced by an NBS")
+    void givenConfirmedFile_whenAttachNbsMedia_thenThrowInvalidRequestParameterException() {
+        // Given
+        NbsMediaDto media = NbsMediaDto.builder().mainImage("other-nbs-image").build();
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(storageService.isPendingUpload(eq("other-nbs-image"), any())).thenReturn(false);
+
+        // When - Then
+        assertThrows(InvalidRequestParameterException.class, () -> nbsService.attachNbsMedia("mock-id", media));
+        verify(imageProcessingService, never()).generateVariants(any(), any());
+        verify(storageService, never()).confirmUploads(anyList(), any());
+        verify(nbsRepository, never()).attachNbsMedia(any(), any(), anyList(), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Failure - NBS not found")
+    void givenNonExistentNbs_whenAttachNbsMedia_thenThrowResourceNotFoundException() {
+        // Given
+        NbsMediaDto media = NbsMediaDto.builder().mainImage("main-file").build();
+        when(nbsRepository.findById("non-existent-id")).thenReturn(Optional.empty());
+
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> nbsService.attachNbsMedia("non-existent-id", media));
+        verify(imageProcessingService, never()).generateVariants(any(), any());
+        verify(nbsRepository, never()).attachNbsMedia(any(), any(), anyList(), anyList(), anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Failure - NBS removed during attachment")
+    void givenNbsRemovedDuringAttachment_whenAttachNbsMedia_thenDeleteVariantsAndThrowResourceNotFoundException() {
+        // Given
+        NbsMediaDto media = NbsMediaDto.builder().mainImage("main-file").build();
+        List<ImageVariant> variants = List.of(new ImageVariant("main-file", 320, "main-file_w320.jpg"));
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(storageService.isPendingUpload(eq("main-file"), any())).thenReturn(true);
+        when(imageProcessingService.generateVariants(any(), any())).thenReturn(variants);
+        when(nbsRepository.attachNbsMedia("mock-id", "main-file", List.of(), List.of(), variants)).thenReturn(null);
+
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> nbsService.attachNbsMedia("mock-id", media));
+        verify(storageService).deleteFiles(eq(List.of("main-file_w320.jpg")), any());
+        verify(storageService).restorePendingUploads(eq(List.of("main-file")), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Attach uploaded media to NBS: Success - Variants of replaced main image are removed")
+    void givenReplacedMainImage_whenAttachNbsMedia_thenDeleteVariantFilesOfPreviousMainImage() {
+        // Given
+        mockNbs.setMainImage("old-file");
+        mockNbs.setImageVariants(List.of(new ImageVariant("old-file", 320, "old-file_w320.jpg"), new ImageVariant("image-file", 320, "image-file_w320.jpg")));
+        List<ImageVariant> variants = List.of(new ImageVariant("new-file", 320, "new-file_w320.jpg"));
+
+        Nbs updatedNbs = new Nbs();
+        updatedNbs.setId("mock-id");
+        updatedNbs.setTitle("mock-title");
+        updatedNbs.setMainImage("new-file");
+        updatedNbs.setImageVariants(List.of(new ImageVariant("image-file", 320, "image-file_w320.jpg"), variants.get(0)));
+
+        NbsMediaDto media = NbsMediaDto.builder().mainImage("new-file").build();
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(storageService.isPendingUpload(eq("new-file"), any())).thenReturn(true);
+        when(imageProcessingService.generateVariants(any(), any())).thenReturn(variants);
+        when(nbsRepository.attachNbsMedia("mock-id", "new-file", List.of(), List.of(), variants)).thenReturn(updatedNbs);
+        when(nbsMapper.toNbsDataDto(updatedNbs)).thenReturn(mockNbsDto);
+
+        // When
+        nbsService.attachNbsMedia("mock-id", media);
+
+        // Then
+        verify(storageService).deleteFiles(eq(List.of("old-file_w320.jpg")), any());
+        verify(eventPublisher).publishEvent(new NbsChangedEvent("mock-id", "mock-title"));
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS media file: Success")
+    void givenAttachedFile_whenRetrieveNbsMediaFile_thenReturnFileMetadata() {
+        // Given
+        mockNbs.setVideos(List.of("video-file"));
+        mockNbsDto.setVideos(List.of("video-file"));
+        MediaFile mediaFile = new MediaFile("video-file", "video/mp4", 1024, "mock-etag", Instant.now());
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+        when(storageService.retrieveFileMetadata(eq("video-file"), any())).thenReturn(mediaFile);
+
+        // When
+        MediaFile result = nbsService.retrieveNbsMediaFile("mock-id", "video-file");
+
+        // Then
+        assertEquals(mediaFile, result);
+    }
+
+    @Test
+    @DisplayName("Retrieve NBS media file: Failure - File does not belong to NBS")
+    void givenFileOfOtherNbs_whenRetrieveNbsMediaFile_thenThrowResourceNotFoundException() {
+        // Given
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> nbsService.retrieveNbsMediaFile("mock-id", "other-file"));
+        verify(storageService, never()).retrieveFileMetadata(any(), any());
+    }
+
+    @Test
+    @DisplayName("Generate presigned download URL: Failure - File does not belong to NBS")
+    void givenFileOfOtherNbs_whenGenerateNbsMediaDownloadUrl_thenThrowResourceNotFoundException() {
+        // Given
+        when(nbsRepository.findById("mock-id")).thenReturn(Optional.of(mockNbs));
+        when(nbsMapper.toNbsDataDto(mockNbs)).thenReturn(mockNbsDto);
+
+        // When - Then
+        assertThrows(ResourceNotFoundException.class, () -> nbsService.generateNbsMediaDownloadUrl("mock-id", "other-file"));
+        verify(storageService, never()).generateDownloadUrl(any(), any());
+    }
+
+    @Test
+    @DisplayName("Generate presigned upload URL: Failure - Content type is not image or video")
+    void givenDocumentContentType_whenGenerateNbsMediaUploadUrl_thenThrowInvalidRequestParameterException() {
+        // When - Then
+        assertThrows(InvalidRequestParameterException.class, () -> nbsService.generateNbsMediaUploadUrl("mock-title", "file.html", "text/html"));
+        assertThrows(InvalidRequestParameterException.class, () -> nbsService.generateNbsMediaUploadUrl("mock-title", "file.mp4", "video/*"));
+        verify(storageService, never()).generateUploadUrl(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,60 @@
+package gr.atc.urbreath.util;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import static gr.atc.urbreath.exception.CustomExceptions.*;
+
+class CursorUtilsTests {
+
+    private static final String MOCK_ID = "65f1c0a2b3d4e5f601234567";
+
+    @DisplayName("Encode and decode cursor: Success")
+    @Test
+    void givenPosition_whenEncodeAndDecodeCursor_thenReturnSamePosition() {
+        // Given
+        KeysetScrollPosition position = CursorUtils.toScrollPosition(new Date(1700000000000L), MOCK_ID);
+
+        // When
+        KeysetScrollPosition decodedPosition = CursorUtils.decodeCursor(CursorUtils.encodeCursor(position));
+
+        // Then
+        assertEquals(position, decodedPosition);
+    }
+
+    @DisplayName("Encode and decode cursor without creation date: Success")
+    @Test
+    void givenPositionWithoutDate_whenEncodeAndDecodeCursor_thenReturnSamePosition() {
+        // Given
+        KeysetScrollPosition position = CursorUtils.toScrollPosition(null, MOCK_ID);
+
+        // When
+        KeysetScrollPosition decodedPosition = CursorUtils.decodeCursor(CursorUtils.encodeCursor(position));
+
+        // Then
+        assertNull(decodedPosition.getKeys().get(CursorUtils.DATE_CREATED_KEY));
+        assertEquals(MOCK_ID, decodedPosition.getKeys().get(CursorUtils.ID_KEY));
+    }
+
+    @DisplayName("Decode empty cursor: Initial position")
+    @Test
+    void givenEmptyCursor_whenDecodeCursor_thenReturnInitialPosition() {
+        assertTrue(CursorUtils.decodeCursor("").isInitial());
+        assertNull(CursorUtils.encodeCursor(ScrollPosition.keyset()));
+    }
+
+    @DisplayName("Decode invalid cursor: Invalid Request Parameter Exception")
+    @Test
+    void givenInvalidCursor_whenDecodeCursor_thenThrowException() {
+        assertThrows(InvalidRequestParameterException.class, () -> CursorUtils.decodeCursor("not-a-cursor"));
+        assertThrows(InvalidRequestParameterException.class, () -> CursorUtils.decodeCursor("%%%"));
+    }
+}
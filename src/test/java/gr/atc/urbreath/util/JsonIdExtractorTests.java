@@ -0,0 +1,110 @@
+package gr.atc.urbreath.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+
+class JsonIdExtractorTests {
+
+    private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    private static final String RESULTS = "results";
+
+    private static final String CATALOGUE = """
+            {"count": 3, "facets": [{"id": "facet-1", "values": []}], "results": [
+              {"id": "dataset-1", "title": "Air Quality", "distributions": [{"id": "distribution-1", "format": "CSV"}]},
+              {"title": "Green Areas", "publisher": {"id": "publisher-1"}, "id": "dataset-2"},
+              {"id": 3, "title": "Noise Levels", "tags": ["id", "noise"]}
+            ], "links": [{"id": "next"}]}
+            """;
+
+    @DisplayName("Extract IDs: Entries of the configured field of the root object")
+    @Test
+    void givenCatalogueWithPrecedingArray_whenExtractIds_thenReturnOnlyEntryIds() {
+        // Given
+        List<DataBuffer> buffers = toBuffers(CATALOGUE, 7);
+
+        // When
+        List<String> ids = JsonIdExtractor.extractIds(Flux.fromIterable(buffers), RESULTS, 10).block();
+
+        // Then
+        assertEquals(List.of("dataset-1", "dataset-2", "3"), ids);
+        assertTrue(buffers.stream().allMatch(this::isReleased));
+    }
+
+    @DisplayName("Extract IDs: Entries of root array")
+    @Test
+    void givenRootArray_whenExtractIds_thenReturnIds() {
+        // When
+        List<String> ids = JsonIdExtractor.extractIds(Flux.fromIterable(toBuffers("[{\"id\":\"kpi-1\"},{\"id\":\"kpi-2\"}]", 5)), RESULTS, 10).block();
+
+        // Then
+        assertEquals(List.of("kpi-1", "kpi-2"), ids);
+    }
+
+    @DisplayName("Extract IDs: Entries field missing")
+    @Test
+    void givenObjectWithoutEntriesField_whenExtractIds_thenReturnEmptyList() {
+        // When
+        List<String> ids = JsonIdExtractor.extractIds(Flux.fromIterable(toBuffers(CATALOGUE, 7)), "datasets", 10).block();
+
+        // Then
+        assertEquals(List.of(), ids);
+    }
+
+    @DisplayName("Extract IDs: Empty body")
+    @Test
+    void givenEmptyBody_whenExtractIds_thenReturnEmptyList() {
+        // When
+        List<String> ids = JsonIdExtractor.extractIds(Flux.empty(), RESULTS, 10).block();
+
+        // Then
+        assertEquals(List.of(), ids);
+    }
+
+    @DisplayName("Extract IDs: Limit of entries exceeded")
+    @Test
+    void givenMoreEntriesThanLimit_whenExtractIds_thenThrowDataBufferLimitException() {
+        // Given
+        List<DataBuffer> buffers = toBuffers(CATALOGUE, 16);
+
+        // When - Then
+        assertThrows(DataBufferLimitException.class, () -> JsonIdExtractor.extractIds(Flux.fromIterable(buffers), RESULTS, 2).block());
+        assertTrue(buffers.stream().allMatch(this::isReleased));
+    }
+
+    @DisplayName("Extract IDs: Invalid JSON")
+    @Test
+    void givenInvalidJson_whenExtractIds_thenThrowDecodingException() {
+        // When - Then
+        assertThrows(DecodingException.class,
+                () -> JsonIdExtractor.extractIds(Flux.fromIterable(toBuffers("{\"results\": [{\"id\": }]}", 8)), RESULTS, 10).block());
+    }
+
+    private List<DataBuffer> toBuffers(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            buffers.add(BUFFER_FACTORY.wrap(Arrays.copyOfRange(bytes, offset, Math.min(offset + chunkSize, bytes.length))));
+        }
+        return buffers;
+    }
+
+    private boolean isReleased(DataBuffer buffer) {
+        return NettyDataBufferFactory.toByteBuf(buffer).refCnt() == 0;
+    }
+}